@@ -4,8 +4,14 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Objects;
@@ -235,6 +241,55 @@ public class AesUtil {
 		return Pkcs7Encoder.decode(aes(encrypted, aesKey, Cipher.DECRYPT_MODE));
 	}
 
+	/**
+	 * 流式加密，返回的输出流写入明文，密文写入 out，关闭时补位并完成加密
+	 * <p>
+	 * 结果与 {@link #encrypt(byte[], String)} 一致，内存占用与数据大小无关
+	 *
+	 * @param out        密文输出流，关闭返回的流时会一并关闭
+	 * @param aesTextKey 文本密钥
+	 * @return 明文输出流
+	 */
+	public static OutputStream encryptStream(OutputStream out, String aesTextKey) {
+		Cipher cipher = streamCipher(Objects.requireNonNull(aesTextKey).getBytes(DEFAULT_CHARSET), Cipher.ENCRYPT_MODE);
+		return new Pkcs7OutputStream(new CipherOutputStream(out, cipher));
+	}
+
+	/**
+	 * 流式解密，从返回的输入流读取明文
+	 * <p>
+	 * 结果与 {@link #decrypt(byte[], String)} 一致，内存占用与数据大小无关
+	 *
+	 * @param in         密文输入流
+	 * @param aesTextKey 文本密钥
+	 * @return 明文输入流
+	 */
+	public static InputStream decryptStream(InputStream in, String aesTextKey) {
+		Cipher cipher = streamCipher(Objects.requireNonNull(aesTextKey).getBytes(DEFAULT_CHARSET), Cipher.DECRYPT_MODE);
+		return new Pkcs7InputStream(new CipherInputStream(in, cipher));
+	}
+
+	/**
+	 * 流式处理使用的 Cipher
+	 * <p>
+	 * Cipher 在整个流的生命周期内被占用，期间同一线程可能再次调用加解密（如反序列化中），
+	 * 因此不使用线程复用的实例
+	 *
+	 * @param aesKey 密钥
+	 * @param mode   模式
+	 * @return Cipher
+	 */
+	private static Cipher streamCipher(byte[] aesKey, int mode) {
+		Assert.isTrue(aesKey.length == 32, "IllegalAesKey, aesKey's length must be 32");
+		try {
+			Cipher cipher = Cipher.getInstance("AES/CBC/NoPadding");
+			cipher.init(mode, new SecretKeySpec(aesKey, "AES"), new IvParameterSpec(Arrays.copyOfRange(aesKey, 0, 16)));
+			return cipher;
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e);
+		}
+	}
+
 	/**
 	 * ase加密
 	 *
@@ -246,7 +301,7 @@ public class AesUtil {
 	private static byte[] aes(byte[] encrypted, byte[] aesKey, int mode) {
 		Assert.isTrue(aesKey.length == 32, "IllegalAesKey, aesKey's length must be 32");
 		try {
-			Cipher cipher = Cipher.getInstance("AES/CBC/NoPadding");
+			Cipher cipher = CryptoKeyCache.getCipher("AES/CBC/NoPadding");
 			SecretKeySpec keySpec = new SecretKeySpec(aesKey, "AES");
 			IvParameterSpec iv = new IvParameterSpec(Arrays.copyOfRange(aesKey, 0, 16));
 			cipher.init(mode, keySpec, iv);
@@ -290,4 +345,125 @@ public class AesUtil {
 			return decrypted;
 		}
 	}
+
+	/**
+	 * 写入时计数，关闭时按 PKCS7 算法补位的输出流
+	 */
+	private static class Pkcs7OutputStream extends FilterOutputStream {
+		private long count = 0;
+		private boolean closed = false;
+
+		private Pkcs7OutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			int amountToPad = Pkcs7Encoder.BLOCK_SIZE - (int) (count % Pkcs7Encoder.BLOCK_SIZE);
+			byte[] pads = new byte[amountToPad];
+			Arrays.fill(pads, (byte) (amountToPad & 0xFF));
+			try {
+				out.write(pads);
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * 读取时去除 PKCS7 补位的输入流，始终保留末尾一个补位块，读到结尾后再判断补位长度
+	 */
+	private static class Pkcs7InputStream extends InputStream {
+		private final InputStream in;
+		private final byte[] buffer = new byte[8192 + Pkcs7Encoder.BLOCK_SIZE];
+		/**
+		 * 可读取的数据区间 [pos, limit)，[limit, end) 为暂存的末尾数据
+		 */
+		private int pos = 0;
+		private int limit = 0;
+		private int end = 0;
+		private boolean eof = false;
+
+		private Pkcs7InputStream(InputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (pos == limit && !fill()) {
+				return -1;
+			}
+			return buffer[pos++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (pos == limit && !fill()) {
+				return -1;
+			}
+			int n = Math.min(len, limit - pos);
+			System.arraycopy(buffer, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return limit - pos;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+
+		/**
+		 * 填充缓冲区
+		 *
+		 * @return 是否有可读数据
+		 * @throws IOException IOException
+		 */
+		private boolean fill() throws IOException {
+			while (pos == limit && !eof) {
+				// 将暂存的末尾数据移到缓冲区头部
+				int tail = end - limit;
+				System.arraycopy(buffer, limit, buffer, 0, tail);
+				pos = 0;
+				end = tail;
+				int n = in.read(buffer, end, buffer.length - end);
+				if (n < 0) {
+					eof = true;
+					int pad = end > 0 ? buffer[end - 1] : 0;
+					if (pad < 1 || pad > Pkcs7Encoder.BLOCK_SIZE || pad > end) {
+						pad = 0;
+					}
+					limit = end - pad;
+					end = limit;
+				} else {
+					end += n;
+					limit = Math.max(0, end - Pkcs7Encoder.BLOCK_SIZE);
+				}
+			}
+			return pos < limit;
+		}
+	}
 }
@@ -0,0 +1,131 @@
+package tech.msop.core.tool.utils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.DESKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 加解密密钥及 Cipher 缓存
+ *
+ * <p>
+ * 1. 解析后的 {@link PublicKey}、{@link PrivateKey}、{@link SecretKey} 按编码后的密钥字符串缓存，避免每次请求都执行 KeyFactory 解析；
+ * 2. {@link Cipher} 按 transformation 在线程内复用，避免每次调用都执行 Cipher.getInstance。
+ * 3. 密钥缓存按 LRU 淘汰，每类最多 {@link #MAX_CACHE_SIZE} 个，按租户或请求使用不同密钥时不会无限增长。
+ * </p>
+ *
+ * @author ruozhuliufeng
+ */
+public class CryptoKeyCache {
+	/**
+	 * 每类密钥缓存的最大数量
+	 */
+	public static final int MAX_CACHE_SIZE = 64;
+	private static final Map<String, PublicKey> PUBLIC_KEY_CACHE = lruCache();
+	private static final Map<String, PrivateKey> PRIVATE_KEY_CACHE = lruCache();
+	private static final Map<String, SecretKey> DES_KEY_CACHE = lruCache();
+	private static final ThreadLocal<Map<String, Cipher>> CIPHER_HOLDER = ThreadLocal.withInitial(() -> new HashMap<>(8));
+
+	/**
+	 * 获取公钥，首次使用时解析并缓存
+	 *
+	 * @param base64PubKey 密钥字符串（经过base64编码）
+	 * @return PublicKey
+	 */
+	public static PublicKey getPublicKey(String base64PubKey) {
+		PublicKey publicKey = PUBLIC_KEY_CACHE.get(base64PubKey);
+		if (publicKey == null) {
+			publicKey = RsaUtil.getPublicKey(base64PubKey);
+			PUBLIC_KEY_CACHE.put(base64PubKey, publicKey);
+		}
+		return publicKey;
+	}
+
+	/**
+	 * 获取私钥，首次使用时解析并缓存
+	 *
+	 * @param base64PriKey 密钥字符串（经过base64编码）
+	 * @return PrivateKey
+	 */
+	public static PrivateKey getPrivateKey(String base64PriKey) {
+		PrivateKey privateKey = PRIVATE_KEY_CACHE.get(base64PriKey);
+		if (privateKey == null) {
+			privateKey = RsaUtil.getPrivateKey(base64PriKey);
+			PRIVATE_KEY_CACHE.put(base64PriKey, privateKey);
+		}
+		return privateKey;
+	}
+
+	/**
+	 * 获取 DES 密钥，首次使用时生成并缓存
+	 *
+	 * @param desKey 密钥
+	 * @return SecretKey
+	 */
+	public static SecretKey getDesKey(byte[] desKey) {
+		// ISO-8859-1 与字节一一对应，可作为缓存 key
+		String cacheKey = new String(desKey, StandardCharsets.ISO_8859_1);
+		SecretKey secretKey = DES_KEY_CACHE.get(cacheKey);
+		if (secretKey == null) {
+			try {
+				SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(DesUtil.DES_ALGORITHM);
+				secretKey = keyFactory.generateSecret(new DESKeySpec(desKey));
+			} catch (Exception e) {
+				throw Exceptions.unchecked(e);
+			}
+			DES_KEY_CACHE.put(cacheKey, secretKey);
+		}
+		return secretKey;
+	}
+
+	/**
+	 * 获取当前线程复用的 Cipher，使用前需要重新 init
+	 *
+	 * @param transformation 如 RSA/ECB/PKCS1Padding
+	 * @return Cipher
+	 */
+	public static Cipher getCipher(String transformation) {
+		Map<String, Cipher> cipherMap = CIPHER_HOLDER.get();
+		Cipher cipher = cipherMap.get(transformation);
+		if (cipher == null) {
+			try {
+				cipher = Cipher.getInstance(transformation);
+			} catch (Exception e) {
+				throw Exceptions.unchecked(e);
+			}
+			cipherMap.put(transformation, cipher);
+		}
+		return cipher;
+	}
+
+	/**
+	 * 创建按访问顺序淘汰的有界缓存
+	 *
+	 * @param <V> 缓存值类型
+	 * @return 线程安全的 LRU Map
+	 */
+	private static <V> Map<String, V> lruCache() {
+		return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > MAX_CACHE_SIZE;
+			}
+		});
+	}
+
+	/**
+	 * 清空密钥缓存，用于密钥轮换
+	 */
+	public static void clear() {
+		PUBLIC_KEY_CACHE.clear();
+		PRIVATE_KEY_CACHE.clear();
+		DES_KEY_CACHE.clear();
+	}
+}
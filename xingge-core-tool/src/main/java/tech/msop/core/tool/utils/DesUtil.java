@@ -3,8 +3,11 @@ package tech.msop.core.tool.utils;
 import org.springframework.lang.Nullable;
 
 import javax.crypto.Cipher;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.DESKeySpec;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Objects;
 
 /**
@@ -147,6 +150,28 @@ public class DesUtil {
 		return encrypt(data, Objects.requireNonNull(desKey).getBytes(Charsets.UTF_8));
 	}
 
+	/**
+	 * DES加密
+	 *
+	 * @param data   内容
+	 * @param desKey 密钥，可通过 {@link CryptoKeyCache#getDesKey(byte[])} 获取
+	 * @return byte array
+	 */
+	public static byte[] encrypt(byte[] data, SecretKey desKey) {
+		return des(data, desKey, Cipher.ENCRYPT_MODE);
+	}
+
+	/**
+	 * DES解密
+	 *
+	 * @param data   内容
+	 * @param desKey 密钥，可通过 {@link CryptoKeyCache#getDesKey(byte[])} 获取
+	 * @return byte array
+	 */
+	public static byte[] decrypt(byte[] data, SecretKey desKey) {
+		return des(data, desKey, Cipher.DECRYPT_MODE);
+	}
+
 	/**
 	 * DES解密
 	 *
@@ -169,6 +194,46 @@ public class DesUtil {
 		return decrypt(data, Objects.requireNonNull(desKey).getBytes(Charsets.UTF_8));
 	}
 
+	/**
+	 * DES流式加密，返回的输出流写入明文，密文写入 out，关闭时完成加密
+	 *
+	 * @param out    密文输出流，关闭返回的流时会一并关闭
+	 * @param desKey 密钥
+	 * @return 明文输出流
+	 */
+	public static OutputStream encryptStream(OutputStream out, String desKey) {
+		return new CipherOutputStream(out, streamCipher(desKey, Cipher.ENCRYPT_MODE));
+	}
+
+	/**
+	 * DES流式解密，从返回的输入流读取明文
+	 *
+	 * @param in     密文输入流
+	 * @param desKey 密钥
+	 * @return 明文输入流
+	 */
+	public static InputStream decryptStream(InputStream in, String desKey) {
+		return new CipherInputStream(in, streamCipher(desKey, Cipher.DECRYPT_MODE));
+	}
+
+	/**
+	 * 流式处理使用的 Cipher，流的生命周期内独占，不使用线程复用的实例
+	 *
+	 * @param desKey 密钥
+	 * @param mode   加密：{@link Cipher#ENCRYPT_MODE}，解密：{@link Cipher#DECRYPT_MODE}
+	 * @return Cipher
+	 */
+	private static Cipher streamCipher(String desKey, int mode) {
+		SecretKey secretKey = CryptoKeyCache.getDesKey(Objects.requireNonNull(desKey).getBytes(Charsets.UTF_8));
+		try {
+			Cipher cipher = Cipher.getInstance(DES_ALGORITHM);
+			cipher.init(mode, secretKey, Holder.SECURE_RANDOM);
+			return cipher;
+		} catch (Exception e) {
+			throw Exceptions.unchecked(e);
+		}
+	}
+
 	/**
 	 * DES加密/解密公共方法
 	 *
@@ -178,11 +243,21 @@ public class DesUtil {
 	 * @return des
 	 */
 	private static byte[] des(byte[] data, byte[] desKey, int mode) {
+		return des(data, CryptoKeyCache.getDesKey(desKey), mode);
+	}
+
+	/**
+	 * DES加密/解密公共方法
+	 *
+	 * @param data   byte数组
+	 * @param desKey 密钥
+	 * @param mode   加密：{@link Cipher#ENCRYPT_MODE}，解密：{@link Cipher#DECRYPT_MODE}
+	 * @return des
+	 */
+	private static byte[] des(byte[] data, SecretKey desKey, int mode) {
 		try {
-			SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(DES_ALGORITHM);
-			Cipher cipher = Cipher.getInstance(DES_ALGORITHM);
-			DESKeySpec desKeySpec = new DESKeySpec(desKey);
-			cipher.init(mode, keyFactory.generateSecret(desKeySpec), Holder.SECURE_RANDOM);
+			Cipher cipher = CryptoKeyCache.getCipher(DES_ALGORITHM);
+			cipher.init(mode, desKey, Holder.SECURE_RANDOM);
 			return cipher.doFinal(data);
 		} catch (Exception e) {
 			throw Exceptions.unchecked(e);
@@ -5,6 +5,12 @@ import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
 import io.protostuff.runtime.RuntimeSchema;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,9 +23,10 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ProtostuffUtil {
 
 	/**
-	 * 避免每次序列化都重新申请Buffer空间
+	 * 每个线程复用一个Buffer，避免每次序列化都重新申请Buffer空间。
+	 * 写入大对象时 LinkedBuffer 会追加节点，clear 后只保留首个 DEFAULT_BUFFER_SIZE 大小的节点，不会长期占用内存
 	 */
-	private static final LinkedBuffer BUFFER = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+	private static final ThreadLocal<BufferHolder> BUFFER = ThreadLocal.withInitial(BufferHolder::new);
 	/**
 	 * 缓存Schema
 	 */
@@ -36,13 +43,70 @@ public class ProtostuffUtil {
 	public static <T> byte[] serialize(T obj) {
 		Class<T> clazz = (Class<T>) obj.getClass();
 		Schema<T> schema = getSchema(clazz);
-		byte[] data;
+		BufferHolder holder = BUFFER.get();
+		LinkedBuffer buffer = holder.acquire();
 		try {
-			data = ProtostuffIOUtil.toByteArray(obj, schema, BUFFER);
+			return ProtostuffIOUtil.toByteArray(obj, schema, buffer);
 		} finally {
-			BUFFER.clear();
+			holder.release(buffer);
+		}
+	}
+
+	/**
+	 * 序列化方法，把指定对象序列化到输出流，不关闭输出流
+	 *
+	 * @param obj obj
+	 * @param out 输出流
+	 * @param <T> T
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void serialize(T obj, OutputStream out) {
+		Class<T> clazz = (Class<T>) obj.getClass();
+		Schema<T> schema = getSchema(clazz);
+		BufferHolder holder = BUFFER.get();
+		LinkedBuffer buffer = holder.acquire();
+		try {
+			ProtostuffIOUtil.writeTo(out, obj, schema, buffer);
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e);
+		} finally {
+			holder.release(buffer);
+		}
+	}
+
+	/**
+	 * 序列化列表，列表元素类型需一致
+	 *
+	 * @param list  list
+	 * @param clazz 元素类型
+	 * @param <T>   T
+	 * @return byte[]
+	 */
+	public static <T> byte[] serializeList(List<T> list, Class<T> clazz) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializeList(list, clazz, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * 序列化列表到输出流，列表元素类型需一致，不关闭输出流
+	 *
+	 * @param list  list
+	 * @param clazz 元素类型
+	 * @param out   输出流
+	 * @param <T>   T
+	 */
+	public static <T> void serializeList(List<T> list, Class<T> clazz, OutputStream out) {
+		Schema<T> schema = getSchema(clazz);
+		BufferHolder holder = BUFFER.get();
+		LinkedBuffer buffer = holder.acquire();
+		try {
+			ProtostuffIOUtil.writeListTo(out, list, schema, buffer);
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e);
+		} finally {
+			holder.release(buffer);
 		}
-		return data;
 	}
 
 	/**
@@ -60,6 +124,57 @@ public class ProtostuffUtil {
 		return obj;
 	}
 
+	/**
+	 * 反序列化方法，从输入流读取到结束，不关闭输入流
+	 *
+	 * @param in    输入流
+	 * @param clazz clazz
+	 * @param <T>   T
+	 * @return T
+	 */
+	public static <T> T deserialize(InputStream in, Class<T> clazz) {
+		Schema<T> schema = getSchema(clazz);
+		T obj = schema.newMessage();
+		BufferHolder holder = BUFFER.get();
+		LinkedBuffer buffer = holder.acquire();
+		try {
+			ProtostuffIOUtil.mergeFrom(in, obj, schema, buffer);
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e);
+		} finally {
+			holder.release(buffer);
+		}
+		return obj;
+	}
+
+	/**
+	 * 反序列化列表，与 {@link #serializeList(List, Class)} 对应
+	 *
+	 * @param data  data
+	 * @param clazz 元素类型
+	 * @param <T>   T
+	 * @return List
+	 */
+	public static <T> List<T> deserializeList(byte[] data, Class<T> clazz) {
+		return deserializeList(new ByteArrayInputStream(data), clazz);
+	}
+
+	/**
+	 * 从输入流反序列化列表，不关闭输入流
+	 *
+	 * @param in    输入流
+	 * @param clazz 元素类型
+	 * @param <T>   T
+	 * @return List
+	 */
+	public static <T> List<T> deserializeList(InputStream in, Class<T> clazz) {
+		try {
+			return ProtostuffIOUtil.parseListFrom(in, getSchema(clazz));
+		} catch (IOException e) {
+			throw Exceptions.unchecked(e);
+		}
+	}
+
 	/**
 	 * 获取Schema
 	 * @param clazz clazz
@@ -80,4 +195,27 @@ public class ProtostuffUtil {
 		return schema;
 	}
 
+	/**
+	 * 线程内的Buffer，嵌套序列化（如自定义 Schema 中再次调用）时 Buffer 正在使用，临时申请新的 Buffer
+	 */
+	private static final class BufferHolder {
+		private final LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+		private boolean inUse;
+
+		private LinkedBuffer acquire() {
+			if (inUse) {
+				return LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+			}
+			inUse = true;
+			return buffer;
+		}
+
+		private void release(LinkedBuffer used) {
+			used.clear();
+			if (used == buffer) {
+				inUse = false;
+			}
+		}
+	}
+
 }
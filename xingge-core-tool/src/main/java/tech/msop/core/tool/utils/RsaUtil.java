@@ -186,7 +186,7 @@ public class RsaUtil {
 	 * @return 加密后的内容
 	 */
 	public static byte[] encrypt(String base64PublicKey, byte[] data) {
-		return encrypt(getPublicKey(base64PublicKey), data);
+		return encrypt(CryptoKeyCache.getPublicKey(base64PublicKey), data);
 	}
 
 	/**
@@ -208,7 +208,7 @@ public class RsaUtil {
 	 * @return 加密后的内容
 	 */
 	public static byte[] encryptByPrivateKey(String base64PrivateKey, byte[] data) {
-		return encryptByPrivateKey(getPrivateKey(base64PrivateKey), data);
+		return encryptByPrivateKey(CryptoKeyCache.getPrivateKey(base64PrivateKey), data);
 	}
 
 	/**
@@ -222,6 +222,17 @@ public class RsaUtil {
 		return Base64Util.encodeToString(encryptByPrivateKey(base64PrivateKey, data));
 	}
 
+	/**
+	 * 私钥加密，加密成 base64 字符串，用于 qpp 内，公钥解密
+	 *
+	 * @param privateKey 私钥
+	 * @param data       待加密的内容
+	 * @return 加密后的内容
+	 */
+	public static String encryptByPrivateKeyToBase64(PrivateKey privateKey, byte[] data) {
+		return Base64Util.encodeToString(encryptByPrivateKey(privateKey, data));
+	}
+
 	/**
 	 * 私钥加密，用于 qpp 内，公钥解密
 	 *
@@ -256,7 +267,7 @@ public class RsaUtil {
 	 * @return 解密后的数据
 	 */
 	public static byte[] decrypt(String base64PrivateKey, byte[] data) {
-		return decrypt(getPrivateKey(base64PrivateKey), data);
+		return decrypt(CryptoKeyCache.getPrivateKey(base64PrivateKey), data);
 	}
 
 	/**
@@ -267,7 +278,7 @@ public class RsaUtil {
 	 * @return 解密后的数据
 	 */
 	public static byte[] decryptByPublicKey(String base64publicKey, byte[] data) {
-		return decryptByPublicKey(getPublicKey(base64publicKey), data);
+		return decryptByPublicKey(CryptoKeyCache.getPublicKey(base64publicKey), data);
 	}
 
 	/**
@@ -302,7 +313,7 @@ public class RsaUtil {
 	 */
 	private static byte[] rsa(Key key, byte[] data, int mode) {
 		try {
-			Cipher cipher = Cipher.getInstance(RSA_PADDING);
+			Cipher cipher = CryptoKeyCache.getCipher(RSA_PADDING);
 			cipher.init(mode, key);
 			return cipher.doFinal(data);
 		} catch (Exception e) {
@@ -318,7 +329,7 @@ public class RsaUtil {
 	 * @return 解密后的数据
 	 */
 	public static byte[] decryptByPublicKeyFromBase64(String base64PublicKey, byte[] base64Data) {
-		return decryptByPublicKey(getPublicKey(base64PublicKey), base64Data);
+		return decryptByPublicKey(CryptoKeyCache.getPublicKey(base64PublicKey), base64Data);
 	}
 
 	/**
@@ -347,6 +358,17 @@ public class RsaUtil {
 		return decrypt(base64PrivateKey, Base64Utils.decode(base64Data));
 	}
 
+	/**
+	 * base64 数据解密
+	 *
+	 * @param privateKey 私钥
+	 * @param base64Data base64数据
+	 * @return 解密后的数据
+	 */
+	public static byte[] decryptFromBase64(PrivateKey privateKey, byte[] base64Data) {
+		return decrypt(privateKey, Base64Utils.decode(base64Data));
+	}
+
 	/**
 	 * base64 数据解密
 	 *
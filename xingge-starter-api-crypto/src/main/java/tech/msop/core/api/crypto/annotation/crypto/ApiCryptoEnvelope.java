@@ -0,0 +1,21 @@
+package tech.msop.core.api.crypto.annotation.crypto;
+
+import tech.msop.core.api.crypto.annotation.decrypt.ApiDecrypt;
+import tech.msop.core.api.crypto.annotation.encrypt.ApiEncrypt;
+import tech.msop.core.api.crypto.enums.CryptoType;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>数字信封（RSA + AES-GCM）加密解密含有{@link org.springframework.web.bind.annotation.RequestBody}注解的参数请求数据</p>
+ *
+ * @author ruozhuliufeng
+ */
+@Target({ElementType.TYPE,ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ApiEncrypt(CryptoType.ENVELOPE)
+@ApiDecrypt(CryptoType.ENVELOPE)
+public @interface ApiCryptoEnvelope {
+}
@@ -0,0 +1,19 @@
+package tech.msop.core.api.crypto.annotation.encrypt;
+
+import tech.msop.core.api.crypto.enums.CryptoType;
+
+import java.lang.annotation.*;
+
+/**
+ * 数字信封（RSA + AES-GCM）加密，使用请求头中客户端传递的 AES 密钥
+ *
+ * @author ruozhuliufeng
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@ApiEncrypt(CryptoType.ENVELOPE)
+public @interface ApiEncryptEnvelope {
+
+}
@@ -42,4 +42,20 @@ public class ApiCryptoProperties {
      * rsa 私钥
      */
     private String rsaPrivateKey;
+
+    /**
+     * 是否对 AES、DES 请求体及响应体进行流式加解密，开启后内存占用与报文大小无关。
+     * 注意：流式处理时响应边写边加密，序列化失败时响应可能已提交
+     */
+    private Boolean streaming = Boolean.FALSE;
+
+    /**
+     * 数字信封模式传递 RSA 加密后 AES 密钥的请求头
+     */
+    private String envelopeKeyHeader = "X-Encrypt-Key";
+
+    /**
+     * 数字信封模式解密后 AES 密钥的缓存数量，小于等于 0 时不缓存
+     */
+    private Integer envelopeKeyCacheSize = 1024;
 }
@@ -12,18 +12,17 @@ import org.springframework.lang.NonNull;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdvice;
-import tech.msop.core.api.crypto.annotation.decrypt.ApiDecrypt;
 import tech.msop.core.api.crypto.bean.CryptoInfoBean;
 import tech.msop.core.api.crypto.bean.DecryptHttpInputMessage;
 import tech.msop.core.api.crypto.config.ApiCryptoProperties;
 import tech.msop.core.api.crypto.exception.DecryptBodyFailException;
 import tech.msop.core.api.crypto.util.ApiCryptoUtil;
-import tech.msop.core.tool.utils.ClassUtil;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.util.Base64;
 
 /**
  * 请求数据的加密信息解密处理<br>
@@ -45,7 +44,7 @@ public class ApiDecryptRequestBodyAdvice implements RequestBodyAdvice {
     public boolean supports(MethodParameter methodParameter,
                             @NonNull Type type,
                             @NonNull Class<? extends HttpMessageConverter<?>> aClass) {
-        return ClassUtil.isAnnotated(methodParameter.getMethod(), ApiDecrypt.class );
+        return ApiCryptoUtil.getDecryptInfo(methodParameter) != null;
     }
 
     @Override
@@ -60,10 +59,19 @@ public class ApiDecryptRequestBodyAdvice implements RequestBodyAdvice {
         }
         byte[] decryptedBody = null;
         CryptoInfoBean cryptoInfoBean = ApiCryptoUtil.getDecryptInfo(parameter);
+        if (cryptoInfoBean != null && Boolean.TRUE.equals(properties.getStreaming())) {
+            // base64 解码 -> 解密 -> 消息转换器，全程不缓存整个 body
+            InputStream decryptedStream = ApiCryptoUtil.decryptStream(properties,
+                    Base64.getDecoder().wrap(messageBody), cryptoInfoBean);
+            if (decryptedStream != null) {
+                return new DecryptHttpInputMessage(decryptedStream, inputMessage.getHeaders());
+            }
+        }
         if (cryptoInfoBean != null) {
             // base64 byte array
             byte[] bodyByteArray = StreamUtils.copyToByteArray(messageBody);
-            decryptedBody = ApiCryptoUtil.decryptData(properties, bodyByteArray, cryptoInfoBean);
+            String envelopeKey = inputMessage.getHeaders().getFirst(properties.getEnvelopeKeyHeader());
+            decryptedBody = ApiCryptoUtil.decryptData(properties, bodyByteArray, cryptoInfoBean, envelopeKey);
         }
         if (decryptedBody == null) {
             throw new DecryptBodyFailException("Decryption error, " +
@@ -7,19 +7,24 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
-import tech.msop.core.api.crypto.annotation.encrypt.ApiEncrypt;
 import tech.msop.core.api.crypto.bean.CryptoInfoBean;
 import tech.msop.core.api.crypto.config.ApiCryptoProperties;
 import tech.msop.core.api.crypto.exception.EncryptBodyFailException;
 import tech.msop.core.api.crypto.util.ApiCryptoUtil;
 import tech.msop.core.tool.jackson.JsonUtil;
-import tech.msop.core.tool.utils.ClassUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
 
 
 /**
@@ -42,7 +47,7 @@ public class ApiEncryptResponseBodyAdvice implements ResponseBodyAdvice<Object>
 
 	@Override
 	public boolean supports(MethodParameter returnType, @NonNull Class converterType) {
-		return ClassUtil.isAnnotated(returnType.getMethod(), ApiEncrypt.class);
+		return ApiCryptoUtil.getEncryptInfo(returnType) != null;
 	}
 
 	@Nullable
@@ -54,11 +59,49 @@ public class ApiEncryptResponseBodyAdvice implements ResponseBodyAdvice<Object>
 		}
 		response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
 		CryptoInfoBean cryptoInfoBean = ApiCryptoUtil.getEncryptInfo(returnType);
+		if (cryptoInfoBean != null && Boolean.TRUE.equals(properties.getStreaming())
+			&& writeStreaming(body, cryptoInfoBean, selectedConverterType, response)) {
+			return null;
+		}
 		if (cryptoInfoBean != null) {
 			byte[] bodyJsonBytes = JsonUtil.toJsonAsBytes(body);
-			return ApiCryptoUtil.encryptData(properties, bodyJsonBytes, cryptoInfoBean);
+			String envelopeKey = request.getHeaders().getFirst(properties.getEnvelopeKeyHeader());
+			return ApiCryptoUtil.encryptData(properties, bodyJsonBytes, cryptoInfoBean, envelopeKey);
 		}
 		throw new EncryptBodyFailException();
 	}
 
+	/**
+	 * 流式加密并直接写出响应：序列化 -> 加密 -> base64 编码 -> 响应流，全程不缓存整个 body
+	 * <p>
+	 * 输出与非流式一致：非字符串转换器会将加密结果作为 json 字符串输出，因此在两端补充引号
+	 *
+	 * @return 是否已写出，加密方式不支持流式处理时返回 false
+	 */
+	private boolean writeStreaming(Object body, CryptoInfoBean cryptoInfoBean, Class<?> selectedConverterType,
+								   ServerHttpResponse response) {
+		if (!ApiCryptoUtil.isStreamable(cryptoInfoBean)) {
+			return false;
+		}
+		boolean quoted = !StringHttpMessageConverter.class.isAssignableFrom(selectedConverterType);
+		try {
+			OutputStream responseBody = StreamUtils.nonClosing(response.getBody());
+			OutputStream encryptStream = ApiCryptoUtil.encryptStream(properties,
+				Base64.getEncoder().wrap(responseBody), cryptoInfoBean);
+			if (quoted) {
+				responseBody.write('"');
+			}
+			try (OutputStream out = encryptStream) {
+				JsonUtil.getInstance().writeValue(out, body);
+			}
+			if (quoted) {
+				responseBody.write('"');
+			}
+			responseBody.flush();
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 }
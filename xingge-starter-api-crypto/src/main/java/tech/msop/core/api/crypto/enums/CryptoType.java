@@ -19,5 +19,10 @@ public enum CryptoType {
     /**
      * rsa
      */
-    RSA
+    RSA,
+
+    /**
+     * 数字信封：RSA 加密的 AES 密钥通过请求头传递，报文使用 AES-GCM 加密
+     */
+    ENVELOPE
 }
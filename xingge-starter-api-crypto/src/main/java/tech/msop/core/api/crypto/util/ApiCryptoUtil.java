@@ -1,6 +1,8 @@
 package tech.msop.core.api.crypto.util;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
 import tech.msop.core.api.crypto.annotation.decrypt.ApiDecrypt;
 import tech.msop.core.api.crypto.annotation.encrypt.ApiEncrypt;
 import tech.msop.core.api.crypto.bean.CryptoInfoBean;
@@ -11,7 +13,14 @@ import tech.msop.core.api.crypto.exception.EncryptMethodNotFoundException;
 import tech.msop.core.api.crypto.exception.KeyNotConfiguredException;
 import tech.msop.core.tool.utils.*;
 
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 辅助监测工具类
@@ -20,6 +29,26 @@ import java.util.Objects;
  */
 public class ApiCryptoUtil {
 
+    /**
+     * 无注解时的占位（负缓存）
+     */
+    private static final CryptoInfoBean NONE = new CryptoInfoBean(null, null);
+
+    /**
+     * 控制器方法的加密注解信息缓存
+     */
+    private static final Map<Method, CryptoInfoBean> ENCRYPT_INFO_CACHE = new ConcurrentHashMap<>(64);
+
+    /**
+     * 控制器方法的解密注解信息缓存
+     */
+    private static final Map<Method, CryptoInfoBean> DECRYPT_INFO_CACHE = new ConcurrentHashMap<>(64);
+
+    /**
+     * 控制器参数的解密注解信息缓存
+     */
+    private static final Map<Parameter, CryptoInfoBean> PARAM_DECRYPT_INFO_CACHE = new ConcurrentHashMap<>(64);
+
     /**
      * 获取方法控制器上的加密注解信息
      *
@@ -27,11 +56,15 @@ public class ApiCryptoUtil {
      * @return 加密注解信息
      */
     public static CryptoInfoBean getEncryptInfo(MethodParameter methodParameter) {
-        ApiEncrypt encryptBody = ClassUtil.getAnnotation(methodParameter.getMethod(), ApiEncrypt.class);
-        if (encryptBody == null) {
+        Method method = methodParameter.getMethod();
+        if (method == null) {
             return null;
         }
-        return new CryptoInfoBean(encryptBody.value(), encryptBody.secretKey());
+        CryptoInfoBean infoBean = ENCRYPT_INFO_CACHE.computeIfAbsent(method, key -> {
+            ApiEncrypt encryptBody = ClassUtil.getAnnotation(key, ApiEncrypt.class);
+            return encryptBody == null ? NONE : new CryptoInfoBean(encryptBody.value(), encryptBody.secretKey());
+        });
+        return infoBean == NONE ? null : infoBean;
     }
 
     /**
@@ -41,11 +74,29 @@ public class ApiCryptoUtil {
      * @return 加密注解信息
      */
     public static CryptoInfoBean getDecryptInfo(MethodParameter methodParameter) {
-        ApiDecrypt decryptBody = ClassUtil.getAnnotation(methodParameter.getMethod(), ApiDecrypt.class);
-        if (decryptBody == null) {
+        Method method = methodParameter.getMethod();
+        if (method == null) {
             return null;
         }
-        return new CryptoInfoBean(decryptBody.value(), decryptBody.secretKey());
+        CryptoInfoBean infoBean = DECRYPT_INFO_CACHE.computeIfAbsent(method, key -> {
+            ApiDecrypt decryptBody = ClassUtil.getAnnotation(key, ApiDecrypt.class);
+            return decryptBody == null ? NONE : new CryptoInfoBean(decryptBody.value(), decryptBody.secretKey());
+        });
+        return infoBean == NONE ? null : infoBean;
+    }
+
+    /**
+     * 获取控制器参数上的解密注解信息
+     *
+     * @param parameter 控制器参数
+     * @return 解密注解信息
+     */
+    public static CryptoInfoBean getDecryptInfo(Parameter parameter) {
+        CryptoInfoBean infoBean = PARAM_DECRYPT_INFO_CACHE.computeIfAbsent(parameter, key -> {
+            ApiDecrypt apiDecrypt = AnnotatedElementUtils.getMergedAnnotation(key, ApiDecrypt.class);
+            return apiDecrypt == null ? NONE : new CryptoInfoBean(apiDecrypt.value(), apiDecrypt.secretKey());
+        });
+        return infoBean == NONE ? null : infoBean;
     }
 
     /**
@@ -56,6 +107,18 @@ public class ApiCryptoUtil {
      * @return 加密结果
      */
     public static String encryptData(ApiCryptoProperties properties,byte[] jsonData,CryptoInfoBean infoBean) {
+        return encryptData(properties, jsonData, infoBean, null);
+    }
+
+    /**
+     * 选择加密方式并进行加密
+     *
+     * @param jsonData    json 数据
+     * @param infoBean    加密信息
+     * @param envelopeKey 数字信封模式下请求头中 RSA 加密后的 AES 密钥
+     * @return 加密结果
+     */
+    public static String encryptData(ApiCryptoProperties properties, byte[] jsonData, CryptoInfoBean infoBean, @Nullable String envelopeKey) {
         CryptoType type = infoBean.getType();
         if (type == null) {
             throw new EncryptMethodNotFoundException();
@@ -71,7 +134,10 @@ public class ApiCryptoUtil {
         }
         if (type == CryptoType.RSA) {
             String privateKey = Objects.requireNonNull(properties.getRsaPrivateKey());
-            return RsaUtil.encryptByPrivateKeyToBase64(privateKey,jsonData);
+            return RsaUtil.encryptByPrivateKeyToBase64(CryptoKeyCache.getPrivateKey(privateKey),jsonData);
+        }
+        if (type == CryptoType.ENVELOPE) {
+            return EnvelopeCryptoUtil.encryptToBase64(jsonData, getEnvelopeKey(properties, envelopeKey));
         }
         throw new EncryptBodyFailException();
     }
@@ -84,6 +150,18 @@ public class ApiCryptoUtil {
      * @return 解密结果
      */
     public static byte[] decryptData(ApiCryptoProperties properties,byte[] jsonData,CryptoInfoBean infoBean) {
+        return decryptData(properties, jsonData, infoBean, null);
+    }
+
+    /**
+     * 选择解密方式并进行解密
+     *
+     * @param jsonData    json 数据
+     * @param infoBean    加密信息
+     * @param envelopeKey 数字信封模式下请求头中 RSA 加密后的 AES 密钥
+     * @return 解密结果
+     */
+    public static byte[] decryptData(ApiCryptoProperties properties, byte[] jsonData, CryptoInfoBean infoBean, @Nullable String envelopeKey) {
         CryptoType type = infoBean.getType();
         if (type == null) {
             throw new EncryptMethodNotFoundException();
@@ -98,12 +176,87 @@ public class ApiCryptoUtil {
             return AesUtil.decryptFormBase64(jsonData, secretKey);
         }
         if (type == CryptoType.RSA) {
-            String publicKey = Objects.requireNonNull(properties.getRsaPrivateKey());
-            return RsaUtil.decryptFromBase64(publicKey, jsonData);
+            String privateKey = Objects.requireNonNull(properties.getRsaPrivateKey());
+            return RsaUtil.decryptFromBase64(CryptoKeyCache.getPrivateKey(privateKey), jsonData);
+        }
+        if (type == CryptoType.ENVELOPE) {
+            return EnvelopeCryptoUtil.decryptFromBase64(jsonData, getEnvelopeKey(properties, envelopeKey));
         }
         throw new EncryptMethodNotFoundException();
     }
 
+    /**
+     * 加密方式是否支持流式处理，目前仅支持 AES、DES
+     *
+     * @param infoBean 加密信息
+     * @return 是否支持
+     */
+    public static boolean isStreamable(CryptoInfoBean infoBean) {
+        CryptoType type = infoBean.getType();
+        return type == CryptoType.AES || type == CryptoType.DES;
+    }
+
+    /**
+     * 选择加密方式并创建流式加密输出流
+     *
+     * @param out      密文输出流
+     * @param infoBean 加密信息
+     * @return 明文输出流，加密方式不支持流式处理（RSA）时返回 null
+     */
+    public static OutputStream encryptStream(ApiCryptoProperties properties, OutputStream out, CryptoInfoBean infoBean) {
+        CryptoType type = infoBean.getType();
+        if (type == null) {
+            throw new EncryptMethodNotFoundException();
+        }
+        String secretKey = infoBean.getSecretKey();
+        if (type == CryptoType.DES) {
+            secretKey = ApiCryptoUtil.checkSecretKey(properties.getDesKey(), secretKey, "DES");
+            return DesUtil.encryptStream(out, secretKey);
+        }
+        if (type == CryptoType.AES) {
+            secretKey = ApiCryptoUtil.checkSecretKey(properties.getAesKey(), secretKey, "AES");
+            return AesUtil.encryptStream(out, secretKey);
+        }
+        return null;
+    }
+
+    /**
+     * 选择解密方式并创建流式解密输入流
+     *
+     * @param in       密文输入流
+     * @param infoBean 加密信息
+     * @return 明文输入流，加密方式不支持流式处理（RSA）时返回 null
+     */
+    public static InputStream decryptStream(ApiCryptoProperties properties, InputStream in, CryptoInfoBean infoBean) {
+        CryptoType type = infoBean.getType();
+        if (type == null) {
+            throw new EncryptMethodNotFoundException();
+        }
+        String secretKey = infoBean.getSecretKey();
+        if (type == CryptoType.DES) {
+            secretKey = ApiCryptoUtil.checkSecretKey(properties.getDesKey(), secretKey, "DES");
+            return DesUtil.decryptStream(in, secretKey);
+        }
+        if (type == CryptoType.AES) {
+            secretKey = ApiCryptoUtil.checkSecretKey(properties.getAesKey(), secretKey, "AES");
+            return AesUtil.decryptStream(in, secretKey);
+        }
+        return null;
+    }
+
+    /**
+     * 解密数字信封中的 AES 密钥
+     *
+     * @param envelopeKey RSA 加密后的 AES 密钥
+     * @return AES 密钥
+     */
+    private static SecretKey getEnvelopeKey(ApiCryptoProperties properties, @Nullable String envelopeKey) {
+        String privateKey = ApiCryptoUtil.checkSecretKey(properties.getRsaPrivateKey(), null, "RSA");
+        Integer cacheSize = properties.getEnvelopeKeyCacheSize();
+        return EnvelopeCryptoUtil.unwrapKey(CryptoKeyCache.getPrivateKey(privateKey), envelopeKey,
+                cacheSize == null ? 0 : cacheSize);
+    }
+
     /**
      * 校验加密密钥
      *
@@ -0,0 +1,196 @@
+package tech.msop.core.api.crypto.util;
+
+import tech.msop.core.api.crypto.exception.DecryptBodyFailException;
+import tech.msop.core.tool.utils.Base64Util;
+import tech.msop.core.tool.utils.Charsets;
+import tech.msop.core.tool.utils.CryptoKeyCache;
+import tech.msop.core.tool.utils.DigestUtil;
+import tech.msop.core.tool.utils.Exceptions;
+import tech.msop.core.tool.utils.Holder;
+import tech.msop.core.tool.utils.StringUtil;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.PrivateKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 数字信封（RSA + AES-GCM）加解密工具
+ * <p>
+ * 客户端生成 AES 密钥，使用服务端 RSA 公钥加密（RSA-OAEP，摘要与 MGF1 均为 SHA-256）后放在请求头中传递，报文使用 AES-GCM 加密，
+ * 格式为：base64(12 字节 iv + 密文 + 16 字节认证标签)。响应使用同一 AES 密钥加密。
+ * <p>
+ * RSA 解密的结果按加密密钥的指纹缓存，同一客户端重复使用加密密钥时不再进行 RSA 运算。
+ *
+ * @author ruozhuliufeng
+ */
+public class EnvelopeCryptoUtil {
+
+    /**
+     * 报文加密算法
+     */
+    public static final String AES_GCM = "AES/GCM/NoPadding";
+
+    /**
+     * AES 密钥加密算法
+     */
+    public static final String RSA_OAEP = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+
+    /**
+     * OAEP 参数，摘要与 MGF1 均使用 SHA-256（JDK 默认的 MGF1 摘要为 SHA-1，需显式指定）
+     */
+    private static final OAEPParameterSpec OAEP_PARAMETER_SPEC = new OAEPParameterSpec("SHA-256", "MGF1",
+            MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+
+    /**
+     * 密钥解密失败时的统一提示
+     */
+    private static final String INVALID_KEY_MESSAGE = "Envelope key is invalid. (数字信封密钥无效)";
+
+    /**
+     * iv 长度
+     */
+    private static final int IV_LENGTH = 12;
+
+    /**
+     * 认证标签长度（bit）
+     */
+    private static final int TAG_LENGTH = 128;
+
+    /**
+     * 解密后的 AES 密钥缓存，key 为加密密钥的 sha256 指纹
+     */
+    private static final KeyCache KEY_CACHE = new KeyCache();
+
+    /**
+     * 解密客户端传递的 AES 密钥
+     *
+     * @param privateKey   RSA 私钥
+     * @param wrappedKey   RSA 加密后的 AES 密钥（base64）
+     * @param cacheSize    密钥缓存上限，小于等于 0 时不缓存
+     * @return AES 密钥
+     */
+    public static SecretKey unwrapKey(PrivateKey privateKey, String wrappedKey, int cacheSize) {
+        if (StringUtil.isBlank(wrappedKey)) {
+            throw new DecryptBodyFailException("Envelope key is missing. (数字信封密钥缺失)");
+        }
+        if (cacheSize <= 0) {
+            return doUnwrapKey(privateKey, wrappedKey);
+        }
+        String fingerprint = DigestUtil.sha256Hex(wrappedKey);
+        SecretKey secretKey = KEY_CACHE.get(fingerprint);
+        if (secretKey == null) {
+            secretKey = doUnwrapKey(privateKey, wrappedKey);
+            KEY_CACHE.put(fingerprint, secretKey, cacheSize);
+        }
+        return secretKey;
+    }
+
+    /**
+     * 清空密钥缓存，RSA 私钥更换时调用
+     */
+    public static void clearKeyCache() {
+        KEY_CACHE.clear();
+    }
+
+    /**
+     * 加密
+     *
+     * @param data      内容
+     * @param secretKey AES 密钥
+     * @return base64(iv + 密文)
+     */
+    public static String encryptToBase64(byte[] data, SecretKey secretKey) {
+        byte[] iv = new byte[IV_LENGTH];
+        Holder.SECURE_RANDOM.nextBytes(iv);
+        try {
+            Cipher cipher = CryptoKeyCache.getCipher(AES_GCM);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] result = new byte[IV_LENGTH + cipher.getOutputSize(data.length)];
+            System.arraycopy(iv, 0, result, 0, IV_LENGTH);
+            cipher.doFinal(data, 0, data.length, result, IV_LENGTH);
+            return Base64Util.encodeToString(result);
+        } catch (Exception e) {
+            throw Exceptions.unchecked(e);
+        }
+    }
+
+    /**
+     * 解密
+     *
+     * @param base64Data base64(iv + 密文)
+     * @param secretKey  AES 密钥
+     * @return 内容
+     */
+    public static byte[] decryptFromBase64(byte[] base64Data, SecretKey secretKey) {
+        byte[] data = Base64Util.decode(base64Data);
+        if (data.length < IV_LENGTH + TAG_LENGTH / 8) {
+            throw new DecryptBodyFailException("Envelope data is too short. (数字信封数据长度错误)");
+        }
+        try {
+            Cipher cipher = CryptoKeyCache.getCipher(AES_GCM);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH, data, 0, IV_LENGTH));
+            return cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+        } catch (Exception e) {
+            throw Exceptions.unchecked(e);
+        }
+    }
+
+    /**
+     * RSA 解密 AES 密钥
+     * <p>
+     * Base64、填充、长度等任何错误都抛出相同的异常，避免外部据此区分失败原因构成填充预言攻击
+     *
+     * @param privateKey RSA 私钥
+     * @param wrappedKey RSA 加密后的 AES 密钥（base64）
+     * @return AES 密钥
+     */
+    private static SecretKey doUnwrapKey(PrivateKey privateKey, String wrappedKey) {
+        byte[] aesKey;
+        try {
+            byte[] data = Base64Util.decode(wrappedKey.getBytes(Charsets.UTF_8));
+            Cipher cipher = CryptoKeyCache.getCipher(RSA_OAEP);
+            cipher.init(Cipher.DECRYPT_MODE, privateKey, OAEP_PARAMETER_SPEC);
+            aesKey = cipher.doFinal(data);
+        } catch (Exception e) {
+            throw new DecryptBodyFailException(INVALID_KEY_MESSAGE);
+        }
+        if (aesKey.length != 16 && aesKey.length != 24 && aesKey.length != 32) {
+            throw new DecryptBodyFailException(INVALID_KEY_MESSAGE);
+        }
+        return new SecretKeySpec(aesKey, "AES");
+    }
+
+    /**
+     * 按访问顺序淘汰的密钥缓存
+     */
+    private static class KeyCache {
+        private final Map<String, SecretKey> cache = Collections.synchronizedMap(new LinkedHashMap<String, SecretKey>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SecretKey> eldest) {
+                return size() > maxSize;
+            }
+        });
+        private volatile int maxSize = Integer.MAX_VALUE;
+
+        private SecretKey get(String fingerprint) {
+            return cache.get(fingerprint);
+        }
+
+        private void put(String fingerprint, SecretKey secretKey, int maxSize) {
+            this.maxSize = maxSize;
+            cache.put(fingerprint, secretKey);
+        }
+
+        private void clear() {
+            cache.clear();
+        }
+    }
+}
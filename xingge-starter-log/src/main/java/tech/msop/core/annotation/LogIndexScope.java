@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 日志索引作用范围注解
+ *
+ * 功能说明：
+ * - 标记需要进行LogIndex处理的类或方法
+ * - 限定LogIndex切面的拦截范围
+ */
+package tech.msop.core.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 日志索引作用范围注解
+ *
+ * <p>LogIndex切面默认只拦截标注了该注解的类或方法，
+ * 其方法参数中带有{@link LogIndex}注解的字段会被写入MDC；
+ * 未标注的方法不会被代理，不产生任何额外开销。</p>
+ *
+ * <p>如需按包扫描，可配置 {@code xg.log.log-index.base-packages}。</p>
+ *
+ * <p>使用示例：</p>
+ * <pre>
+ * {@code
+ * @LogIndexScope
+ * @Service
+ * public class OrderService {
+ *     public void createOrder(OrderRequest request) { ... }
+ * }
+ * }
+ * </pre>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface LogIndexScope {
+}
@@ -10,19 +10,14 @@
  */
 package tech.msop.core.aspect;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.annotation.Order;
-import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import tech.msop.core.annotation.LogIndex;
+import tech.msop.core.annotation.LogIndexScope;
 import tech.msop.core.property.XingGeLogProperty;
 
-import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,6 +36,10 @@ import java.util.Map;
  *   <li>支持嵌套对象的索引字段处理</li>
  * </ul>
  * 
+ * <p>拦截范围由{@link tech.msop.core.config.XingGeLogConfig}中的切点决定，
+ * 默认只拦截标注了{@link LogIndexScope}的类或方法以及配置的包；
+ * 每个参数类型的LogIndex字段只解析一次并缓存（见{@link LogIndexMetadata}）。</p>
+ * 
  * <p>使用场景：</p>
  * <ul>
  *   <li>请求日志追踪</li>
@@ -52,16 +51,7 @@ import java.util.Map;
  * @version 1.0.0
  * @since 2025-01-20
  */
-@Aspect
-@Component
-@Order(1)
-public class LogIndexAspect {
-    
-    /**
-     * 线程本地存储，用于保存当前线程的MDC键集合
-     * 确保在方法执行完成后能够正确清理MDC
-     */
-    private static final ThreadLocal<Map<String, String>> MDC_KEYS_HOLDER = new ThreadLocal<>();
+public class LogIndexAspect implements MethodInterceptor {
     
     /**
      * 日志配置属性
@@ -69,116 +59,111 @@ public class LogIndexAspect {
     @Autowired
     private XingGeLogProperty logProperty;
     
+    /**
+     * 方法拦截处理
+     * 
+     * <p>方法执行前扫描参数中带有LogIndex注解的字段并写入MDC，
+     * 方法执行后清理本次调用写入的MDC键，避免内存泄漏和上下文污染。</p>
+     * 
+     * @param invocation 方法调用信息
+     * @return 方法返回值
+     * @throws Throwable 方法执行异常
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Map<String, String> mdcKeys = beforeMethod(invocation.getArguments());
+        try {
+            return invocation.proceed();
+        } finally {
+            afterMethod(mdcKeys);
+        }
+    }
+    
     /**
      * 方法执行前处理
      * 
      * <p>扫描方法参数中带有LogIndex注解的字段，
      * 将字段值添加到MDC中。</p>
      * 
-     * @param joinPoint 连接点信息
+     * @param args 方法参数
+     * @return 本次添加的MDC键值对，未添加时返回null
      */
-    @Before("execution(* *(..))")
-    public void beforeMethod(JoinPoint joinPoint) {
+    private Map<String, String> beforeMethod(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        Map<String, String> mdcKeys = null;
         try {
-            Object[] args = joinPoint.getArgs();
-            if (args == null || args.length == 0) {
-                return;
-            }
-            
-            Map<String, String> mdcKeys = new HashMap<>();
-            
             // 遍历所有方法参数
             for (Object arg : args) {
-                if (arg != null) {
-                    processLogIndexFields(arg, mdcKeys);
+                if (arg == null) {
+                    continue;
                 }
-            }
-            
-            // 保存MDC键集合到线程本地存储
-            if (!mdcKeys.isEmpty()) {
-                MDC_KEYS_HOLDER.set(mdcKeys);
-                if (isDebugEnabled()) {
-                    System.out.println("LogIndex切面处理完成，添加了" + mdcKeys.size() + "个MDC索引");
+                LogIndexMetadata metadata = LogIndexMetadata.forClass(arg.getClass());
+                if (metadata.isEmpty()) {
+                    continue;
+                }
+                // 检查是否启用嵌套扫描
+                if (metadata.isNested() && !isNestedScanEnabled()) {
+                    continue;
                 }
+                if (mdcKeys == null) {
+                    mdcKeys = new HashMap<>();
+                }
+                processLogIndexFields(arg, metadata, mdcKeys);
             }
             
+            if (mdcKeys != null && !mdcKeys.isEmpty() && isDebugEnabled()) {
+                System.out.println("LogIndex切面处理完成，添加了" + mdcKeys.size() + "个MDC索引");
+            }
         } catch (Exception e) {
             System.err.println("LogIndex切面处理异常: " + e.getMessage());
         }
+        return mdcKeys;
     }
     
     /**
      * 方法执行后处理
      * 
-     * <p>清理当前线程的MDC上下文，
+     * <p>清理本次调用添加到MDC中的索引键，
      * 避免内存泄漏和上下文污染。</p>
      * 
-     * @param joinPoint 连接点信息
+     * @param mdcKeys 本次添加的MDC键值对
      */
-    @After("execution(* *(..))")
-    public void afterMethod(JoinPoint joinPoint) {
+    private void afterMethod(Map<String, String> mdcKeys) {
+        if (mdcKeys == null || mdcKeys.isEmpty()) {
+            return;
+        }
         try {
             // 检查是否需要清理MDC
             if (!isClearAfterMethodEnabled()) {
                 return;
             }
-            
-            Map<String, String> mdcKeys = MDC_KEYS_HOLDER.get();
-            if (mdcKeys != null && !mdcKeys.isEmpty()) {
-                // 清理MDC中的索引键
-                for (String key : mdcKeys.keySet()) {
-                    MDC.remove(key);
-                }
-                if (isDebugEnabled()) {
-                    System.out.println("LogIndex切面清理完成，移除了" + mdcKeys.size() + "个MDC索引");
-                }
+            // 清理MDC中的索引键
+            for (String key : mdcKeys.keySet()) {
+                MDC.remove(key);
+            }
+            if (isDebugEnabled()) {
+                System.out.println("LogIndex切面清理完成，移除了" + mdcKeys.size() + "个MDC索引");
             }
         } catch (Exception e) {
             System.err.println("LogIndex切面清理异常: " + e.getMessage());
-        } finally {
-            // 清理线程本地存储
-            MDC_KEYS_HOLDER.remove();
         }
     }
     
     /**
      * 处理对象中带有LogIndex注解的字段
      * 
-     * <p>递归扫描对象及其父类中的所有字段，
-     * 找到带有LogIndex注解的字段并处理。</p>
+     * <p>使用预解析的字段访问器读取字段值，
+     * 不再在每次调用时扫描类结构。</p>
      * 
      * @param obj 要处理的对象
+     * @param metadata 对象类型的日志索引元数据
      * @param mdcKeys MDC键值对集合
      */
-    private void processLogIndexFields(Object obj, Map<String, String> mdcKeys) {
-        if (obj == null) {
-            return;
-        }
-        
-        Class<?> clazz = obj.getClass();
-        
-        // 跳过基本类型和常见的系统类
-        if (isSkipClass(clazz)) {
-            return;
-        }
-        
-        // 检查是否启用嵌套扫描
-        if (!isNestedScanEnabled() && isNestedObject(obj)) {
-            return;
-        }
-        
-        // 处理当前类及其父类的字段
-        while (clazz != null && clazz != Object.class) {
-            Field[] fields = clazz.getDeclaredFields();
-            
-            for (Field field : fields) {
-                LogIndex logIndex = field.getAnnotation(LogIndex.class);
-                if (logIndex != null && logIndex.enabled()) {
-                    processLogIndexField(obj, field, logIndex, mdcKeys);
-                }
-            }
-            
-            clazz = clazz.getSuperclass();
+    private void processLogIndexFields(Object obj, LogIndexMetadata metadata, Map<String, String> mdcKeys) {
+        for (LogIndexMetadata.IndexField field : metadata.getFields()) {
+            processLogIndexField(obj, field, mdcKeys);
         }
     }
     
@@ -189,27 +174,17 @@ public class LogIndexAspect {
      * 支持自定义索引名称和前缀。</p>
      * 
      * @param obj 字段所属对象
-     * @param field 字段信息
-     * @param logIndex LogIndex注解信息
+     * @param field 预解析的索引字段
      * @param mdcKeys MDC键值对集合
      */
-    private void processLogIndexField(Object obj, Field field, LogIndex logIndex, Map<String, String> mdcKeys) {
+    private void processLogIndexField(Object obj, LogIndexMetadata.IndexField field, Map<String, String> mdcKeys) {
         try {
-            field.setAccessible(true);
             Object fieldValue = field.get(obj);
             
             if (fieldValue != null) {
-                String indexName = StringUtils.hasText(logIndex.name()) ? 
-                    logIndex.name() : field.getName();
-                
-                String indexKey = StringUtils.hasText(logIndex.prefix()) ? 
-                    logIndex.prefix() + indexName : indexName;
-                
-                String indexValue = fieldValue.toString();
-                
                 // 应用长度限制
-                indexKey = truncateString(indexKey, getMaxKeyLength());
-                indexValue = truncateString(indexValue, getMaxValueLength());
+                String indexKey = truncateString(field.getKey(), getMaxKeyLength());
+                String indexValue = truncateString(fieldValue.toString(), getMaxValueLength());
                 
                 // 添加到MDC
                 MDC.put(indexKey, indexValue);
@@ -220,40 +195,11 @@ public class LogIndexAspect {
                 }
             }
             
-        } catch (Exception e) {
-            System.err.println("处理LogIndex字段异常: " + field.getName() + ", " + e.getMessage());
+        } catch (Throwable e) {
+            System.err.println("处理LogIndex字段异常: " + field.getFieldName() + ", " + e.getMessage());
         }
     }
     
-    /**
-     * 判断是否跳过处理的类
-     * 
-     * <p>跳过基本类型、包装类型、字符串、集合等系统类，
-     * 避免不必要的反射操作。</p>
-     * 
-     * @param clazz 类型
-     * @return true表示跳过，false表示需要处理
-     */
-    private boolean isSkipClass(Class<?> clazz) {
-        return clazz.isPrimitive() ||
-               clazz.getName().startsWith("java.") ||
-               clazz.getName().startsWith("javax.") ||
-               clazz.getName().startsWith("org.springframework.") ||
-               clazz.getName().startsWith("com.sun.") ||
-               clazz.isArray();
-    }
-    
-    /**
-     * 判断是否为嵌套对象
-     * 
-     * @param obj 对象
-     * @return true表示是嵌套对象
-     */
-    private boolean isNestedObject(Object obj) {
-        Class<?> clazz = obj.getClass();
-        return !clazz.getName().startsWith("tech.msop.");
-    }
-    
     /**
      * 截断字符串到指定长度
      * 
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 日志索引元数据
+ *
+ * 功能说明：
+ * - 按类缓存LogIndex字段的访问器及索引键
+ * - 对不含LogIndex字段的类进行负缓存
+ */
+package tech.msop.core.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import tech.msop.core.annotation.LogIndex;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 日志索引元数据
+ *
+ * <p>每个类只解析一次：沿继承链扫描带有{@link LogIndex}注解的字段，
+ * 预先解析字段访问器（MethodHandle）及最终的索引键（prefix + name），
+ * 之后的方法调用直接使用缓存结果，不再进行反射查找。</p>
+ *
+ * <p>不含LogIndex字段或需要跳过的类会缓存为{@link #EMPTY}，
+ * 避免重复扫描。</p>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+@Slf4j
+final class LogIndexMetadata {
+
+    /**
+     * 空元数据（负缓存）
+     */
+    static final LogIndexMetadata EMPTY = new LogIndexMetadata(Collections.emptyList(), false);
+
+    /**
+     * 元数据缓存
+     */
+    private static final ConcurrentMap<Class<?>, LogIndexMetadata> METADATA_CACHE = new ConcurrentHashMap<>(64);
+
+    /**
+     * 索引字段列表
+     */
+    private final List<IndexField> fields;
+
+    /**
+     * 是否为框架包之外的嵌套对象
+     */
+    private final boolean nested;
+
+    private LogIndexMetadata(List<IndexField> fields, boolean nested) {
+        this.fields = fields;
+        this.nested = nested;
+    }
+
+    /**
+     * 获取类的日志索引元数据
+     *
+     * @param clazz 类型
+     * @return 元数据，不含索引字段时返回{@link #EMPTY}
+     */
+    static LogIndexMetadata forClass(Class<?> clazz) {
+        LogIndexMetadata metadata = METADATA_CACHE.get(clazz);
+        if (metadata != null) {
+            return metadata;
+        }
+        return METADATA_CACHE.computeIfAbsent(clazz, LogIndexMetadata::resolve);
+    }
+
+    /**
+     * 解析类的日志索引元数据
+     *
+     * @param clazz 类型
+     * @return 元数据
+     */
+    private static LogIndexMetadata resolve(Class<?> clazz) {
+        if (isSkipClass(clazz)) {
+            return EMPTY;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<IndexField> fields = new ArrayList<>();
+        Class<?> current = clazz;
+        while (current != null && current != Object.class) {
+            for (Field field : current.getDeclaredFields()) {
+                LogIndex logIndex = field.getAnnotation(LogIndex.class);
+                if (logIndex == null || !logIndex.enabled()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    fields.add(new IndexField(field.getName(), resolveKey(field, logIndex), lookup.unreflectGetter(field)));
+                } catch (Exception e) {
+                    log.warn("解析LogIndex字段异常: {}.{}, {}", clazz.getName(), field.getName(), e.getMessage());
+                }
+            }
+            current = current.getSuperclass();
+        }
+        if (fields.isEmpty()) {
+            return EMPTY;
+        }
+        return new LogIndexMetadata(Collections.unmodifiableList(fields), !clazz.getName().startsWith("tech.msop."));
+    }
+
+    /**
+     * 解析索引键：prefix + name，name为空时使用字段名
+     *
+     * @param field 字段
+     * @param logIndex 注解
+     * @return 索引键
+     */
+    private static String resolveKey(Field field, LogIndex logIndex) {
+        String indexName = StringUtils.hasText(logIndex.name()) ? logIndex.name() : field.getName();
+        return StringUtils.hasText(logIndex.prefix()) ? logIndex.prefix() + indexName : indexName;
+    }
+
+    /**
+     * 判断是否跳过处理的类
+     *
+     * <p>跳过基本类型、字符串、集合等系统类及数组。</p>
+     *
+     * @param clazz 类型
+     * @return true表示跳过
+     */
+    private static boolean isSkipClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return clazz.isPrimitive() ||
+               clazz.isArray() ||
+               name.startsWith("java.") ||
+               name.startsWith("javax.") ||
+               name.startsWith("org.springframework.") ||
+               name.startsWith("com.sun.");
+    }
+
+    /**
+     * 是否不含索引字段
+     *
+     * @return true表示无索引字段
+     */
+    boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * 是否为嵌套对象（不在tech.msop包下）
+     *
+     * @return true表示嵌套对象
+     */
+    boolean isNested() {
+        return nested;
+    }
+
+    /**
+     * 获取索引字段列表
+     *
+     * @return 索引字段列表
+     */
+    List<IndexField> getFields() {
+        return fields;
+    }
+
+    /**
+     * 预解析的索引字段
+     */
+    static final class IndexField {
+
+        /**
+         * 字段名
+         */
+        private final String fieldName;
+
+        /**
+         * 索引键（未截断）
+         */
+        private final String key;
+
+        /**
+         * 字段读取句柄
+         */
+        private final MethodHandle getter;
+
+        IndexField(String fieldName, String key, MethodHandle getter) {
+            this.fieldName = fieldName;
+            this.key = key;
+            this.getter = getter;
+        }
+
+        String getFieldName() {
+            return fieldName;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * 读取字段值
+         *
+         * @param target 目标对象
+         * @return 字段值
+         * @throws Throwable 读取异常
+         */
+        Object get(Object target) throws Throwable {
+            return getter.invoke(target);
+        }
+    }
+}
@@ -9,12 +9,17 @@
  */
 package tech.msop.core.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Import;
+import org.springframework.util.StringUtils;
+import tech.msop.core.annotation.LogIndexScope;
 import tech.msop.core.aspect.LogIndexAspect;
 import tech.msop.core.aspect.AuditLogAspect;
 import tech.msop.core.handler.impl.ConsoleAuditLogHandler;
@@ -46,6 +51,7 @@ import tech.msop.core.property.XingGeLogProperty;
 @EnableConfigurationProperties(XingGeLogProperty.class)
 @EnableAspectJAutoProxy
 @Import({ConsoleAuditLogHandler.class, FeignAuditLogHandler.class, DatabaseAuditLogHandler.class})
+@Slf4j
 public class XingGeLogConfig {
     
     /**
@@ -67,6 +73,64 @@ public class XingGeLogConfig {
         return new LogIndexAspect();
     }
     
+    /**
+     * 配置LogIndex切点
+     * 
+     * <p>未配置范围时保持拦截所有方法，兼容只使用{@link tech.msop.core.annotation.LogIndex}的旧用法；
+     * 配置 xg.log.log-index.base-packages 或开启 xg.log.log-index.scope-required 后，
+     * 只拦截标注了{@link LogIndexScope}的类或方法以及配置的包，范围之外的Bean不会被代理；
+     * 配置 xg.log.log-index.pointcut 时使用自定义表达式。</p>
+     * 
+     * @param logIndexAspect LogIndex切面
+     * @param logProperty 日志配置属性
+     * @return LogIndex切点通知器
+     */
+    @Bean
+    @ConditionalOnProperty(
+        prefix = "xg.log.log-index", 
+        name = "enabled", 
+        havingValue = "true", 
+        matchIfMissing = true
+    )
+    public Advisor logIndexAdvisor(LogIndexAspect logIndexAspect, XingGeLogProperty logProperty) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(buildLogIndexPointcut(logProperty.getLogIndex()));
+        advisor.setAdvice(logIndexAspect);
+        advisor.setOrder(1);
+        return advisor;
+    }
+    
+    /**
+     * 构建LogIndex切点表达式
+     * 
+     * @param config LogIndex配置
+     * @return 切点表达式
+     */
+    private String buildLogIndexPointcut(XingGeLogProperty.LogIndexConfig config) {
+        if (StringUtils.hasText(config.getPointcut())) {
+            return config.getPointcut();
+        }
+        boolean hasBasePackages = config.getBasePackages() != null
+            && config.getBasePackages().stream().anyMatch(StringUtils::hasText);
+        if (!Boolean.TRUE.equals(config.getScopeRequired()) && !hasBasePackages) {
+            log.warn("LogIndex切面未配置拦截范围，将代理所有Bean的方法，"
+                + "建议配置 xg.log.log-index.base-packages 或使用@LogIndexScope并开启 xg.log.log-index.scope-required");
+            return "execution(* *(..))";
+        }
+        String annotation = LogIndexScope.class.getName();
+        StringBuilder expression = new StringBuilder()
+            .append("@within(").append(annotation).append(")")
+            .append(" || @annotation(").append(annotation).append(")");
+        if (config.getBasePackages() != null) {
+            for (String basePackage : config.getBasePackages()) {
+                if (StringUtils.hasText(basePackage)) {
+                    expression.append(" || within(").append(basePackage.trim()).append("..*)");
+                }
+            }
+        }
+        return expression.toString();
+    }
+    
     /**
      * 配置审计日志切面
      * 只有在启用审计日志功能时才会注册此Bean
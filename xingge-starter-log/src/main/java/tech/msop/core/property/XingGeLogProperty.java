@@ -11,7 +11,9 @@ package tech.msop.core.property;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,6 +35,8 @@ import java.util.Map;
  *       enabled: true
  *       clear-after-method: true
  *       debug-enabled: false
+ *       base-packages:
+ *         - com.example.order
  * </pre>
  * 
  * @author 若竹流风
@@ -127,6 +131,24 @@ public class XingGeLogProperty {
          */
         private Boolean enableNestedScan = false;
         
+        /**
+         * 需要拦截的包列表
+         * 配置后仅拦截这些包以及标注了@LogIndexScope的类或方法
+         */
+        private List<String> basePackages = new ArrayList<>();
+        
+        /**
+         * 是否仅拦截标注了@LogIndexScope的类或方法
+         * 默认关闭，未配置base-packages时拦截所有方法，与旧版本行为一致
+         */
+        private Boolean scopeRequired = false;
+        
+        /**
+         * 自定义AspectJ切点表达式
+         * 配置后将替代默认的@LogIndexScope及base-packages切点
+         */
+        private String pointcut;
+        
         /**
          * 获取调试启用状态
          * @return 调试启用状态
@@ -33,4 +33,14 @@ public @interface FieldEncrypt {
      * @return Class
      */
     Class<? extends ICrypto> crypto() default DefaultCrypto.class;
+
+    /**
+     * 盲索引影子字段名
+     * <p>
+     * 指定后，作为新增/修改或查询参数时会使用 HmacSHA256 计算明文的盲索引并写入该字段，
+     * 对应列建立索引后即可按 {@code WHERE xxx_idx = #{xxxIdx}} 进行等值查询
+     *
+     * @return 同一类中的 String 字段名，默认不启用
+     */
+    String blindIndex() default "";
 }
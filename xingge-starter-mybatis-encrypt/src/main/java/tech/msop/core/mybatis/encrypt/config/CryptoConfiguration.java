@@ -2,6 +2,12 @@ package tech.msop.core.mybatis.encrypt.config;
 
 
 import lombok.AllArgsConstructor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +15,9 @@ import tech.msop.core.mybatis.encrypt.interceptor.CryptoInterceptor;
 import tech.msop.core.mybatis.encrypt.interceptor.DesensitizeInterceptor;
 import tech.msop.core.mybatis.encrypt.properties.CryptoProperties;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 @AutoConfiguration
 @EnableConfigurationProperties(CryptoProperties.class)
 @AllArgsConstructor
@@ -25,4 +34,32 @@ public class CryptoConfiguration {
     public DesensitizeInterceptor desensitizeInterceptor(){
         return new DesensitizeInterceptor();
     }
+
+    /**
+     * 启动时校验盲索引密钥：Mapper 的参数或结果类型中存在盲索引字段而未配置 blind-index-key 时启动失败
+     *
+     * @param cryptoInterceptor   加密拦截器
+     * @param sqlSessionFactories SqlSessionFactory
+     * @return 校验器
+     */
+    @Bean
+    public SmartInitializingSingleton cryptoBlindIndexKeyValidator(CryptoInterceptor cryptoInterceptor,
+                                                                   ObjectProvider<SqlSessionFactory> sqlSessionFactories) {
+        return () -> sqlSessionFactories.orderedStream().forEach(factory -> {
+            Configuration configuration = factory.getConfiguration();
+            Set<Class<?>> types = new LinkedHashSet<>();
+            //StrictMap 中可能存在同名冲突的占位值，按 Object 遍历后判断类型
+            for (Object resultMap : configuration.getResultMaps()) {
+                if (resultMap instanceof ResultMap) {
+                    types.add(((ResultMap) resultMap).getType());
+                }
+            }
+            for (Object statement : configuration.getMappedStatements()) {
+                if (statement instanceof MappedStatement && ((MappedStatement) statement).getParameterMap() != null) {
+                    types.add(((MappedStatement) statement).getParameterMap().getType());
+                }
+            }
+            cryptoInterceptor.validateBlindIndexKey(types);
+        });
+    }
 }
@@ -1,7 +1,6 @@
 package tech.msop.core.mybatis.encrypt.interceptor;
 
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.executor.Executor;
@@ -10,15 +9,23 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
-import tech.msop.core.mybatis.encrypt.annotation.FieldEncrypt;
+import org.springframework.beans.factory.DisposableBean;
 import tech.msop.core.mybatis.encrypt.crypto.ICrypto;
 import tech.msop.core.mybatis.encrypt.enums.Algorithm;
 import tech.msop.core.mybatis.encrypt.enums.CryptoType;
+import tech.msop.core.mybatis.encrypt.lazy.LazyDecrypted;
+import tech.msop.core.mybatis.encrypt.lazy.LazyDecryptProxyFactory;
+import tech.msop.core.mybatis.encrypt.metrics.CryptoMetrics;
+import tech.msop.core.mybatis.encrypt.plan.CryptoPlan;
 import tech.msop.core.mybatis.encrypt.properties.CryptoProperties;
+import tech.msop.core.mybatis.encrypt.utils.BlindIndexUtil;
 
-import java.lang.reflect.*;
-import java.time.chrono.ChronoLocalDate;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * 加密拦截器
@@ -32,10 +39,27 @@ import java.util.*;
                 @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
         }
 )
-@RequiredArgsConstructor
 @Slf4j
-public class CryptoInterceptor implements Interceptor {
+public class CryptoInterceptor implements Interceptor, DisposableBean {
     private final CryptoProperties cryptoProperties;
+    /**
+     * 结果集解密统计
+     */
+    private final CryptoMetrics cryptoMetrics = new CryptoMetrics();
+    /**
+     * 并行解密线程池，按需创建
+     */
+    private volatile ForkJoinPool decryptPool;
+    /**
+     * 延迟解密代理工厂
+     */
+    private final LazyDecryptProxyFactory lazyDecryptProxyFactory;
+
+    public CryptoInterceptor(CryptoProperties cryptoProperties) {
+        this.cryptoProperties = cryptoProperties;
+        this.lazyDecryptProxyFactory = new LazyDecryptProxyFactory(cryptoProperties);
+    }
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
         Method method = invocation.getMethod();
@@ -86,226 +110,287 @@ public class CryptoInterceptor implements Interceptor {
         List<Object> resultList;
         resultList = executor.query(ms, parameter, rowBounds, resultHandler, cacheKey, boundSql);
 
-        for (Object o : resultList) {
-            handleParameterOrResult(o, CryptoType.DECRYPT);
-        }
+        decryptResult(ms.getId(), resultList);
 
         return resultList;
     }
 
     /**
-     * 新增修改操作处理
+     * 解密结果集
+     * <p>
+     * 开启并行解密且行数达到阈值时，按分片在独立的 ForkJoinPool 上并行解密，
+     * 结果在原列表上就地修改，顺序不变
      *
-     * @param invocation
-     * @return
-     * @throws Throwable
+     * @param statementId MappedStatement id
+     * @param resultList  结果集
      */
-    private Object updateHandle(Invocation invocation) throws Throwable {
-        //处理参数
-        handleParameterOrResult(invocation.getArgs()[1], CryptoType.ENCRYPT);
-        return invocation.proceed();
+    private void decryptResult(String statementId, List<Object> resultList) {
+        if (resultList == null || resultList.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        CryptoProperties.Parallel parallel = cryptoProperties.getParallel();
+        //分片大小小于 1 时按 1 处理，避免分片循环无法前进
+        int chunkSize = Math.max(1, parallel.getChunkSize());
+        boolean parallelMode = !cryptoProperties.isLazyDecrypt() && parallel.isEnabled()
+                && resultList.size() >= parallel.getThreshold() && resultList.size() > chunkSize;
+        if (cryptoProperties.isLazyDecrypt()) {
+            decryptLazy(resultList);
+        } else if (parallelMode) {
+            decryptParallel(resultList, chunkSize);
+        } else {
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            decryptChunk(resultList, visited);
+        }
+        long nanos = System.nanoTime() - start;
+        cryptoMetrics.record(statementId, resultList.size(), nanos, parallelMode);
+        if (log.isDebugEnabled()) {
+            log.debug("{} 解密 {} 行，耗时 {} ms，并行：{}", statementId, resultList.size(), nanos / 1000000, parallelMode);
+        }
     }
 
     /**
-     * 处理参数或结果
+     * 延迟解密：将结果替换为延迟解密代理，有 getter 的加密字段在首次访问时才解密，
+     * 其余加密字段及嵌套对象仍立即解密
      *
-     * @param object
-     * @param cryptoType
-     * @throws IllegalAccessException
+     * @param resultList 结果集
      */
-    private void handleParameterOrResult(Object object, CryptoType cryptoType) throws IllegalAccessException {
-        HashMap<Field, Object> fieldObjectHashMap = new HashMap<>();
-        //多个参数
-        if (object instanceof Map) {
-            Map paramMap = (Map) object;
-            Set keySet = paramMap.keySet();
-            for (Object key : keySet) {
-                Object o = paramMap.get(key);
-                if (o != null) {
-                    handleObject(o, o.getClass(), fieldObjectHashMap);
-                }
-
+    private void decryptLazy(List<Object> resultList) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < resultList.size(); i++) {
+            Object row = resultList.get(i);
+            if (row == null) {
+                continue;
             }
-        } else {
-            if (object != null) {
-                handleObject(object, object.getClass(), fieldObjectHashMap);
+            CryptoPlan rowPlan = CryptoPlan.forClass(row.getClass());
+            Object proxy = rowPlan.isEmpty() ? null : lazyDecryptProxyFactory.createProxy(row, rowPlan);
+            if (proxy == null) {
+                CryptoPlan.traverse(row, visited, (target, plan) -> handleString(target, plan, CryptoType.DECRYPT));
+                continue;
             }
+            resultList.set(i, proxy);
+            CryptoPlan.traverse(proxy, visited, (target, plan) -> handleString(target, plan, CryptoType.DECRYPT));
         }
-
-        //统一修改加密解密值
-        fieldObjectHashMap.keySet().forEach(key -> {
-            try {
-                handleString(key, fieldObjectHashMap.get(key), cryptoType);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        });
     }
 
     /**
-     * 是否是基本类型
+     * 分片并行解密
      *
-     * @param type
-     * @return
+     * @param resultList 结果集
+     * @param chunkSize  分片大小
      */
-    private boolean isBase(Type type) {
-
-        return boolean.class.equals(type) ||
-                char.class.equals(type) ||
-                long.class.equals(type) ||
-                int.class.equals(type) ||
-                byte.class.equals(type) ||
-                short.class.equals(type) ||
-                double.class.equals(type) ||
-                float.class.equals(type);
+    private void decryptParallel(List<Object> resultList, int chunkSize) {
+        //嵌套对象可能在多行之间共享，使用线程安全的集合保证只解密一次
+        Set<Object> visited = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ForkJoinPool pool = getDecryptPool();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        int size = Math.max(1, chunkSize);
+        for (int from = 0; from < resultList.size(); from += size) {
+            List<Object> chunk = resultList.subList(from, Math.min(from + size, resultList.size()));
+            tasks.add(pool.submit(() -> decryptChunk(chunk, visited)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
     }
 
     /**
-     * 是否是
+     * 解密一组行
      *
-     * @param object
-     * @return
+     * @param rows    行
+     * @param visited 已处理对象
      */
-    private boolean isFilter(Object object) {
-
-        return object == null || object instanceof CharSequence || object instanceof Number || object instanceof Collection || object instanceof Date || object instanceof ChronoLocalDate;
+    private void decryptChunk(List<Object> rows, Set<Object> visited) {
+        for (Object o : rows) {
+            CryptoPlan.traverse(o, visited, (target, plan) -> handleString(target, plan, CryptoType.DECRYPT));
+        }
     }
 
     /**
-     * 聚合父类属性
+     * 获取并行解密线程池，首次使用时创建
      *
-     * @param oClass
-     * @param fields
-     * @return
+     * @return 线程池
      */
-    private List<Field> mergeField(Class<?> oClass, List<Field> fields) {
-        if (fields == null) {
-            fields = new ArrayList<>();
-        }
-        Class<?> superclass = oClass.getSuperclass();
-        if (superclass != null && !superclass.equals(Object.class) && superclass.getDeclaredFields().length > 0) {
-            mergeField(superclass, fields);
-        }
-        for (Field declaredField : oClass.getDeclaredFields()) {
-
-            int modifiers = declaredField.getModifiers();
-
-            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isVolatile(modifiers) || Modifier.isSynchronized(modifiers)) {
-                continue;
+    private ForkJoinPool getDecryptPool() {
+        ForkJoinPool pool = decryptPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = decryptPool;
+                if (pool == null) {
+                    int parallelism = Math.max(1, cryptoProperties.getParallel().getParallelism());
+                    pool = new ForkJoinPool(parallelism, p -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                        thread.setName("xg-crypto-decrypt-" + thread.getPoolIndex());
+                        return thread;
+                    }, null, false);
+                    decryptPool = pool;
+                }
             }
-            fields.add(declaredField);
         }
+        return pool;
+    }
 
-        return fields;
+    /**
+     * 关闭并行解密线程池，避免应用上下文刷新（devtools、测试）时遗留线程池
+     */
+    @Override
+    public void destroy() {
+        ForkJoinPool pool;
+        synchronized (this) {
+            pool = decryptPool;
+            decryptPool = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
 
+    /**
+     * 获取盲索引密钥
+     * <p>
+     * 盲索引只能使用单独配置的 blind-index-key：手机号、证件号等明文取值空间小，
+     * 公开的默认密钥可被离线穷举，复用字段的加密密钥则会让同一密钥同时用于 AES 与 HMAC
+     *
+     * @return 盲索引密钥
+     * @throws IllegalStateException 未配置 blind-index-key
+     */
+    private String requireBlindIndexKey() {
+        String blindIndexKey = cryptoProperties.getBlindIndexKey();
+        if (blindIndexKey == null || blindIndexKey.isEmpty()) {
+            throw new IllegalStateException("使用盲索引必须配置 xg.mybatis.crypto.blind-index-key");
+        }
+        return blindIndexKey;
     }
 
     /**
-     * 处理Object
+     * 校验盲索引密钥：给定类型中存在配置了盲索引的加密字段时，必须配置 blind-index-key
      *
-     * @param obj
-     * @param oClass
-     * @throws IllegalAccessException
+     * @param types 实体类型
+     * @throws IllegalStateException 存在盲索引字段但未配置 blind-index-key
      */
-    private void handleObject(Object obj, Class<?> oClass, HashMap<Field, Object> fieldObjectHashMap) throws IllegalAccessException {
-        //过滤
-        if (isFilter(obj)) {
+    public void validateBlindIndexKey(Collection<Class<?>> types) {
+        String blindIndexKey = cryptoProperties.getBlindIndexKey();
+        if (blindIndexKey != null && !blindIndexKey.isEmpty()) {
             return;
         }
-
-        List<Field> fields = mergeField(oClass, null);
-
-        for (Field declaredField : fields) {
-
-            //静态属性直接跳过
-            if (Modifier.isStatic(declaredField.getModifiers())) {
+        for (Class<?> type : types) {
+            if (type == null) {
                 continue;
             }
-
-            boolean accessible = declaredField.isAccessible();
-            declaredField.setAccessible(true);
-            Object value = declaredField.get(obj);
-            declaredField.setAccessible(accessible);
-
-            if (value == null) {
-                continue;
-            } else if (value instanceof Number) {
-                continue;
-            } else if (value instanceof String) {
-
-                FieldEncrypt annotation = declaredField.getAnnotation(FieldEncrypt.class);
-                if (annotation != null) {
-                    fieldObjectHashMap.put(declaredField, obj);
-                }
-
-            } else if (value instanceof Collection) {
-                Collection coll = (Collection) value;
-                for (Object o : coll) {
-                    if (isFilter(o)) {
-                        //默认集合内类型一致
-                        break;
-                    }
-                    handleObject(o, o.getClass(), fieldObjectHashMap);
+            for (CryptoPlan.EncryptField encryptField : CryptoPlan.forClass(type).getEncryptFields()) {
+                if (encryptField.getBlindIndexField() != null) {
+                    throw new IllegalStateException("字段 " + type.getName() + "." + encryptField.getField().getName()
+                            + " 配置了盲索引，必须配置 xg.mybatis.crypto.blind-index-key");
                 }
-            } else {
-                handleObject(value, value.getClass(), fieldObjectHashMap);
             }
         }
+    }
 
+    /**
+     * 计算盲索引，用于以 Map 或单值作为参数的等值查询
+     *
+     * @param value 明文
+     * @return 盲索引
+     * @throws IllegalStateException 未配置 blind-index-key
+     */
+    public String blindIndex(String value) {
+        return BlindIndexUtil.compute(requireBlindIndexKey(), value);
+    }
+
+    /**
+     * 获取结果集解密统计
+     *
+     * @return 按 MappedStatement 统计的解密行数与耗时
+     */
+    public CryptoMetrics getCryptoMetrics() {
+        return cryptoMetrics;
     }
 
     /**
-     * 处理字符
+     * 新增修改操作处理
+     *
+     * @param invocation
+     * @return
+     * @throws Throwable
+     */
+    private Object updateHandle(Invocation invocation) throws Throwable {
+        //处理参数
+        handleParameterOrResult(invocation.getArgs()[1], CryptoType.ENCRYPT);
+        return invocation.proceed();
+    }
+
+    /**
+     * 处理参数或结果
      *
-     * @param field
      * @param object
      * @param cryptoType
-     * @throws IllegalAccessException
-     * @throws InstantiationException
-     * @throws NoSuchMethodException
-     * @throws InvocationTargetException
      */
-    private void handleString(Field field, Object object, CryptoType cryptoType) throws Exception {
-
-        boolean accessible = field.isAccessible();
-        field.setAccessible(true);
-        Object value = field.get(object);
-
-        FieldEncrypt annotation = field.getAnnotation(FieldEncrypt.class);
-        if (annotation != null) {
-
-            String key;
-            //全局配置的key
-            String propertiesKey = cryptoProperties.getKey();
-            log.debug("全局key是：" + propertiesKey);
-            //属性上的key
-            String annotationKey = annotation.key();
-            log.debug("注解key是：" + annotationKey);
-
-            if (!"".equals(annotationKey)) {
-                key = annotationKey;
-            } else {
-                key = propertiesKey;
+    private void handleParameterOrResult(Object object, CryptoType cryptoType) {
+        if (object == null) {
+            return;
+        }
+        //同一对象只处理一次（如 MyBatis 参数 Map 中同一对象对应多个 key）
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        //多个参数
+        if (object instanceof Map) {
+            Map<?, ?> paramMap = (Map<?, ?>) object;
+            for (Object o : paramMap.values()) {
+                CryptoPlan.traverse(o, visited, (target, plan) -> handleString(target, plan, cryptoType));
             }
+        } else {
+            CryptoPlan.traverse(object, visited, (target, plan) -> handleString(target, plan, cryptoType));
+        }
+    }
 
-            Algorithm algorithm = annotation.algorithm();
-            Class<? extends ICrypto> iCryptoImpl = annotation.crypto();
-            ICrypto iCrypto = iCryptoImpl.newInstance();
-
-            String valueResult;
-//            Method decrypt = iCryptoImpl.getDeclaredMethod(cryptoType.getMethod(), Algorithm.class, String.class, String.class);
-            //解密后的值
-//            Object valueDecrypt = decrypt.invoke(iCrypto, algorithm, String.valueOf(value), key);
-            if (cryptoType.equals(CryptoType.DECRYPT)) {
-                valueResult = iCrypto.decrypt(algorithm, String.valueOf(value), key);
-            } else {
-                valueResult = iCrypto.encrypt(algorithm, String.valueOf(value), key);
+    /**
+     * 处理对象上的加密字段
+     *
+     * @param object     对象
+     * @param plan       对象所属类的加解密计划
+     * @param cryptoType 加密或解密
+     */
+    private void handleString(Object object, CryptoPlan plan, CryptoType cryptoType) {
+        boolean lazy = object instanceof LazyDecrypted;
+        if (lazy && cryptoType.equals(CryptoType.ENCRYPT)) {
+            //作为参数时先还原明文，避免对密文重复加密
+            ((LazyDecrypted) object).decryptAll();
+        }
+        for (CryptoPlan.EncryptField encryptField : plan.getEncryptFields()) {
+            Field field = encryptField.getField();
+            if (lazy && cryptoType.equals(CryptoType.DECRYPT) && lazyDecryptProxyFactory.isLazyField(object, field)) {
+                continue;
             }
+            //未配置盲索引密钥时直接失败，避免写入没有盲索引的数据
+            Field blindIndexField = cryptoType.equals(CryptoType.ENCRYPT) ? encryptField.getBlindIndexField() : null;
+            String blindIndexKey = blindIndexField != null ? requireBlindIndexKey() : null;
+            try {
+                Object value = field.get(object);
+                if (!(value instanceof String)) {
+                    continue;
+                }
+                String key = encryptField.resolveKey(cryptoProperties.getKey());
+                Algorithm algorithm = encryptField.getAlgorithm();
+                ICrypto iCrypto = encryptField.getCrypto();
+
+                String valueResult;
+                if (cryptoType.equals(CryptoType.DECRYPT)) {
+                    valueResult = iCrypto.decrypt(algorithm, (String) value, key);
+                } else {
+                    //维护盲索引影子字段，用于加密列的等值查询
+                    if (blindIndexField != null) {
+                        blindIndexField.set(object, BlindIndexUtil.compute(blindIndexKey, (String) value));
+                    }
+                    valueResult = iCrypto.encrypt(algorithm, (String) value, key);
+                }
 
-            log.debug("原值：" + value);
-            log.debug("现在：" + valueResult);
-            field.set(object, String.valueOf(valueResult));
-            field.setAccessible(accessible);
+                if (log.isDebugEnabled()) {
+                    log.debug("原值：" + value);
+                    log.debug("现在：" + valueResult);
+                }
+                field.set(object, String.valueOf(valueResult));
+            } catch (Exception e) {
+                log.error("字段" + cryptoType.getMethod() + "失败：" + field.getName(), e);
+            }
         }
     }
 
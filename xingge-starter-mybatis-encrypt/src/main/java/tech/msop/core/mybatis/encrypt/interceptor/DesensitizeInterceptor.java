@@ -8,12 +8,11 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
-import tech.msop.core.mybatis.encrypt.annotation.FieldDesensitize;
 import tech.msop.core.mybatis.encrypt.desensitize.IDesensitize;
+import tech.msop.core.mybatis.encrypt.lazy.LazyDecrypted;
+import tech.msop.core.mybatis.encrypt.plan.CryptoPlan;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.time.chrono.ChronoLocalDate;
 import java.util.*;
 
 /**
@@ -68,148 +67,44 @@ public class DesensitizeInterceptor implements Interceptor {
         List<Object> resultList;
         resultList = executor.query(ms, parameter, rowBounds, resultHandler, cacheKey, boundSql);
 
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
         for (Object object : resultList) {
-            HashMap<Field, Object> fieldObjectHashMap = new HashMap<>();
-
-            if (object != null) {
-                handleObject(object, object.getClass(), fieldObjectHashMap);
-            }
-            //统一修改加密解密值
-            fieldObjectHashMap.keySet().forEach(key -> {
-                try {
-                    handleString(key, fieldObjectHashMap.get(key));
-                } catch (IllegalAccessException | InstantiationException e) {
-                    e.printStackTrace();
-                }
-            });
+            CryptoPlan.traverse(object, visited, this::handleString);
         }
 
         return resultList;
     }
 
-
-    /**
-     * 是否是
-     *
-     * @param object
-     * @return
-     */
-    private boolean isFilter(Object object) {
-
-        return object == null || object instanceof CharSequence || object instanceof Number || object instanceof Collection || object instanceof Date || object instanceof ChronoLocalDate;
-    }
-
-    /**
-     * 聚合父类属性
-     *
-     * @param oClass
-     * @param fields
-     * @return
-     */
-    private List<Field> mergeField(Class<?> oClass, List<Field> fields) {
-        if (fields == null) {
-            fields = new ArrayList<>();
-        }
-        Class<?> superclass = oClass.getSuperclass();
-        if (superclass != null && !superclass.equals(Object.class) && superclass.getDeclaredFields().length > 0) {
-            mergeField(superclass, fields);
-        }
-        for (Field declaredField : oClass.getDeclaredFields()) {
-
-            int modifiers = declaredField.getModifiers();
-
-            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isVolatile(modifiers) || Modifier.isSynchronized(modifiers)) {
-                continue;
-            }
-            fields.add(declaredField);
-        }
-
-        return fields;
-
-    }
-
     /**
-     * 处理Object
+     * 处理对象上的脱敏字段
      *
-     * @param obj
-     * @param oClass
-     * @throws IllegalAccessException
+     * @param object 对象
+     * @param plan   对象所属类的加解密计划
      */
-    private void handleObject(Object obj, Class<?> oClass, HashMap<Field, Object> fieldObjectHashMap) throws IllegalAccessException {
-        //过滤
-        if (isFilter(obj)) {
-            return;
+    private void handleString(Object object, CryptoPlan plan) {
+        if (object instanceof LazyDecrypted && !plan.getDesensitizeFields().isEmpty()) {
+            //脱敏基于明文，先解密延迟解密代理上的字段
+            ((LazyDecrypted) object).decryptAll();
         }
-
-        List<Field> fields = mergeField(oClass, null);
-
-        for (Field declaredField : fields) {
-
-            //静态属性直接跳过
-            if (Modifier.isStatic(declaredField.getModifiers())) {
-                continue;
-            }
-
-            boolean accessible = declaredField.isAccessible();
-            declaredField.setAccessible(true);
-            Object value = declaredField.get(obj);
-            declaredField.setAccessible(accessible);
-
-            if (value == null) {
-                continue;
-            } else if (value instanceof Number) {
-                continue;
-            } else if (value instanceof String) {
-
-                FieldDesensitize annotation = declaredField.getAnnotation(FieldDesensitize.class);
-                if (annotation != null) {
-                    fieldObjectHashMap.put(declaredField, obj);
+        for (CryptoPlan.DesensitizeField desensitizeField : plan.getDesensitizeFields()) {
+            Field field = desensitizeField.getField();
+            try {
+                Object value = field.get(object);
+                if (!(value instanceof String)) {
+                    continue;
                 }
+                IDesensitize iDesensitize = desensitizeField.getDesensitize();
+                String desensitizeValue = iDesensitize.execute((String) value, desensitizeField.getFillValue());
 
-            } else if (value instanceof Collection) {
-                Collection coll = (Collection) value;
-                for (Object o : coll) {
-                    if (isFilter(o)) {
-                        //默认集合内类型一致
-                        break;
-                    }
-                    handleObject(o, o.getClass(), fieldObjectHashMap);
+                if (log.isDebugEnabled()) {
+                    log.debug("原值：" + value);
+                    log.debug("脱敏后：" + desensitizeValue);
                 }
-            } else {
-                handleObject(value, value.getClass(), fieldObjectHashMap);
+                field.set(object, String.valueOf(desensitizeValue));
+            } catch (IllegalAccessException e) {
+                log.error("字段脱敏失败：" + field.getName(), e);
             }
         }
-
-    }
-
-    /**
-     * 处理字符
-     *
-     * @param field
-     * @param object
-     * @throws IllegalAccessException
-     * @throws InstantiationException
-     */
-    private void handleString(Field field, Object object) throws IllegalAccessException, InstantiationException {
-
-        boolean accessible = field.isAccessible();
-        field.setAccessible(true);
-        Object value = field.get(object);
-
-        FieldDesensitize annotation = field.getAnnotation(FieldDesensitize.class);
-        if (annotation != null) {
-
-            String fillValue = annotation.fillValue();
-
-            Class<? extends IDesensitize> desensitize = annotation.desensitize();
-            IDesensitize iDesensitize = desensitize.newInstance();
-            String desensitizeValue = iDesensitize.execute(String.valueOf(value), fillValue);
-
-            log.debug("原值：" + value);
-            log.debug("脱敏后：" + desensitizeValue);
-            field.set(object, String.valueOf(desensitizeValue));
-            field.setAccessible(accessible);
-        }
     }
 
     @Override
@@ -0,0 +1,313 @@
+package tech.msop.core.mybatis.encrypt.lazy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.CallbackFilter;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.cglib.proxy.NoOp;
+import tech.msop.core.mybatis.encrypt.plan.CryptoPlan;
+import tech.msop.core.mybatis.encrypt.properties.CryptoProperties;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 延迟解密代理工厂
+ * <p>
+ * 为带有 getter 的加密字段生成实体子类代理：复制查询结果的字段值（保留密文），
+ * 拦截对应的 getter，首次访问时解密并回写；调用 setter 后视为明文，不再解密。
+ * 没有可覆盖 getter 的加密字段仍由拦截器立即解密。
+ * <p>
+ * 实体类需为非 final 且有无参构造器，否则不生成代理。
+ * 代理的真实字段在访问 getter 前仍是密文，按字段序列化（JDK 序列化、Protostuff 等）会得到密文，
+ * 因此实现了 {@link Serializable} 的实体不生成代理，仍立即解密
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+public class LazyDecryptProxyFactory {
+
+    /**
+     * 无法代理的类（负缓存）
+     */
+    private static final ProxyMeta UNSUPPORTED = new ProxyMeta();
+
+    private final CryptoProperties cryptoProperties;
+
+    private final ConcurrentMap<Class<?>, ProxyMeta> metaCache = new ConcurrentHashMap<>(64);
+
+    public LazyDecryptProxyFactory(CryptoProperties cryptoProperties) {
+        this.cryptoProperties = cryptoProperties;
+    }
+
+    /**
+     * 创建延迟解密代理
+     *
+     * @param target 查询结果对象
+     * @param plan   对象所属类的加解密计划
+     * @return 代理对象，无法代理时返回 null
+     */
+    public Object createProxy(Object target, CryptoPlan plan) {
+        if (target instanceof LazyDecrypted || plan.getEncryptFields().isEmpty()) {
+            return null;
+        }
+        Class<?> type = target.getClass();
+        ProxyMeta meta = metaCache.get(type);
+        if (meta == null) {
+            meta = metaCache.computeIfAbsent(type, c -> resolve(c, plan));
+        }
+        if (meta == UNSUPPORTED) {
+            return null;
+        }
+        LazyDecryptInterceptor interceptor = new LazyDecryptInterceptor(meta);
+        Object proxy;
+        Enhancer.registerCallbacks(meta.proxyClass, new Callback[]{NoOp.INSTANCE, interceptor});
+        try {
+            proxy = ReflectUtils.newInstance(meta.proxyClass);
+        } finally {
+            Enhancer.registerCallbacks(meta.proxyClass, null);
+        }
+        try {
+            for (Field field : meta.copyFields) {
+                field.set(proxy, field.get(target));
+            }
+        } catch (IllegalAccessException e) {
+            log.error("创建延迟解密代理失败：" + type.getName(), e);
+            return null;
+        }
+        interceptor.arm();
+        return proxy;
+    }
+
+    /**
+     * 判断字段是否由代理延迟解密
+     *
+     * @param proxy 代理对象
+     * @param field 字段
+     * @return true 表示延迟解密
+     */
+    public boolean isLazyField(Object proxy, Field field) {
+        ProxyMeta meta = metaCache.get(proxy.getClass().getSuperclass());
+        return meta != null && meta.lazyFieldSet.contains(field);
+    }
+
+    /**
+     * 解析代理元数据并生成代理类
+     *
+     * @param type 实体类
+     * @param plan 加解密计划
+     * @return 代理元数据
+     */
+    private ProxyMeta resolve(Class<?> type, CryptoPlan plan) {
+        if (Modifier.isFinal(type.getModifiers()) || type.getName().contains("$$") || !hasNoArgConstructor(type)) {
+            return UNSUPPORTED;
+        }
+        //可序列化的实体可能被缓存或跨进程传输，按字段序列化时会拿到密文
+        if (Serializable.class.isAssignableFrom(type)) {
+            log.debug("{} 实现了 Serializable，不生成延迟解密代理", type.getName());
+            return UNSUPPORTED;
+        }
+        ProxyMeta meta = new ProxyMeta();
+        List<CryptoPlan.EncryptField> lazyFields = new ArrayList<>();
+        for (CryptoPlan.EncryptField encryptField : plan.getEncryptFields()) {
+            Field field = encryptField.getField();
+            Method getter = findMethod(type, "get" + capitalize(field.getName()));
+            if (getter == null) {
+                continue;
+            }
+            int index = lazyFields.size();
+            lazyFields.add(encryptField);
+            meta.getterIndex.put(getter.getName(), index);
+            Method setter = findMethod(type, "set" + capitalize(field.getName()), field.getType());
+            if (setter != null) {
+                meta.setterIndex.put(setter.getName(), index);
+            }
+            meta.lazyFieldSet.add(field);
+        }
+        if (lazyFields.isEmpty()) {
+            return UNSUPPORTED;
+        }
+        meta.lazyFields = lazyFields.toArray(new CryptoPlan.EncryptField[0]);
+        meta.keys = new String[meta.lazyFields.length];
+        for (int i = 0; i < meta.lazyFields.length; i++) {
+            meta.keys[i] = meta.lazyFields[i].resolveKey(cryptoProperties.getKey());
+        }
+        meta.copyFields = instanceFields(type);
+        try {
+            Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(type);
+            enhancer.setInterfaces(new Class[]{LazyDecrypted.class});
+            enhancer.setCallbackTypes(new Class[]{NoOp.class, LazyDecryptInterceptor.class});
+            enhancer.setCallbackFilter(new LazyDecryptCallbackFilter(meta));
+            enhancer.setUseFactory(false);
+            enhancer.setUseCache(false);
+            meta.proxyClass = enhancer.createClass();
+        } catch (Exception e) {
+            log.warn("无法为 {} 生成延迟解密代理，将立即解密：{}", type.getName(), e.getMessage());
+            return UNSUPPORTED;
+        }
+        return meta;
+    }
+
+    private static boolean hasNoArgConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            return !Modifier.isPrivate(constructor.getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 查找可覆盖的 public 方法
+     */
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = type.getMethod(name, parameterTypes);
+            int modifiers = method.getModifiers();
+            if (Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers)) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 收集需要复制到代理上的实例字段
+     */
+    private static List<Field> instanceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 代理元数据
+     */
+    private static final class ProxyMeta {
+        private Class<?> proxyClass;
+        private List<Field> copyFields;
+        private CryptoPlan.EncryptField[] lazyFields;
+        private String[] keys;
+        private final Map<String, Integer> getterIndex = new HashMap<>();
+        private final Map<String, Integer> setterIndex = new HashMap<>();
+        private final Set<Field> lazyFieldSet = new HashSet<>();
+    }
+
+    /**
+     * 只拦截延迟字段的 getter/setter 及 {@link LazyDecrypted#decryptAll()}，其余方法直接调用父类
+     */
+    private static final class LazyDecryptCallbackFilter implements CallbackFilter {
+        private final ProxyMeta meta;
+
+        LazyDecryptCallbackFilter(ProxyMeta meta) {
+            this.meta = meta;
+        }
+
+        @Override
+        public int accept(Method method) {
+            String name = method.getName();
+            int count = method.getParameterCount();
+            if (count == 0 && ("decryptAll".equals(name) || meta.getterIndex.containsKey(name))) {
+                return 1;
+            }
+            return count == 1 && meta.setterIndex.containsKey(name) ? 1 : 0;
+        }
+    }
+
+    /**
+     * 单个代理对象的延迟解密状态
+     */
+    private static final class LazyDecryptInterceptor implements MethodInterceptor {
+        private final ProxyMeta meta;
+        /**
+         * 尚未解密的字段
+         */
+        private final boolean[] pending;
+
+        LazyDecryptInterceptor(ProxyMeta meta) {
+            this.meta = meta;
+            this.pending = new boolean[meta.lazyFields.length];
+        }
+
+        /**
+         * 字段复制完成后标记所有延迟字段为待解密
+         */
+        synchronized void arm() {
+            Arrays.fill(pending, true);
+        }
+
+        @Override
+        public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+            String name = method.getName();
+            if (args.length == 0) {
+                if ("decryptAll".equals(name)) {
+                    for (int i = 0; i < pending.length; i++) {
+                        decrypt(obj, i);
+                    }
+                    return null;
+                }
+                Integer index = meta.getterIndex.get(name);
+                if (index != null) {
+                    decrypt(obj, index);
+                }
+            } else {
+                Integer index = meta.setterIndex.get(name);
+                if (index != null) {
+                    synchronized (this) {
+                        pending[index] = false;
+                    }
+                }
+            }
+            return proxy.invokeSuper(obj, args);
+        }
+
+        private synchronized void decrypt(Object obj, int index) {
+            if (!pending[index]) {
+                return;
+            }
+            pending[index] = false;
+            CryptoPlan.EncryptField encryptField = meta.lazyFields[index];
+            Field field = encryptField.getField();
+            try {
+                Object value = field.get(obj);
+                if (value instanceof String) {
+                    String result = encryptField.getCrypto().decrypt(encryptField.getAlgorithm(), (String) value, meta.keys[index]);
+                    field.set(obj, String.valueOf(result));
+                }
+            } catch (Exception e) {
+                log.error("字段延迟解密失败：" + field.getName(), e);
+            }
+        }
+    }
+}
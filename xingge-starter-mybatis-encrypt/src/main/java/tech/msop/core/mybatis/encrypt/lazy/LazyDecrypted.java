@@ -0,0 +1,18 @@
+package tech.msop.core.mybatis.encrypt.lazy;
+
+/**
+ * 延迟解密对象
+ * <p>
+ * 开启延迟解密后，查询结果中的实体会被替换为实现该接口的子类代理，
+ * {@link tech.msop.core.mybatis.encrypt.annotation.FieldEncrypt} 字段保留密文，
+ * 首次调用对应 getter 时才解密
+ *
+ * @author ruozhuliufeng
+ */
+public interface LazyDecrypted {
+
+    /**
+     * 立即解密所有尚未解密的字段
+     */
+    void decryptAll();
+}
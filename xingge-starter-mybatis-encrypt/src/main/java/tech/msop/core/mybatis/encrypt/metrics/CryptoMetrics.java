@@ -0,0 +1,109 @@
+package tech.msop.core.mybatis.encrypt.metrics;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 结果集解密统计
+ * <p>
+ * 按 MappedStatement 统计解密的行数与耗时
+ *
+ * @author ruozhuliufeng
+ */
+public class CryptoMetrics {
+
+    private final ConcurrentMap<String, StatementMetrics> statementMetrics = new ConcurrentHashMap<>(64);
+
+    /**
+     * 记录一次结果集解密
+     *
+     * @param statementId MappedStatement id
+     * @param rows        行数
+     * @param nanos       耗时（纳秒）
+     * @param parallel    是否并行解密
+     */
+    public void record(String statementId, int rows, long nanos, boolean parallel) {
+        StatementMetrics metrics = statementMetrics.get(statementId);
+        if (metrics == null) {
+            metrics = statementMetrics.computeIfAbsent(statementId, StatementMetrics::new);
+        }
+        metrics.invocations.increment();
+        metrics.rows.add(rows);
+        metrics.nanos.add(nanos);
+        if (parallel) {
+            metrics.parallelInvocations.increment();
+        }
+    }
+
+    /**
+     * 获取所有 MappedStatement 的统计
+     *
+     * @return 统计信息，key 为 MappedStatement id
+     */
+    public Map<String, StatementMetrics> getStatementMetrics() {
+        return Collections.unmodifiableMap(statementMetrics);
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        statementMetrics.clear();
+    }
+
+    /**
+     * 单个 MappedStatement 的解密统计
+     */
+    public static class StatementMetrics {
+        @Getter
+        private final String statementId;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder parallelInvocations = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        StatementMetrics(String statementId) {
+            this.statementId = statementId;
+        }
+
+        /**
+         * @return 查询次数
+         */
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        /**
+         * @return 并行解密次数
+         */
+        public long getParallelInvocations() {
+            return parallelInvocations.sum();
+        }
+
+        /**
+         * @return 解密行数
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        /**
+         * @return 解密总耗时（毫秒）
+         */
+        public long getTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        @Override
+        public String toString() {
+            return statementId + "{invocations=" + getInvocations() + ", parallelInvocations=" + getParallelInvocations()
+                    + ", rows=" + getRows() + ", timeMillis=" + getTimeMillis() + "}";
+        }
+    }
+}
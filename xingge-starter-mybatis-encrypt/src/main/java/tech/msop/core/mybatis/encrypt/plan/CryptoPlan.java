@@ -0,0 +1,360 @@
+package tech.msop.core.mybatis.encrypt.plan;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import tech.msop.core.mybatis.encrypt.annotation.FieldDesensitize;
+import tech.msop.core.mybatis.encrypt.annotation.FieldEncrypt;
+import tech.msop.core.mybatis.encrypt.crypto.ICrypto;
+import tech.msop.core.mybatis.encrypt.desensitize.IDesensitize;
+import tech.msop.core.mybatis.encrypt.enums.Algorithm;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.chrono.ChronoLocalDate;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 实体类加解密计划
+ * <p>
+ * 每个实体类只解析一次：预先收集 {@link FieldEncrypt}、{@link FieldDesensitize} 字段
+ * 及可能包含嵌套对象的字段，并解析好算法、注解密钥和单例的加解密器/脱敏器，
+ * 拦截器处理结果集时只需遍历预计算的字段，不再进行反射查找。
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+@Getter
+public final class CryptoPlan {
+
+    /**
+     * 空计划（负缓存）
+     */
+    public static final CryptoPlan EMPTY = new CryptoPlan(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * 计划缓存
+     */
+    private static final ConcurrentMap<Class<?>, CryptoPlan> PLAN_CACHE = new ConcurrentHashMap<>(64);
+
+    /**
+     * 加解密器单例缓存
+     */
+    private static final ConcurrentMap<Class<?>, Object> HANDLER_CACHE = new ConcurrentHashMap<>(8);
+
+    /**
+     * 加密字段
+     */
+    private final List<EncryptField> encryptFields;
+
+    /**
+     * 脱敏字段
+     */
+    private final List<DesensitizeField> desensitizeFields;
+
+    /**
+     * 可能包含嵌套对象的字段
+     */
+    private final List<Field> nestedFields;
+
+    private CryptoPlan(List<EncryptField> encryptFields, List<DesensitizeField> desensitizeFields, List<Field> nestedFields) {
+        this.encryptFields = encryptFields;
+        this.desensitizeFields = desensitizeFields;
+        this.nestedFields = nestedFields;
+    }
+
+    /**
+     * 获取类的加解密计划
+     *
+     * @param clazz 类型
+     * @return 加解密计划，无需处理时返回 {@link #EMPTY}
+     */
+    public static CryptoPlan forClass(Class<?> clazz) {
+        CryptoPlan plan = PLAN_CACHE.get(clazz);
+        if (plan != null) {
+            return plan;
+        }
+        return PLAN_CACHE.computeIfAbsent(clazz, CryptoPlan::resolve);
+    }
+
+    /**
+     * 遍历对象及其嵌套对象，对每个需要处理的对象执行回调
+     *
+     * @param obj     对象
+     * @param visited 已处理对象（按引用判断），避免同一对象重复处理及循环引用
+     * @param action  回调
+     */
+    public static void traverse(Object obj, Set<Object> visited, BiConsumer<Object, CryptoPlan> action) {
+        //过滤
+        if (isFilter(obj)) {
+            return;
+        }
+        CryptoPlan plan = forClass(obj.getClass());
+        if (plan.isEmpty() || !visited.add(obj)) {
+            return;
+        }
+        action.accept(obj, plan);
+        for (Field field : plan.nestedFields) {
+            Object value;
+            try {
+                value = field.get(obj);
+            } catch (IllegalAccessException e) {
+                log.error("读取字段失败：" + field.getName(), e);
+                continue;
+            }
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Collection) {
+                for (Object o : (Collection<?>) value) {
+                    if (isFilter(o)) {
+                        //默认集合内类型一致
+                        break;
+                    }
+                    traverse(o, visited, action);
+                }
+            } else {
+                traverse(value, visited, action);
+            }
+        }
+    }
+
+    /**
+     * 是否无需处理
+     *
+     * @return true 表示无需处理
+     */
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /**
+     * 是否是需要过滤的对象
+     *
+     * @param object 对象
+     * @return true 表示过滤
+     */
+    private static boolean isFilter(Object object) {
+        return object == null || object instanceof CharSequence || object instanceof Number || object instanceof Collection || object instanceof Date || object instanceof ChronoLocalDate;
+    }
+
+    /**
+     * 解析类的加解密计划
+     *
+     * @param clazz 类型
+     * @return 加解密计划
+     */
+    private static CryptoPlan resolve(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.")) {
+            return EMPTY;
+        }
+        List<EncryptField> encryptFields = new ArrayList<>();
+        List<DesensitizeField> desensitizeFields = new ArrayList<>();
+        List<Field> nestedFields = new ArrayList<>();
+        for (Field field : mergeField(clazz, new ArrayList<>())) {
+            Class<?> type = field.getType();
+            if (type.isPrimitive()) {
+                continue;
+            }
+            FieldEncrypt encrypt = field.getAnnotation(FieldEncrypt.class);
+            FieldDesensitize desensitize = field.getAnnotation(FieldDesensitize.class);
+            boolean stringField = type.isAssignableFrom(String.class);
+            if (stringField && (encrypt != null || desensitize != null)) {
+                field.setAccessible(true);
+                if (encrypt != null) {
+                    ICrypto crypto = getHandler(encrypt.crypto());
+                    if (crypto != null) {
+                        encryptFields.add(new EncryptField(field, encrypt.key(), encrypt.algorithm(), crypto,
+                                findBlindIndexField(clazz, field, encrypt.blindIndex())));
+                    }
+                }
+                if (desensitize != null) {
+                    IDesensitize handler = getHandler(desensitize.desensitize());
+                    if (handler != null) {
+                        desensitizeFields.add(new DesensitizeField(field, desensitize.fillValue(), handler));
+                    }
+                }
+            }
+            if (!isLeafType(type)) {
+                field.setAccessible(true);
+                nestedFields.add(field);
+            }
+        }
+        if (encryptFields.isEmpty() && desensitizeFields.isEmpty() && nestedFields.isEmpty()) {
+            return EMPTY;
+        }
+        return new CryptoPlan(Collections.unmodifiableList(encryptFields), Collections.unmodifiableList(desensitizeFields),
+                Collections.unmodifiableList(nestedFields));
+    }
+
+    /**
+     * 查找盲索引影子字段
+     *
+     * @param clazz     类型
+     * @param field     加密字段
+     * @param fieldName 影子字段名
+     * @return 影子字段，未配置或不存在时返回 null
+     */
+    private static Field findBlindIndexField(Class<?> clazz, Field field, String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            return null;
+        }
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field indexField = c.getDeclaredField(fieldName);
+                if (!String.class.equals(indexField.getType())) {
+                    log.warn("盲索引字段 {}.{} 必须为 String 类型", clazz.getName(), fieldName);
+                    return null;
+                }
+                indexField.setAccessible(true);
+                return indexField;
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+        log.warn("字段 {}.{} 配置的盲索引字段 {} 不存在", clazz.getName(), field.getName(), fieldName);
+        return null;
+    }
+
+    /**
+     * 聚合父类属性，跳过静态、final、volatile 及代理生成的字段
+     *
+     * @param oClass 类型
+     * @param fields 字段集合
+     * @return 字段集合
+     */
+    private static List<Field> mergeField(Class<?> oClass, List<Field> fields) {
+        Class<?> superclass = oClass.getSuperclass();
+        if (superclass != null && !superclass.equals(Object.class)) {
+            mergeField(superclass, fields);
+        }
+        for (Field declaredField : oClass.getDeclaredFields()) {
+            int modifiers = declaredField.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isVolatile(modifiers)) {
+                continue;
+            }
+            //跳过 CGLIB 代理（如延迟解密代理）生成的字段
+            if (declaredField.getName().startsWith("CGLIB$")) {
+                continue;
+            }
+            fields.add(declaredField);
+        }
+        return fields;
+    }
+
+    /**
+     * 是否为不可能包含嵌套加解密字段的类型
+     *
+     * @param type 字段声明类型
+     * @return true 表示无需递归
+     */
+    private static boolean isLeafType(Class<?> type) {
+        return type.isArray() || type.isEnum() ||
+                CharSequence.class.isAssignableFrom(type) ||
+                Number.class.isAssignableFrom(type) ||
+                Boolean.class.equals(type) ||
+                Character.class.equals(type) ||
+                Date.class.isAssignableFrom(type) ||
+                Temporal.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 获取加解密器/脱敏器单例
+     *
+     * @param handlerClass 实现类
+     * @param <T>          类型
+     * @return 单例，实例化失败时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T getHandler(Class<? extends T> handlerClass) {
+        try {
+            return (T) HANDLER_CACHE.computeIfAbsent(handlerClass, c -> {
+                try {
+                    return c.newInstance();
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IllegalStateException e) {
+            log.error("实例化失败：" + handlerClass.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 加密字段
+     */
+    @Getter
+    public static final class EncryptField {
+        /**
+         * 字段（已设置可访问）
+         */
+        private final Field field;
+        /**
+         * 注解上的密钥，为空时使用全局配置
+         */
+        private final String key;
+        /**
+         * 算法
+         */
+        private final Algorithm algorithm;
+        /**
+         * 加解密器
+         */
+        private final ICrypto crypto;
+        /**
+         * 盲索引影子字段（已设置可访问），未启用时为 null
+         */
+        private final Field blindIndexField;
+
+        EncryptField(Field field, String key, Algorithm algorithm, ICrypto crypto, Field blindIndexField) {
+            this.field = field;
+            this.key = key;
+            this.algorithm = algorithm;
+            this.crypto = crypto;
+            this.blindIndexField = blindIndexField;
+        }
+
+        /**
+         * 解析实际使用的密钥
+         *
+         * @param propertiesKey 全局配置的密钥
+         * @return 密钥
+         */
+        public String resolveKey(String propertiesKey) {
+            return "".equals(key) ? propertiesKey : key;
+        }
+    }
+
+    /**
+     * 脱敏字段
+     */
+    @Getter
+    public static final class DesensitizeField {
+        /**
+         * 字段（已设置可访问）
+         */
+        private final Field field;
+        /**
+         * 填充值
+         */
+        private final String fillValue;
+        /**
+         * 脱敏器
+         */
+        private final IDesensitize desensitize;
+
+        DesensitizeField(Field field, String fillValue, IDesensitize desensitize) {
+            this.field = field;
+            this.fillValue = fillValue;
+            this.desensitize = desensitize;
+        }
+    }
+}
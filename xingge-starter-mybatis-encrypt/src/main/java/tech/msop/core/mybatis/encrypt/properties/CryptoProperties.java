@@ -15,4 +15,49 @@ public class CryptoProperties {
      * 密钥
      */
     private String key;
+
+    /**
+     * 盲索引密钥，存在配置了盲索引的加密字段时必须配置，且应与 key 不同
+     */
+    private String blindIndexKey;
+
+    /**
+     * 是否延迟解密，默认关闭
+     * <p>
+     * 开启后查询结果替换为子类代理，加密字段在首次调用 getter 时才解密
+     * <p>
+     * 注意：代理对象的字段在访问 getter 前仍是密文，且 {@code getClass()} 返回代理子类。
+     * 直接读取字段的序列化方式（JDK 序列化、Protostuff、按字段可见性配置的 Jackson 等）会得到密文，
+     * 按类型判等的逻辑也会失效。实现了 {@link java.io.Serializable} 的实体不会被代理；
+     * 其他实体在缓存或序列化前应调用 {@link tech.msop.core.mybatis.encrypt.lazy.LazyDecrypted#decryptAll()}
+     */
+    private boolean lazyDecrypt = false;
+
+    /**
+     * 大结果集并行解密配置
+     */
+    private Parallel parallel = new Parallel();
+
+    /**
+     * 大结果集并行解密配置
+     */
+    @Data
+    public static class Parallel {
+        /**
+         * 是否启用并行解密，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 触发并行解密的最小行数
+         */
+        private int threshold = 5000;
+        /**
+         * 每个分片的行数，小于 1 时按 1 处理
+         */
+        private int chunkSize = 1000;
+        /**
+         * 并行度，默认为 CPU 核数，小于 1 时按 1 处理
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
 }
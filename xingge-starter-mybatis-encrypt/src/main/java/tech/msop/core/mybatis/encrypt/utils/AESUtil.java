@@ -9,6 +9,8 @@ import javax.crypto.spec.SecretKeySpec;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -22,17 +24,32 @@ public class AESUtil {
 
     private final static String ALGORITHM = "AES";
 
+    /**
+     * 派生密钥缓存，key 为原始密钥字符串
+     * 密钥派生（KeyGenerator + SHA1PRNG）开销较大，同一密钥只派生一次
+     */
+    private final static Map<String, SecretKeySpec> KEY_CACHE = new ConcurrentHashMap<>(16);
+
+    /**
+     * 线程内复用的 Cipher，避免每个字段值都执行 Cipher.getInstance
+     */
+    private final static ThreadLocal<Cipher> CIPHER_HOLDER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     /**
      * @param key     密钥
      * @param content 需要加密的字符串
      * @return 密文字节数组
      */
     private static byte[] encrypt(String key, String content) {
-        byte[] rawKey = genKey(key.getBytes());
         try {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(rawKey, ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
+            Cipher cipher = CIPHER_HOLDER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(key));
             byte[] encypted = cipher.doFinal(content.getBytes());
             return encypted;
         } catch (Exception e) {
@@ -57,11 +74,9 @@ public class AESUtil {
      * @return 解密后的字符串
      */
     private static String decrypt(String key, byte[] encrypted) {
-        byte[] rawKey = genKey(key.getBytes());
         try {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(rawKey, ALGORITHM);
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+            Cipher cipher = CIPHER_HOLDER.get();
+            cipher.init(Cipher.DECRYPT_MODE, getKeySpec(key));
             byte[] decrypted = cipher.doFinal(encrypted);
             return new String(decrypted);
         } catch (Exception e) {
@@ -70,6 +85,21 @@ public class AESUtil {
         }
     }
 
+    /**
+     * 获取派生密钥，首次使用时派生并缓存
+     *
+     * @param key 密钥
+     * @return 密钥规范
+     */
+    private static SecretKeySpec getKeySpec(String key) {
+        SecretKeySpec secretKeySpec = KEY_CACHE.get(key);
+        if (secretKeySpec == null) {
+            secretKeySpec = new SecretKeySpec(genKey(key.getBytes()), ALGORITHM);
+            KEY_CACHE.put(key, secretKeySpec);
+        }
+        return secretKeySpec;
+    }
+
     /**
      * @param seed 种子数据
      * @return 密钥数据
@@ -0,0 +1,72 @@
+package tech.msop.core.mybatis.encrypt.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 盲索引工具类
+ * <p>
+ * 使用 HmacSHA256 对明文计算带密钥的摘要，作为加密列的可索引影子列，
+ * 相同明文得到相同索引值，用于等值查询；没有密钥无法由索引反推明文
+ *
+ * @author ruozhuliufeng
+ */
+public class BlindIndexUtil {
+
+    private final static String ALGORITHM = "HmacSHA256";
+
+    private final static char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * 密钥缓存
+     */
+    private final static Map<String, SecretKeySpec> KEY_CACHE = new ConcurrentHashMap<>(16);
+
+    /**
+     * 线程内复用的 Mac
+     */
+    private final static ThreadLocal<Mac> MAC_HOLDER = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * 计算盲索引
+     *
+     * @param key   索引密钥
+     * @param value 明文
+     * @return 64 位十六进制字符串，明文为 null 时返回 null
+     */
+    public static String compute(String key, String value) {
+        if (value == null) {
+            return null;
+        }
+        SecretKeySpec keySpec = KEY_CACHE.get(key);
+        if (keySpec == null) {
+            keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            KEY_CACHE.put(key, keySpec);
+        }
+        try {
+            Mac mac = MAC_HOLDER.get();
+            mac.init(keySpec);
+            return toHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException("计算盲索引失败", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
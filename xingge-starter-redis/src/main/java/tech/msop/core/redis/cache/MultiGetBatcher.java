@@ -0,0 +1,135 @@
+package tech.msop.core.redis.cache;
+
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.lang.Nullable;
+import tech.msop.core.tool.utils.Exceptions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 将短时间窗口内并发的单 key GET 合并为一次 MGET
+ * <p>
+ * 不使用额外线程：第一个到达的调用线程成为 leader，等待一个窗口期后取出队列中的一批请求执行 MGET，
+ * 其他线程等待结果；每个 leader 只执行一批，释放后若队列中仍有请求，唤醒队首的等待线程接替，
+ * 避免 leader 持续为其他线程执行 MGET 而迟迟不能返回。队列中只有自己的请求时 leader 不等待窗口期。
+ *
+ * @author ruozhuliufeng
+ */
+class MultiGetBatcher {
+    private final ValueOperations<String, Object> valueOps;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean leader = new AtomicBoolean(false);
+
+    MultiGetBatcher(ValueOperations<String, Object> valueOps, long windowNanos, int maxBatchSize) {
+        this.valueOps = valueOps;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @Nullable
+    Object get(String key) {
+        Request request = new Request(key);
+        pending.incrementAndGet();
+        queue.offer(request);
+        CompletableFuture<Object> future = request.future;
+        while (!future.isDone()) {
+            if (leader.compareAndSet(false, true)) {
+                try {
+                    if (!future.isDone()) {
+                        // 没有其他并发请求时直接执行，不等待窗口期
+                        if (pending.get() > 1) {
+                            LockSupport.parkNanos(this, windowNanos);
+                        }
+                        flush();
+                    }
+                } finally {
+                    leader.set(false);
+                }
+                handOff();
+            } else {
+                // 结果完成或 leader 交接时被唤醒，超时后重新检查 leader 是否已释放
+                LockSupport.parkNanos(this, windowNanos * 2 + TimeUnit.MILLISECONDS.toNanos(1));
+                if (Thread.interrupted() && !future.isDone()) {
+                    throw Exceptions.unchecked(new InterruptedException());
+                }
+            }
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            throw Exceptions.unchecked(e);
+        } catch (ExecutionException e) {
+            throw Exceptions.unchecked(e.getCause());
+        }
+    }
+
+    /**
+     * 执行一批请求
+     */
+    private void flush() {
+        Map<String, List<Request>> batch = new LinkedHashMap<>();
+        Request request;
+        while (batch.size() < maxBatchSize && (request = queue.poll()) != null) {
+            pending.decrementAndGet();
+            batch.computeIfAbsent(request.key, k -> new ArrayList<>(1)).add(request);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(batch.keySet());
+            List<Object> values = valueOps.multiGet(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                Object value = values == null ? null : values.get(i);
+                for (Request r : batch.get(keys.get(i))) {
+                    r.complete(value);
+                }
+            }
+        } catch (Throwable e) {
+            batch.values().forEach(requests -> requests.forEach(r -> r.fail(e)));
+        }
+    }
+
+    /**
+     * 队列中仍有请求时唤醒队首的等待线程接替 leader
+     */
+    private void handOff() {
+        Request next = queue.peek();
+        if (next != null && next.thread != Thread.currentThread()) {
+            LockSupport.unpark(next.thread);
+        }
+    }
+
+    private static final class Request {
+        private final String key;
+        private final Thread thread = Thread.currentThread();
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private Request(String key) {
+            this.key = key;
+        }
+
+        private void complete(@Nullable Object value) {
+            future.complete(value);
+            LockSupport.unpark(thread);
+        }
+
+        private void fail(Throwable e) {
+            future.completeExceptionally(e);
+            LockSupport.unpark(thread);
+        }
+    }
+}
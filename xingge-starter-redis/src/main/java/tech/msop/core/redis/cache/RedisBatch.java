@@ -0,0 +1,194 @@
+package tech.msop.core.redis.cache;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 批量命令，在一次 pipeline 中发送，只产生一次网络往返
+ *
+ * <pre>
+ * {@code
+ * redisRepository.batch()
+ *     .setEx("user:1", user1, Duration.ofMinutes(10))
+ *     .hSet("user:stat", "1", 10)
+ *     .zAdd("user:rank", "1", 99.5)
+ *     .expire("user:rank", Duration.ofHours(1))
+ *     .execute();
+ * }
+ * </pre>
+ *
+ * @author ruozhuliufeng
+ */
+@SuppressWarnings("unchecked")
+public class RedisBatch {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final List<Consumer<RedisOperations<String, Object>>> commands = new ArrayList<>();
+    /**
+     * 修改 key 时的回调，用于移除本地缓存
+     */
+    private final Consumer<String> onWrite;
+    /**
+     * 修改了值的 key
+     */
+    private final Set<String> writtenKeys = new LinkedHashSet<>();
+
+    RedisBatch(RedisTemplate<String, Object> redisTemplate, Consumer<String> onWrite) {
+        this.redisTemplate = redisTemplate;
+        this.onWrite = onWrite;
+    }
+
+    /**
+     * SET
+     */
+    public RedisBatch set(String key, Object value) {
+        return write(key, ops -> ops.opsForValue().set(key, value));
+    }
+
+    /**
+     * SET，带过期时间
+     */
+    public RedisBatch setEx(String key, Object value, Duration timeout) {
+        return write(key, ops -> ops.opsForValue().set(key, value, timeout));
+    }
+
+    /**
+     * SET，使用 CacheKey 的过期时间
+     */
+    public RedisBatch set(CacheKey cacheKey, Object value) {
+        Duration expire = cacheKey.getExpire();
+        return expire == null ? set(cacheKey.getKey(), value) : setEx(cacheKey.getKey(), value, expire);
+    }
+
+    /**
+     * GET，结果按添加顺序出现在 {@link #execute()} 的返回值中
+     */
+    public RedisBatch get(String key) {
+        return add(ops -> ops.opsForValue().get(key));
+    }
+
+    /**
+     * HSET
+     */
+    public RedisBatch hSet(String key, Object field, Object value) {
+        return add(ops -> ops.opsForHash().put(key, field, value));
+    }
+
+    /**
+     * HMSET
+     */
+    public RedisBatch hMset(String key, Map<Object, Object> hash) {
+        return add(ops -> ops.opsForHash().putAll(key, hash));
+    }
+
+    /**
+     * HDEL
+     */
+    public RedisBatch hDel(String key, Object... fields) {
+        return add(ops -> ops.opsForHash().delete(key, fields));
+    }
+
+    /**
+     * ZADD
+     */
+    public RedisBatch zAdd(String key, Object member, double score) {
+        return add(ops -> ops.opsForZSet().add(key, member, score));
+    }
+
+    /**
+     * ZREM
+     */
+    public RedisBatch zRem(String key, Object... members) {
+        return add(ops -> ops.opsForZSet().remove(key, members));
+    }
+
+    /**
+     * SADD
+     */
+    public RedisBatch sAdd(String key, Object... members) {
+        return add(ops -> ops.opsForSet().add(key, members));
+    }
+
+    /**
+     * RPUSH
+     */
+    public RedisBatch rPush(String key, Object... values) {
+        return add(ops -> ops.opsForList().rightPushAll(key, values));
+    }
+
+    /**
+     * INCRBY
+     */
+    public RedisBatch incrBy(String key, long delta) {
+        return write(key, ops -> ops.opsForValue().increment(key, delta));
+    }
+
+    /**
+     * EXPIRE
+     */
+    public RedisBatch expire(String key, Duration timeout) {
+        return add(ops -> ops.expire(key, timeout));
+    }
+
+    /**
+     * DEL
+     */
+    public RedisBatch del(String key) {
+        return write(key, ops -> ops.delete(key));
+    }
+
+    /**
+     * 已添加的命令数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 在一次 pipeline 中执行所有命令
+     *
+     * @return 各命令的结果，按添加顺序
+     */
+    public List<Object> execute() {
+        if (commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        writtenKeys.forEach(onWrite);
+        try {
+            return redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public Object execute(@NonNull RedisOperations operations) throws DataAccessException {
+                    for (Consumer<RedisOperations<String, Object>> command : commands) {
+                        command.accept(operations);
+                    }
+                    return null;
+                }
+            });
+        } finally {
+            writtenKeys.forEach(onWrite);
+        }
+    }
+
+    private RedisBatch write(String key, Consumer<RedisOperations<String, Object>> command) {
+        writtenKeys.add(key);
+        return add(command);
+    }
+
+    private RedisBatch add(Consumer<RedisOperations<String, Object>> command) {
+        commands.add(command);
+        return this;
+    }
+}
@@ -1,15 +1,42 @@
 package tech.msop.core.redis.cache;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.springframework.cache.support.NullValue;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import tech.msop.core.redis.cache.bloom.RedisBloomFilterRegistry;
+import tech.msop.core.redis.cache.hotkey.HotKeyDetector;
+import tech.msop.core.redis.cache.near.LocalCacheStore;
+import tech.msop.core.redis.config.XingGeRedisProperties;
+import tech.msop.core.tool.utils.Charsets;
 import tech.msop.core.tool.utils.CollectionUtil;
+import tech.msop.core.tool.utils.Exceptions;
+import tech.msop.core.tool.utils.StringUtil;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * redis 工具
@@ -19,6 +46,24 @@ import java.util.function.Supplier;
 @Getter
 @SuppressWarnings("unchecked")
 public class RedisRepository {
+	/**
+	 * 分布式加载锁 key 前缀
+	 */
+	private static final String LOAD_LOCK_PREFIX = "xg:loader:lock:";
+	/**
+	 * 释放锁：仅删除自己持有的锁
+	 */
+	private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+		"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+	/**
+	 * 加载完成：仅当自己持有锁时将锁替换为短时间的完成标记，等待方据此结束等待（加载结果为 null 且不缓存空值时也能感知）
+	 */
+	private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+		"if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 else return 0 end", Long.class);
+	/**
+	 * 加载完成标记
+	 */
+	private static final String LOAD_DONE = "done";
 	private final RedisTemplate<String, Object> redisTemplate;
 	private final StringRedisTemplate stringRedisTemplate;
 	private final ValueOperations<String, Object> valueOps;
@@ -26,16 +71,80 @@ public class RedisRepository {
 	private final ListOperations<String, Object> listOps;
 	private final SetOperations<String, Object> setOps;
 	private final ZSetOperations<String, Object> zSetOps;
+	private final XingGeRedisProperties properties;
+	/**
+	 * 布隆过滤器，加载前判断数据是否可能存在
+	 */
+	@Nullable
+	private RedisBloomFilterRegistry bloomFilterRegistry;
+	/**
+	 * 正在加载的 key，同一 JVM 内同一个 key 只有一个线程执行加载
+	 */
+	@Getter(AccessLevel.NONE)
+	private final ConcurrentMap<String, CompletableFuture<Object>> loadingFutures = new ConcurrentHashMap<>(64);
+	/**
+	 * 当前线程正在加载的 key，加载器内再次读取同一个 key 时直接执行，避免等待自己
+	 */
+	@Getter(AccessLevel.NONE)
+	private final ThreadLocal<Set<String>> loadingKeys = ThreadLocal.withInitial(HashSet::new);
+	/**
+	 * 各 key 最近一次加载耗时（毫秒），用于提前刷新
+	 */
+	@Getter(AccessLevel.NONE)
+	private final LocalCacheStore<String, Long> loadCosts = new LocalCacheStore<>(10000, TimeUnit.HOURS.toMillis(1));
+	/**
+	 * 是否为集群模式，首次使用时检测
+	 */
+	@Getter(AccessLevel.NONE)
+	private volatile Boolean cluster;
+	/**
+	 * 单 key GET 合并，未开启时为 null
+	 */
+	@Nullable
+	@Getter(AccessLevel.NONE)
+	private final MultiGetBatcher multiGetBatcher;
+	/**
+	 * 热点 key 探测，未开启时为 null
+	 */
+	@Nullable
+	private final HotKeyDetector hotKeyDetector;
 
 	public RedisRepository(RedisTemplate<String, Object> redisTemplate,StringRedisTemplate stringRedisTemplate) {
+		this(redisTemplate, stringRedisTemplate, new XingGeRedisProperties());
+	}
+
+	public RedisRepository(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate, XingGeRedisProperties properties) {
 		this.redisTemplate = redisTemplate;
 		this.stringRedisTemplate = stringRedisTemplate;
+		this.properties = properties;
 		Assert.notNull(redisTemplate, "redisTemplate is null");
 		valueOps = redisTemplate.opsForValue();
 		hashOps = redisTemplate.opsForHash();
 		listOps = redisTemplate.opsForList();
 		setOps = redisTemplate.opsForSet();
 		zSetOps = redisTemplate.opsForZSet();
+		XingGeRedisProperties.AutoBatch autoBatch = properties.getAutoBatch();
+		multiGetBatcher = autoBatch.isEnabled()
+			? new MultiGetBatcher(valueOps, autoBatch.getWindow().toNanos(), autoBatch.getMaxBatchSize()) : null;
+		hotKeyDetector = properties.getHotKey().isEnabled() ? new HotKeyDetector(properties.getHotKey()) : null;
+	}
+
+	/**
+	 * 创建批量命令，所有命令在一次 pipeline 中执行
+	 *
+	 * @return RedisBatch
+	 */
+	public RedisBatch batch() {
+		return new RedisBatch(redisTemplate, this::evictLocal);
+	}
+
+	/**
+	 * 设置布隆过滤器
+	 *
+	 * @param bloomFilterRegistry 布隆过滤器注册表
+	 */
+	public void setBloomFilterRegistry(@Nullable RedisBloomFilterRegistry bloomFilterRegistry) {
+		this.bloomFilterRegistry = bloomFilterRegistry;
 	}
 
 	/**
@@ -58,7 +167,9 @@ public class RedisRepository {
 	 * 存放 key value 对到 redis。
 	 */
 	public void set(String key, Object value) {
+		evictLocal(key);
 		valueOps.set(key, value);
+		evictLocal(key);
 	}
 
 	/**
@@ -66,7 +177,9 @@ public class RedisRepository {
 	 * 如果 key 已经存在， SETEX 命令将覆写旧值。
 	 */
 	public void setEx(String key, Object value, Duration timeout) {
+		evictLocal(key);
 		valueOps.set(key, value, timeout);
+		evictLocal(key);
 	}
 
 	/**
@@ -74,7 +187,9 @@ public class RedisRepository {
 	 * 如果 key 已经存在， SETEX 命令将覆写旧值。
 	 */
 	public void setEx(String key, Object value, Long seconds) {
+		evictLocal(key);
 		valueOps.set(key, value, seconds, TimeUnit.SECONDS);
+		evictLocal(key);
 	}
 
 	/**
@@ -83,7 +198,38 @@ public class RedisRepository {
 	 */
 	@Nullable
 	public <T> T get(String key) {
-		return (T) valueOps.get(key);
+		return (T) fromStoreValue(rawGet(key));
+	}
+
+	/**
+	 * 读取原始值，热点 key 优先读取本地缓存，开启自动合并时并发的 GET 合并为 MGET
+	 */
+	@Nullable
+	private Object rawGet(String key) {
+		boolean hot = hotKeyDetector != null && hotKeyDetector.record(key);
+		if (hot && hotKeyDetector.isPromote()) {
+			Object value = hotKeyDetector.getLocal(key);
+			if (value != null) {
+				return value;
+			}
+		}
+		// 读取前记录版本号，读取期间本节点修改了该 key 时不放入本地缓存
+		long version = hot ? hotKeyDetector.localVersion(key) : 0L;
+		Object value = multiGetBatcher == null ? valueOps.get(key) : multiGetBatcher.get(key);
+		if (hot) {
+			hotKeyDetector.putLocal(key, value, version);
+		}
+		return value;
+	}
+
+	/**
+	 * 本节点修改 key 时移除热点本地缓存，写入 redis 前后各调用一次，
+	 * 配合版本号保证写入前开始的读取不会把旧值放回本地缓存
+	 */
+	private void evictLocal(String key) {
+		if (hotKeyDetector != null) {
+			hotKeyDetector.evictLocal(key);
+		}
 	}
 
 	/**
@@ -96,16 +242,11 @@ public class RedisRepository {
 	 */
 	@Nullable
 	public <T> T get(String key, Supplier<T> loader) {
-		T value = this.get(key);
+		Object value = rawGet(key);
 		if (value != null) {
-			return value;
+			return (T) fromStoreValue(value);
 		}
-		value = loader.get();
-		if (value == null) {
-			return null;
-		}
-		this.set(key, value);
-		return value;
+		return load(key, null, loader);
 	}
 
 	/**
@@ -114,7 +255,7 @@ public class RedisRepository {
 	 */
 	@Nullable
 	public <T> T get(CacheKey cacheKey) {
-		return (T) valueOps.get(cacheKey.getKey());
+		return get(cacheKey.getKey());
 	}
 
 	/**
@@ -128,24 +269,217 @@ public class RedisRepository {
 	@Nullable
 	public <T> T get(CacheKey cacheKey, Supplier<T> loader) {
 		String key = cacheKey.getKey();
-		T value = this.get(key);
-		if (value != null) {
-			return value;
+		Duration expire = cacheKey.getExpire();
+		if (expire == null || !properties.getLoader().isEarlyRefresh()) {
+			Object value = rawGet(key);
+			if (value != null) {
+				return (T) fromStoreValue(value);
+			}
+			return load(key, expire, loader);
 		}
-		value = loader.get();
+		// 同一次往返获取值及剩余过期时间
+		List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+			@Override
+			public Object execute(@NonNull RedisOperations operations) throws DataAccessException {
+				operations.opsForValue().get(key);
+				operations.getExpire(key, TimeUnit.MILLISECONDS);
+				return null;
+			}
+		});
+		Object value = results.get(0);
 		if (value == null) {
+			return load(key, expire, loader);
+		}
+		if (value instanceof NullValue) {
 			return null;
 		}
-		this.set(cacheKey, value);
+		Long ttlMillis = (Long) results.get(1);
+		if (ttlMillis != null && shouldRefreshEarly(key, ttlMillis)) {
+			T refreshed = singleFlight(key, () -> loadAndSet(key, expire, loader));
+			return refreshed != null ? refreshed : (T) value;
+		}
+		return (T) value;
+	}
+
+	/**
+	 * 缓存未命中时加载：同一 JVM 内同一个 key 只加载一次，开启分布式锁时集群内只加载一次
+	 *
+	 * @param key    缓存 key
+	 * @param expire 过期时间，为 null 时不过期
+	 * @param loader 加载器
+	 * @param <T>    泛型
+	 * @return 结果
+	 */
+	@Nullable
+	private <T> T load(String key, @Nullable Duration expire, Supplier<T> loader) {
+		// 布隆过滤器判断一定不存在的数据不再加载
+		if (bloomFilterRegistry != null && !bloomFilterRegistry.mightExist(key)) {
+			return null;
+		}
+		// 加载器内再次读取同一个 key，分布式锁已被自己持有，直接加载
+		if (loadingKeys.get().contains(key)) {
+			return loadAndSet(key, expire, loader);
+		}
+		return singleFlight(key, () -> {
+			if (!properties.getLoader().isDistributedLock()) {
+				return loadAndSet(key, expire, loader);
+			}
+			return loadWithLock(key, expire, loader);
+		});
+	}
+
+	/**
+	 * 使用分布式互斥锁加载，未获取到锁时等待持有者完成，超时后自行加载
+	 * <p>
+	 * 持有者加载完成后将锁替换为短时间的完成标记，等待方看到标记后读取缓存，缓存为空即加载结果为 null；
+	 * 锁消失且没有完成标记（持有者加载失败或锁超时）时等待方自行加载
+	 */
+	@Nullable
+	private <T> T loadWithLock(String key, @Nullable Duration expire, Supplier<T> loader) {
+		XingGeRedisProperties.Loader loaderProperties = properties.getLoader();
+		String lockKey = LOAD_LOCK_PREFIX + key;
+		String token = StringUtil.randomUUID();
+		long interval = Math.max(1L, loaderProperties.getLockWaitInterval().toMillis());
+		Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, loaderProperties.getLockTimeout());
+		if (Boolean.TRUE.equals(locked)) {
+			boolean completed = false;
+			try {
+				// 获取锁期间其他节点可能已写入
+				Object value = valueOps.get(key);
+				T result = value != null ? (T) fromStoreValue(value) : loadAndSet(key, expire, loader);
+				completed = true;
+				return result;
+			} finally {
+				if (completed) {
+					// 完成标记保留数个轮询间隔，足够等待方感知
+					String markerTtl = String.valueOf(Math.max(interval * 4, 200L));
+					stringRedisTemplate.execute(COMPLETE_SCRIPT, Collections.singletonList(lockKey), token, LOAD_DONE, markerTtl);
+				} else {
+					stringRedisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+				}
+			}
+		}
+		long deadline = System.currentTimeMillis() + loaderProperties.getLockTimeout().toMillis();
+		while (System.currentTimeMillis() < deadline) {
+			try {
+				Thread.sleep(interval);
+			} catch (InterruptedException e) {
+				throw Exceptions.unchecked(e);
+			}
+			String lockValue = stringRedisTemplate.opsForValue().get(lockKey);
+			if (lockValue != null && !LOAD_DONE.equals(lockValue)) {
+				continue;
+			}
+			Object value = valueOps.get(key);
+			if (value != null || LOAD_DONE.equals(lockValue)) {
+				return (T) fromStoreValue(value);
+			}
+			// 锁已释放但没有完成标记，持有者加载失败
+			break;
+		}
+		return loadAndSet(key, expire, loader);
+	}
+
+	/**
+	 * 执行加载并写入缓存，记录加载耗时
+	 */
+	@Nullable
+	private <T> T loadAndSet(String key, @Nullable Duration expire, Supplier<T> loader) {
+		long start = System.currentTimeMillis();
+		T value = loader.get();
+		loadCosts.put(key, System.currentTimeMillis() - start);
+		if (value == null) {
+			XingGeRedisProperties.Loader loaderProperties = properties.getLoader();
+			if (loaderProperties.isCacheNullValues()) {
+				Duration nullValueTtl = loaderProperties.getNullValueTtl();
+				this.setEx(key, NullValue.INSTANCE, expire != null && expire.compareTo(nullValueTtl) < 0 ? expire : nullValueTtl);
+			}
+			return null;
+		}
+		if (expire == null) {
+			this.set(key, value);
+		} else {
+			this.setEx(key, value, expire);
+		}
 		return value;
 	}
 
+	/**
+	 * 概率性提前刷新（XFetch）：越接近过期、加载越慢，提前刷新的概率越大，
+	 * 使集群内大约只有一次加载发生在过期之前
+	 *
+	 * @param key       缓存 key
+	 * @param ttlMillis 剩余过期时间
+	 * @return 是否需要刷新
+	 */
+	private boolean shouldRefreshEarly(String key, long ttlMillis) {
+		if (ttlMillis <= 0) {
+			return false;
+		}
+		Long cost = loadCosts.get(key);
+		if (cost == null || cost <= 0) {
+			return false;
+		}
+		double random = 1.0D - ThreadLocalRandom.current().nextDouble();
+		return -cost * properties.getLoader().getEarlyRefreshBeta() * Math.log(random) >= ttlMillis;
+	}
+
+	/**
+	 * 空值占位转换为 null
+	 *
+	 * @param value redis 中的值
+	 * @return 值
+	 */
+	@Nullable
+	private static Object fromStoreValue(@Nullable Object value) {
+		return value instanceof NullValue ? null : value;
+	}
+
+	/**
+	 * 同一个 key 的并发调用合并为一次执行，其他线程等待并共享结果；
+	 * 同一线程重入时直接执行，不等待自己
+	 */
+	@Nullable
+	private <T> T singleFlight(String key, Supplier<T> task) {
+		Set<String> keys = loadingKeys.get();
+		// 加载器内再次加载同一个 key 时等待的是自己，直接执行
+		if (keys.contains(key)) {
+			return task.get();
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = loadingFutures.putIfAbsent(key, future);
+		if (existing != null) {
+			try {
+				return (T) existing.join();
+			} catch (CompletionException e) {
+				throw Exceptions.unchecked(e.getCause());
+			}
+		}
+		keys.add(key);
+		try {
+			T value = task.get();
+			future.complete(value);
+			return value;
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			keys.remove(key);
+			loadingFutures.remove(key, future);
+		}
+	}
+
 	/**
 	 * 删除给定的一个 key
 	 * 不存在的 key 会被忽略。
 	 */
 	public Boolean del(String key) {
-		return redisTemplate.delete(key);
+		evictLocal(key);
+		try {
+			return redisTemplate.delete(key);
+		} finally {
+			evictLocal(key);
+		}
 	}
 
 	/**
@@ -153,7 +487,7 @@ public class RedisRepository {
 	 * 不存在的 key 会被忽略。
 	 */
 	public Boolean del(CacheKey key) {
-		return redisTemplate.delete(key.getKey());
+		return del(key.getKey());
 	}
 
 	/**
@@ -169,7 +503,12 @@ public class RedisRepository {
 	 * 不存在的 key 会被忽略。
 	 */
 	public Long del(Collection<String> keys) {
-		return redisTemplate.delete(keys);
+		keys.forEach(this::evictLocal);
+		try {
+			return redisTemplate.delete(keys);
+		} finally {
+			keys.forEach(this::evictLocal);
+		}
 	}
 
 	/**
@@ -179,11 +518,133 @@ public class RedisRepository {
 	 * KEYS h*llo 匹配 hllo 和 heeeeello 等。
 	 * KEYS h[ae]llo 匹配 hello 和 hallo ，但不匹配 hillo 。
 	 * 特殊符号用 \ 隔开
+	 * <p>
+	 * 注意：KEYS 会阻塞 redis，key 较多时请使用 {@link #scan(String, long)}
 	 */
 	public Set<String> keys(String pattern) {
 		return redisTemplate.keys(pattern);
 	}
 
+	/**
+	 * 使用 SCAN 游标迭代匹配的 key，按需向 redis 获取下一批，不会阻塞 redis。
+	 * 集群模式下自动遍历所有主节点，见 {@link #scanCluster(String, long)}。
+	 * <p>
+	 * 返回的 Stream 持有连接，使用完毕后必须关闭（try-with-resources）；
+	 * SCAN 可能返回重复的 key，调用方需能容忍重复。
+	 *
+	 * @param pattern 匹配模式
+	 * @param count   每次迭代的数量提示
+	 * @return key 流
+	 */
+	public Stream<String> scan(String pattern, long count) {
+		if (isCluster()) {
+			return scanCluster(pattern, count);
+		}
+		ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+		return toStream(stringRedisTemplate.scan(options));
+	}
+
+	/**
+	 * 集群模式下在每个主节点上使用 SCAN 游标迭代匹配的 key，节点依次遍历。
+	 * <p>
+	 * 返回的 Stream 持有连接，使用完毕后必须关闭（try-with-resources）。
+	 *
+	 * @param pattern 匹配模式
+	 * @param count   每次迭代的数量提示
+	 * @return key 流
+	 */
+	public Stream<String> scanCluster(String pattern, long count) {
+		RedisConnectionFactory connectionFactory = stringRedisTemplate.getRequiredConnectionFactory();
+		RedisClusterConnection connection = connectionFactory.getClusterConnection();
+		ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+		try {
+			List<RedisClusterNode> masters = new ArrayList<>();
+			for (RedisClusterNode node : connection.clusterGetNodes()) {
+				if (node.isMaster() && node.isConnected()) {
+					masters.add(node);
+				}
+			}
+			return masters.stream()
+				.flatMap(node -> toStream(connection.scan(node, options)).map(key -> new String(key, Charsets.UTF_8)))
+				.onClose(connection::close);
+		} catch (RuntimeException e) {
+			connection.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * 按模式删除 key：SCAN 迭代的同时按批次 UNLINK（异步释放内存），不会阻塞 redis。
+	 * 集群模式下遍历所有主节点，批次内的 key 由驱动按槽位拆分。
+	 *
+	 * @param pattern 匹配模式
+	 * @return 删除数量
+	 */
+	public long deleteByPattern(String pattern) {
+		return deleteByPattern(pattern, 500);
+	}
+
+	/**
+	 * 按模式删除 key：SCAN 迭代的同时按批次 UNLINK（异步释放内存），不会阻塞 redis。
+	 * 集群模式下遍历所有主节点，批次内的 key 由驱动按槽位拆分。
+	 *
+	 * @param pattern   匹配模式
+	 * @param batchSize 每批数量，同时作为 SCAN 的 count
+	 * @return 删除数量
+	 */
+	public long deleteByPattern(String pattern, int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be positive");
+		long deleted = 0;
+		List<String> batch = new ArrayList<>(batchSize);
+		try (Stream<String> keys = scan(pattern, batchSize)) {
+			Iterator<String> iterator = keys.iterator();
+			while (iterator.hasNext()) {
+				batch.add(iterator.next());
+				if (batch.size() >= batchSize) {
+					deleted += unlink(batch);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			deleted += unlink(batch);
+		}
+		return deleted;
+	}
+
+	private long unlink(List<String> keys) {
+		keys.forEach(this::evictLocal);
+		try {
+			Long count = stringRedisTemplate.unlink(keys);
+			return count == null ? 0 : count;
+		} finally {
+			keys.forEach(this::evictLocal);
+		}
+	}
+
+	/**
+	 * 是否为集群模式
+	 */
+	private boolean isCluster() {
+		Boolean isCluster = cluster;
+		if (isCluster == null) {
+			RedisConnectionFactory connectionFactory = stringRedisTemplate.getRequiredConnectionFactory();
+			RedisConnection connection = RedisConnectionUtils.getConnection(connectionFactory);
+			try {
+				isCluster = connection instanceof RedisClusterConnection;
+			} finally {
+				RedisConnectionUtils.releaseConnection(connection, connectionFactory);
+			}
+			cluster = isCluster;
+		}
+		return isCluster;
+	}
+
+	private static <E> Stream<E> toStream(Cursor<E> cursor) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+			.onClose(cursor::close);
+	}
+
 	/**
 	 * 同时设置一个或多个 key-value 对。
 	 * 如果某个给定 key 已经存在，那么 MSET 会用新值覆盖原来的旧值，如果这不是你所希望的效果，请考虑使用 MSETNX 命令：它只会在所有给定 key 都不存在的情况下进行设置操作。
@@ -212,7 +673,16 @@ public class RedisRepository {
 	 * 如果给定的 key 里面，有某个 key 不存在，那么这个 key 返回特殊值 nil 。因此，该命令永不失败。
 	 */
 	public List<Object> mGet(Collection<String> keys) {
-		return valueOps.multiGet(keys);
+		List<Object> values = valueOps.multiGet(keys);
+		if (values == null) {
+			return null;
+		}
+		// 空值占位转换为 null
+		List<Object> result = new ArrayList<>(values.size());
+		for (Object value : values) {
+			result.add(fromStoreValue(value));
+		}
+		return result;
 	}
 
 	/**
@@ -339,7 +809,12 @@ public class RedisRepository {
 	 * 当 key 存在但不是字符串类型时，返回一个错误。
 	 */
 	public <T> T getSet(String key, Object value) {
-		return (T) valueOps.getAndSet(key, value);
+		evictLocal(key);
+		try {
+			return (T) valueOps.getAndSet(key, value);
+		} finally {
+			evictLocal(key);
+		}
 	}
 
 	/**
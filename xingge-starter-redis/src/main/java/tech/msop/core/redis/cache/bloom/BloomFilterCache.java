@@ -0,0 +1,103 @@
+package tech.msop.core.redis.cache.bloom;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 使用布隆过滤器保护的缓存
+ * <p>
+ * 过滤器判断 key 一定不存在时直接返回 null 值（视为命中），不再调用被缓存的方法。
+ *
+ * @author ruozhuliufeng
+ */
+public class BloomFilterCache implements Cache {
+    private static final ValueWrapper ABSENT = new SimpleValueWrapper(null);
+    private final Cache cache;
+    private final RedisBloomFilter bloomFilter;
+
+    public BloomFilterCache(Cache cache, RedisBloomFilter bloomFilter) {
+        this.cache = cache;
+        this.bloomFilter = bloomFilter;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @NonNull
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        ValueWrapper wrapper = cache.get(key);
+        if (wrapper == null && !mightContain(key)) {
+            return ABSENT;
+        }
+        return wrapper;
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper wrapper = cache.get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        if (!mightContain(key)) {
+            return null;
+        }
+        return cache.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        cache.put(key, value);
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        return cache.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return cache.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return cache.invalidate();
+    }
+
+    private boolean mightContain(Object key) {
+        return bloomFilter.mightContain(String.valueOf(key));
+    }
+}
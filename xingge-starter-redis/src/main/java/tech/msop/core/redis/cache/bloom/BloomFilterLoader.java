@@ -0,0 +1,83 @@
+package tech.msop.core.redis.cache.bloom;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 布隆过滤器数据加载器
+ * <p>
+ * 注册为 Spring Bean 后自动创建对应的 {@link RedisBloomFilter}，启动时若 redis 中不存在则通过 {@link #load(Consumer)} 构建。
+ * 过滤器判断不存在的数据，{@link tech.msop.core.redis.cache.RedisRepository} 的加载方法及 Spring Cache 将直接返回 null，不再访问数据库。
+ * <p>
+ * 注意：新增数据时需调用 {@link RedisBloomFilter#put(String)}，否则新数据会被判断为不存在。
+ *
+ * <pre>
+ * {@code
+ * @Component
+ * public class UserBloomFilterLoader implements BloomFilterLoader {
+ *     public String getName() { return "user"; }
+ *     public String getKeyPrefix() { return "user:id:"; }
+ *     public List<String> getCacheNames() { return Collections.singletonList("user"); }
+ *     public void load(Consumer<String> consumer) { userMapper.selectAllIds().forEach(id -> consumer.accept(String.valueOf(id))); }
+ * }
+ * }
+ * </pre>
+ *
+ * @author ruozhuliufeng
+ */
+public interface BloomFilterLoader {
+
+    /**
+     * 过滤器名称
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 保护的 RedisRepository key 前缀，key 去掉前缀后的部分作为过滤器的值
+     *
+     * @return key 前缀，为 null 时不保护 RedisRepository
+     */
+    @Nullable
+    default String getKeyPrefix() {
+        return null;
+    }
+
+    /**
+     * 保护的 Spring Cache 名称（不含 #ttl），缓存 key 的字符串形式作为过滤器的值
+     *
+     * @return 缓存名称
+     */
+    default List<String> getCacheNames() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 预计数据量
+     *
+     * @return 数据量
+     */
+    default long getExpectedInsertions() {
+        return 1_000_000L;
+    }
+
+    /**
+     * 误判率
+     *
+     * @return 误判率
+     */
+    default double getFalsePositiveProbability() {
+        return 0.01D;
+    }
+
+    /**
+     * 加载全部存在的数据
+     *
+     * @param consumer 数据接收
+     */
+    void load(Consumer<String> consumer);
+}
@@ -0,0 +1,224 @@
+package tech.msop.core.redis.cache.bloom;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import tech.msop.core.tool.utils.Charsets;
+import tech.msop.core.tool.utils.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于 redis bitmap 的布隆过滤器
+ * <p>
+ * 判断存在时可能误判，判断不存在时一定不存在。每次判断或写入的 k 个 bit 在同一次 pipeline 中完成。
+ * <p>
+ * key 为 {@code xg:bloom:{name}}，重建时的临时 key 为 {@code xg:bloom:{name}:building:<uuid>}，
+ * 两者使用相同的 hash tag 位于同一槽位，集群模式下可以 RENAME。
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+public class RedisBloomFilter {
+    /**
+     * 过滤器 key 前缀
+     */
+    public static final String KEY_PREFIX = "xg:bloom:";
+    /**
+     * redis bitmap 最大长度
+     */
+    private static final long MAX_BITS = 1L << 32;
+    /**
+     * 构建时每批写入的数据量
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    @Getter
+    private final String name;
+    private final byte[] key;
+    @Getter
+    private final long numBits;
+    @Getter
+    private final int numHashFunctions;
+    /**
+     * 是否已构建，未构建完成时所有判断均返回存在，避免误拦截
+     */
+    private volatile boolean ready;
+
+    public RedisBloomFilter(StringRedisTemplate redisTemplate, String name, long expectedInsertions, double fpp) {
+        this.redisTemplate = redisTemplate;
+        this.name = name;
+        this.key = (KEY_PREFIX + "{" + name + "}").getBytes(Charsets.UTF_8);
+        long n = Math.max(1L, expectedInsertions);
+        long bits = (long) (-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64L, Math.min(MAX_BITS, bits));
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    /**
+     * 是否可能存在
+     *
+     * @param value 值
+     * @return false 表示一定不存在
+     */
+    public boolean mightContain(String value) {
+        if (!ready) {
+            return true;
+        }
+        long[] offsets = offsets(value);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (long offset : offsets) {
+                connection.stringCommands().getBit(key, offset);
+            }
+            return null;
+        });
+        for (Object result : results) {
+            if (!Boolean.TRUE.equals(result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 添加值
+     *
+     * @param value 值
+     */
+    public void put(String value) {
+        long[] offsets = offsets(value);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            setBits(connection.stringCommands(), key, offsets);
+            return null;
+        });
+    }
+
+    /**
+     * 批量添加值
+     *
+     * @param values 值
+     */
+    public void putAll(Collection<String> values) {
+        putAll(key, values);
+    }
+
+    /**
+     * 重新构建：先写入临时 key，完成后替换，构建期间不影响判断
+     *
+     * @param loader 数据加载
+     */
+    public void rebuild(Consumer<Consumer<String>> loader) {
+        byte[] buildKey = (KEY_PREFIX + "{" + name + "}:building:" + StringUtil.randomUUID()).getBytes(Charsets.UTF_8);
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        long[] count = {0L};
+        try {
+            loader.accept(value -> {
+                batch.add(value);
+                count[0]++;
+                if (batch.size() >= BATCH_SIZE) {
+                    putAll(buildKey, batch);
+                    batch.clear();
+                }
+            });
+            putAll(buildKey, batch);
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                if (count[0] == 0) {
+                    connection.keyCommands().del(key);
+                } else {
+                    connection.keyCommands().rename(buildKey, key);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            redisTemplate.execute((RedisCallback<Object>) connection -> connection.keyCommands().del(buildKey));
+            throw e;
+        }
+        ready = true;
+        log.info("bloom filter [{}] rebuilt, size: {}, bits: {}, hash functions: {}", name, count[0], numBits, numHashFunctions);
+    }
+
+    /**
+     * redis 中是否已存在该过滤器
+     *
+     * @return 是否存在
+     */
+    public boolean exists() {
+        Boolean exists = redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.keyCommands().exists(key));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * 标记为可用，用于 redis 中已存在构建好的过滤器
+     */
+    public void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * 是否可用
+     *
+     * @return 是否可用
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void putAll(byte[] targetKey, Collection<String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            for (String value : values) {
+                setBits(commands, targetKey, offsets(value));
+            }
+            return null;
+        });
+    }
+
+    private static void setBits(RedisStringCommands commands, byte[] targetKey, long[] offsets) {
+        for (long offset : offsets) {
+            commands.setBit(targetKey, offset, true);
+        }
+    }
+
+    /**
+     * 双重哈希计算 k 个 bit 位置
+     */
+    private long[] offsets(String value) {
+        byte[] bytes = value.getBytes(Charsets.UTF_8);
+        long hash1 = fmix64(fnv1a64(bytes));
+        long hash2 = fmix64(hash1 ^ 0x9E3779B97F4A7C15L);
+        long[] offsets = new long[numHashFunctions];
+        long combined = hash1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            offsets[i] = (combined & Long.MAX_VALUE) % numBits;
+            combined += hash2;
+        }
+        return offsets;
+    }
+
+    private static long fnv1a64(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
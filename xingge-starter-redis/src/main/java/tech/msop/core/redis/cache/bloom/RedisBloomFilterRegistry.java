@@ -0,0 +1,139 @@
+package tech.msop.core.redis.cache.bloom;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+import tech.msop.core.tool.utils.StringUtil;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 布隆过滤器注册表
+ * <p>
+ * 根据 {@link BloomFilterLoader} 创建过滤器，并按 key 前缀、缓存名建立索引。
+ * 启动完成后在后台线程构建 redis 中尚不存在的过滤器，构建完成前过滤器不拦截任何请求。
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+public class RedisBloomFilterRegistry implements SmartInitializingSingleton {
+    private final Map<String, RedisBloomFilter> filters = new LinkedHashMap<>();
+    private final Map<String, BloomFilterLoader> loaders = new LinkedHashMap<>();
+    private final Map<String, RedisBloomFilter> keyPrefixFilters = new LinkedHashMap<>();
+    private final Map<String, RedisBloomFilter> cacheNameFilters = new LinkedHashMap<>();
+
+    public RedisBloomFilterRegistry(StringRedisTemplate redisTemplate, List<BloomFilterLoader> bloomFilterLoaders) {
+        for (BloomFilterLoader loader : bloomFilterLoaders) {
+            RedisBloomFilter filter = new RedisBloomFilter(redisTemplate, loader.getName(),
+                    loader.getExpectedInsertions(), loader.getFalsePositiveProbability());
+            filters.put(loader.getName(), filter);
+            loaders.put(loader.getName(), loader);
+            if (StringUtil.isNotBlank(loader.getKeyPrefix())) {
+                keyPrefixFilters.put(loader.getKeyPrefix(), filter);
+            }
+            for (String cacheName : loader.getCacheNames()) {
+                cacheNameFilters.put(cacheName, filter);
+            }
+        }
+    }
+
+    /**
+     * 是否没有注册任何过滤器
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    /**
+     * 按名称获取过滤器
+     *
+     * @param name 名称
+     * @return 过滤器
+     */
+    @Nullable
+    public RedisBloomFilter getFilter(String name) {
+        return filters.get(name);
+    }
+
+    /**
+     * 按缓存名（不含 #ttl）获取过滤器
+     *
+     * @param cacheName 缓存名
+     * @return 过滤器
+     */
+    @Nullable
+    public RedisBloomFilter getFilterByCacheName(String cacheName) {
+        return cacheNameFilters.get(cacheName);
+    }
+
+    /**
+     * redis key 对应的数据是否可能存在，未配置过滤器的 key 始终返回 true
+     *
+     * @param key redis key
+     * @return false 表示一定不存在
+     */
+    public boolean mightExist(String key) {
+        if (keyPrefixFilters.isEmpty()) {
+            return true;
+        }
+        for (Map.Entry<String, RedisBloomFilter> entry : keyPrefixFilters.entrySet()) {
+            String prefix = entry.getKey();
+            if (key.startsWith(prefix)) {
+                return entry.getValue().mightContain(key.substring(prefix.length()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 使用加载器重新构建过滤器，可用于定时刷新
+     *
+     * @param name 名称
+     */
+    public void rebuild(String name) {
+        RedisBloomFilter filter = filters.get(name);
+        BloomFilterLoader loader = loaders.get(name);
+        if (filter != null && loader != null) {
+            filter.rebuild(loader::load);
+        }
+    }
+
+    /**
+     * 所有过滤器
+     *
+     * @return 名称 -&gt; 过滤器
+     */
+    public Map<String, RedisBloomFilter> getFilters() {
+        return Collections.unmodifiableMap(filters);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (filters.isEmpty()) {
+            return;
+        }
+        Thread thread = new Thread(this::initialize, "xg-bloom-filter-init");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void initialize() {
+        filters.forEach((name, filter) -> {
+            try {
+                if (filter.exists()) {
+                    filter.markReady();
+                } else {
+                    rebuild(name);
+                }
+            } catch (Exception e) {
+                log.error("bloom filter [{}] initialize failed, filter disabled", name, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package tech.msop.core.redis.cache.hotkey;
+
+import tech.msop.core.tool.utils.Charsets;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch，固定内存估算 key 的访问次数，只会高估不会低估
+ *
+ * @author ruozhuliufeng
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth 哈希函数个数，越大误判率越低
+     * @param width 每行计数器个数，越大误差越小，取 2 的幂
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = Math.max(1, depth);
+        this.width = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+        this.counters = new AtomicLongArray(this.depth * this.width);
+    }
+
+    /**
+     * 计数加一
+     *
+     * @param key key
+     * @return 加一后的估算值
+     */
+    public long add(String key) {
+        long hash = hash(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int index = i * width + ((hash1 + i * hash2) & (width - 1));
+            min = Math.min(min, counters.incrementAndGet(index));
+        }
+        return min;
+    }
+
+    /**
+     * 估算访问次数
+     *
+     * @param key key
+     * @return 估算值
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int index = i * width + ((hash1 + i * hash2) & (width - 1));
+            min = Math.min(min, counters.get(index));
+        }
+        return min;
+    }
+
+    /**
+     * 清空计数
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0L);
+        }
+    }
+
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(Charsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,26 @@
+package tech.msop.core.redis.cache.hotkey;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * 热点 key
+ *
+ * @author ruozhuliufeng
+ */
+@Getter
+@AllArgsConstructor
+public class HotKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * redis key
+     */
+    private final String key;
+    /**
+     * 统计窗口内的估算访问次数
+     */
+    private final long count;
+}
@@ -0,0 +1,227 @@
+package tech.msop.core.redis.cache.hotkey;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import tech.msop.core.redis.cache.near.LocalCacheStore;
+import tech.msop.core.redis.config.XingGeRedisProperties;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * 热点 key 探测
+ * <p>
+ * 按采样率将 key 的访问记录到 {@link CountMinSketch}，估算值达到阈值的 key 成为热点（最多 topK 个）。
+ * 每个统计窗口结束时按上一窗口的访问量重新计算热点，访问量下降的 key 被降级。
+ * 开启本地提升时，热点 key 的值在本地缓存较短时间，降级时移除。
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+public class HotKeyDetector {
+    private static final int LOCAL_VERSION_STRIPES = 64;
+    private final XingGeRedisProperties.HotKey properties;
+    private final long windowMillis;
+    private final CountMinSketch sketch;
+    /**
+     * 当前窗口内达到阈值的 key
+     */
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    /**
+     * 当前热点 key
+     */
+    private volatile Map<String, Long> hotKeys = new ConcurrentHashMap<>();
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    /**
+     * 热点 key 的本地缓存，未开启本地提升时为 null
+     */
+    @Nullable
+    private final LocalCacheStore<String, Object> localCache;
+    /**
+     * 本地缓存版本号，按 key 的哈希分段，key 被修改时递增；读取期间版本变化的值不放入本地缓存
+     */
+    private final AtomicLongArray localVersions = new AtomicLongArray(LOCAL_VERSION_STRIPES);
+
+    public HotKeyDetector(XingGeRedisProperties.HotKey properties) {
+        this.properties = properties;
+        this.windowMillis = Math.max(1L, properties.getWindow().toMillis());
+        this.sketch = new CountMinSketch(properties.getSketchDepth(), properties.getSketchWidth());
+        this.localCache = properties.isPromote()
+            ? new LocalCacheStore<>(Math.max(1, properties.getTopK()), properties.getLocalTtl().toMillis()) : null;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param key redis key
+     * @return 是否为热点 key
+     */
+    public boolean record(String key) {
+        rotateIfNecessary();
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate < 1.0D && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return hotKeys.containsKey(key);
+        }
+        long count = (long) (sketch.add(key) / sampleRate);
+        if (count < properties.getThreshold()) {
+            return hotKeys.containsKey(key);
+        }
+        admitCandidate(key, count);
+        Map<String, Long> current = hotKeys;
+        if (current.containsKey(key)) {
+            current.put(key, count);
+            return true;
+        }
+        // 窗口内达到阈值立即提升，不必等到窗口结束
+        if (current.size() < properties.getTopK()) {
+            current.put(key, count);
+            log.debug("redis hot key detected: {}, count: {}", key, count);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 记录候选热点，候选已满时淘汰访问量最小的候选，保证窗口后期变热的 key 也能进入候选
+     */
+    private void admitCandidate(String key, long count) {
+        if (candidates.containsKey(key) || candidates.size() < properties.getTopK() * 4) {
+            candidates.put(key, count);
+            return;
+        }
+        Map.Entry<String, Long> min = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (min == null || entry.getValue() < min.getValue()) {
+                min = entry;
+            }
+        }
+        if (min != null && count > min.getValue() && candidates.remove(min.getKey(), min.getValue())) {
+            candidates.put(key, count);
+        }
+    }
+
+    /**
+     * 是否为热点 key
+     *
+     * @param key redis key
+     * @return 是否为热点 key
+     */
+    public boolean isHot(String key) {
+        return hotKeys.containsKey(key);
+    }
+
+    /**
+     * 当前热点 key，按访问次数倒序
+     *
+     * @return 热点 key
+     */
+    public List<HotKey> getHotKeys() {
+        rotateIfNecessary();
+        return hotKeys.entrySet().stream()
+            .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparingLong(HotKey::getCount).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 获取本地提升的值
+     *
+     * @param key redis key
+     * @return 值，未缓存时为 null
+     */
+    @Nullable
+    public Object getLocal(String key) {
+        return localCache == null ? null : localCache.get(key);
+    }
+
+    /**
+     * 获取 key 的本地缓存版本号，需在读取 redis 之前获取
+     *
+     * @param key redis key
+     * @return 版本号
+     */
+    public long localVersion(String key) {
+        return localVersions.get(versionStripe(key));
+    }
+
+    /**
+     * 热点 key 的值放入本地缓存，读取期间 key 被修改（版本号变化）时不放入
+     *
+     * @param key     redis key
+     * @param value   值
+     * @param version 读取 redis 之前获取的版本号
+     */
+    public void putLocal(String key, @Nullable Object value, long version) {
+        if (localCache == null || value == null || !hotKeys.containsKey(key)) {
+            return;
+        }
+        int stripe = versionStripe(key);
+        if (localVersions.get(stripe) != version) {
+            return;
+        }
+        localCache.put(key, value);
+        // 放入期间并发的修改可能已执行完移除，再次检查版本号
+        if (localVersions.get(stripe) != version) {
+            localCache.remove(key);
+        }
+    }
+
+    /**
+     * 移除本地缓存，key 被修改时在写入 redis 前后各调用一次
+     *
+     * @param key redis key
+     */
+    public void evictLocal(String key) {
+        if (localCache != null) {
+            localVersions.incrementAndGet(versionStripe(key));
+            localCache.remove(key);
+        }
+    }
+
+    private static int versionStripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % LOCAL_VERSION_STRIPES;
+    }
+
+    /**
+     * 是否开启本地提升
+     *
+     * @return 是否开启
+     */
+    public boolean isPromote() {
+        return localCache != null;
+    }
+
+    /**
+     * 窗口结束时按上一窗口的访问量重新计算热点，降级的 key 移除本地缓存
+     */
+    private void rotateIfNecessary() {
+        long start = windowStart.get();
+        long now = System.currentTimeMillis();
+        if (now - start < windowMillis || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(candidates.entrySet());
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        Map<String, Long> newHotKeys = new ConcurrentHashMap<>();
+        for (int i = 0; i < top.size() && i < properties.getTopK(); i++) {
+            newHotKeys.put(top.get(i).getKey(), top.get(i).getValue());
+        }
+        Map<String, Long> oldHotKeys = hotKeys;
+        hotKeys = newHotKeys;
+        candidates.clear();
+        sketch.clear();
+        for (String key : oldHotKeys.keySet()) {
+            if (!newHotKeys.containsKey(key)) {
+                evictLocal(key);
+                log.debug("redis hot key cooled down: {}", key);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package tech.msop.core.redis.cache.hotkey;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * 热点 key 查询接口，需显式开启，生产环境注意访问控制
+ * <p>
+ * 不使用 @RestController，避免被组件扫描后无条件注册
+ *
+ * @author ruozhuliufeng
+ */
+@ResponseBody
+@RequestMapping
+@RequiredArgsConstructor
+public class HotKeyEndpoint {
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 当前热点 key
+     *
+     * @return 热点 key，按访问次数倒序
+     */
+    @GetMapping("${xg.redis.hot-key.endpoint-path:/xg/redis/hot-keys}")
+    public List<HotKey> hotKeys() {
+        return hotKeyDetector.getHotKeys();
+    }
+}
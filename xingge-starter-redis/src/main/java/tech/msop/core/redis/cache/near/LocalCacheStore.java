@@ -0,0 +1,163 @@
+package tech.msop.core.redis.cache.near;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 进程内缓存，按数量和过期时间淘汰
+ * <p>
+ * 超过容量时先清理过期数据，仍超出时按遍历顺序淘汰至容量的 90%，
+ * 淘汰由单个线程执行，读写均不加锁。
+ *
+ * @param <K> key
+ * @param <V> value
+ * @author ruozhuliufeng
+ */
+public class LocalCacheStore<K, V> {
+    private final ConcurrentMap<K, Entry<V>> store;
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final int maxSize;
+    private final long ttlMillis;
+
+    /**
+     * @param maxSize   最大数量
+     * @param ttlMillis 默认过期时间，毫秒
+     */
+    public LocalCacheStore(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.store = new ConcurrentHashMap<>(Math.min(this.maxSize, 1024));
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param key key
+     * @return 未命中或已过期时返回 null
+     */
+    @Nullable
+    public V get(K key) {
+        Entry<V> entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 使用默认过期时间设置缓存
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    /**
+     * 设置缓存
+     *
+     * @param key       key
+     * @param value     value
+     * @param ttlMillis 过期时间，毫秒
+     */
+    public void put(K key, V value, long ttlMillis) {
+        store.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        if (store.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 获取缓存，未命中或已过期时使用默认过期时间原子地放入新值，并发调用只有一个值生效
+     *
+     * @param key             key
+     * @param mappingFunction 创建新值
+     * @return 缓存中的值
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = store.compute(key, (k, existing) -> existing == null || existing.isExpired(now)
+            ? new Entry<>(mappingFunction.apply(k), now + ttlMillis) : existing);
+        if (store.size() > maxSize) {
+            evict();
+        }
+        return entry.value;
+    }
+
+    /**
+     * 删除缓存
+     *
+     * @param key key
+     */
+    public void remove(K key) {
+        store.remove(key);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    /**
+     * 当前数量，包含尚未清理的过期数据
+     *
+     * @return 数量
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 默认过期时间
+     *
+     * @return 毫秒
+     */
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            store.entrySet().removeIf(e -> e.getValue().isExpired(now));
+            int target = maxSize - maxSize / 10;
+            Iterator<Map.Entry<K, Entry<V>>> iterator = store.entrySet().iterator();
+            while (store.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAt <= now;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package tech.msop.core.redis.cache.near;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 二级缓存：进程内缓存 + redis 缓存
+ * <p>
+ * 读取时先查本地，未命中再查 redis 并回填本地；写入和删除只操作 redis，
+ * 同时删除本地数据并广播给其他节点，下次读取时再从 redis 加载。
+ * <p>
+ * 本地缓存按 key 的哈希分段记录版本号，删除本地数据时递增；从 redis 读取期间版本变化的值不回填本地，
+ * 避免并发的写入、删除或其他节点的失效通知之后又把旧值放回本地。
+ * <p>
+ * 注意：本地命中时返回的是同一个对象实例，调用方不应修改缓存中的对象。
+ *
+ * @author ruozhuliufeng
+ */
+public class NearCache implements Cache {
+    private static final int LOCAL_VERSION_STRIPES = 64;
+    private final Cache redisCache;
+    private final LocalCacheStore<Object, ValueWrapper> localStore;
+    private final NearCacheManager cacheManager;
+    private final NearCacheStats stats = new NearCacheStats();
+    private final AtomicLongArray localVersions = new AtomicLongArray(LOCAL_VERSION_STRIPES);
+
+    public NearCache(Cache redisCache, LocalCacheStore<Object, ValueWrapper> localStore, NearCacheManager cacheManager) {
+        this.redisCache = redisCache;
+        this.localStore = localStore;
+        this.cacheManager = cacheManager;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @NonNull
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        ValueWrapper wrapper = localStore.get(key);
+        if (wrapper != null) {
+            stats.recordLocalHit();
+            return wrapper;
+        }
+        long version = localVersion(key);
+        wrapper = redisCache.get(key);
+        if (wrapper != null) {
+            stats.recordRemoteHit();
+            putLocal(key, wrapper, version);
+        } else {
+            stats.recordMiss();
+        }
+        return wrapper;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper wrapper = localStore.get(key);
+        if (wrapper != null) {
+            stats.recordLocalHit();
+            return (T) wrapper.get();
+        }
+        long version = localVersion(key);
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        T value = redisCache.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        if (loaded.get()) {
+            stats.recordMiss();
+            cacheManager.publish(getName(), key);
+        } else {
+            stats.recordRemoteHit();
+        }
+        putLocal(key, new SimpleValueWrapper(value), version);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        redisCache.put(key, value);
+        removeLocal(key);
+        cacheManager.publish(getName(), key);
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        removeLocal(key);
+        if (existing == null) {
+            cacheManager.publish(getName(), key);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        redisCache.evict(key);
+        removeLocal(key);
+        cacheManager.publish(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        removeLocal(key);
+        cacheManager.publish(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        clearLocal();
+        cacheManager.publish(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        clearLocal();
+        cacheManager.publish(getName(), null);
+        return invalidated;
+    }
+
+    /**
+     * 删除本地缓存，收到其他节点的失效通知时调用
+     *
+     * @param key 缓存 key，为 null 时清空
+     */
+    void evictLocal(@Nullable Object key) {
+        if (key == null) {
+            clearLocal();
+        } else {
+            removeLocal(key);
+        }
+    }
+
+    private long localVersion(Object key) {
+        return localVersions.get(versionStripe(key));
+    }
+
+    /**
+     * 回填本地缓存，读取 redis 期间本地数据被删除（版本号变化）时不回填
+     */
+    private void putLocal(Object key, ValueWrapper wrapper, long version) {
+        int stripe = versionStripe(key);
+        if (localVersions.get(stripe) != version) {
+            return;
+        }
+        localStore.put(key, wrapper);
+        // 放入期间并发的删除可能已执行完，再次检查版本号
+        if (localVersions.get(stripe) != version) {
+            localStore.remove(key);
+        }
+    }
+
+    private void removeLocal(Object key) {
+        localVersions.incrementAndGet(versionStripe(key));
+        localStore.remove(key);
+    }
+
+    private void clearLocal() {
+        for (int i = 0; i < LOCAL_VERSION_STRIPES; i++) {
+            localVersions.incrementAndGet(i);
+        }
+        localStore.clear();
+    }
+
+    private static int versionStripe(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % LOCAL_VERSION_STRIPES;
+    }
+
+    /**
+     * 命中统计
+     *
+     * @return 统计
+     */
+    public NearCacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * 本地缓存数量
+     *
+     * @return 数量
+     */
+    public int getLocalSize() {
+        return localStore.size();
+    }
+}
@@ -0,0 +1,139 @@
+package tech.msop.core.redis.cache.near;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import tech.msop.core.redis.config.RedisAutoCacheManager;
+import tech.msop.core.redis.config.XingGeRedisProperties;
+import tech.msop.core.tool.utils.Charsets;
+import tech.msop.core.tool.utils.StringUtil;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 二级缓存管理器
+ * <p>
+ * 在 {@link RedisAutoCacheManager} 创建的 redis 缓存（保留 name#ttl 约定）之前增加进程内缓存，
+ * 缓存变更通过 redis 频道广播，其他节点收到后删除本地数据。
+ *
+ * @author ruozhuliufeng
+ */
+@Slf4j
+public class NearCacheManager extends RedisAutoCacheManager implements MessageListener {
+    /**
+     * 节点标识
+     */
+    private final String nodeId = StringUtil.randomUUID();
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisSerializer<Object> messageSerializer;
+    private final XingGeRedisProperties.NearCache properties;
+    private final byte[] channel;
+    private final ConcurrentMap<String, NearCache> nearCaches = new ConcurrentHashMap<>(16);
+
+    public NearCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                            Map<String, RedisCacheConfiguration> initialCacheConfigurations, boolean allowInFlightCacheCreation,
+                            RedisConnectionFactory connectionFactory, RedisSerializer<Object> messageSerializer,
+                            XingGeRedisProperties.NearCache properties) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, allowInFlightCacheCreation);
+        this.connectionFactory = connectionFactory;
+        this.messageSerializer = messageSerializer;
+        this.properties = properties;
+        this.channel = properties.getChannel().getBytes(Charsets.UTF_8);
+    }
+
+    @NonNull
+    @Override
+    protected Cache decorateCache(@NonNull Cache cache) {
+        Cache decorated = super.decorateCache(cache);
+        if (!isNearCache(cache.getName())) {
+            return decorated;
+        }
+        NearCache nearCache = new NearCache(decorated, new LocalCacheStore<>(properties.getMaxSize(), localTtl(cache).toMillis()), this);
+        nearCaches.put(cache.getName(), nearCache);
+        return nearCache;
+    }
+
+    /**
+     * 本地缓存过期时间，不超过 redis 缓存的过期时间
+     */
+    private Duration localTtl(Cache cache) {
+        Duration ttl = properties.getTtl();
+        if (cache instanceof RedisCache) {
+            Duration redisTtl = ((RedisCache) cache).getCacheConfiguration().getTtl();
+            if (!redisTtl.isZero() && !redisTtl.isNegative() && redisTtl.compareTo(ttl) < 0) {
+                return redisTtl;
+            }
+        }
+        return ttl;
+    }
+
+    private boolean isNearCache(String cacheName) {
+        if (properties.getCacheNames().isEmpty()) {
+            return true;
+        }
+        return properties.getCacheNames().contains(getBaseName(cacheName));
+    }
+
+    /**
+     * 广播缓存失效
+     *
+     * @param cacheName 缓存名
+     * @param key       缓存 key，为 null 时清空整个缓存
+     */
+    void publish(String cacheName, @Nullable Object key) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            byte[] body = messageSerializer.serialize(new NearCacheMessage(nodeId, cacheName, key));
+            connection.publish(channel, body);
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖本地过期时间兜底
+            log.warn("near cache invalidation publish failed, cache: {}, key: {}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+        Object body;
+        try {
+            body = messageSerializer.deserialize(message.getBody());
+        } catch (Exception e) {
+            log.warn("near cache invalidation message deserialize failed", e);
+            return;
+        }
+        if (!(body instanceof NearCacheMessage)) {
+            return;
+        }
+        NearCacheMessage cacheMessage = (NearCacheMessage) body;
+        if (nodeId.equals(cacheMessage.getNodeId())) {
+            return;
+        }
+        NearCache nearCache = nearCaches.get(cacheMessage.getCacheName());
+        if (nearCache != null) {
+            nearCache.evictLocal(cacheMessage.getKey());
+        }
+    }
+
+    /**
+     * 各缓存的命中统计
+     *
+     * @return 缓存名 -&gt; 统计
+     */
+    public Map<String, NearCacheStats> getStatistics() {
+        Map<String, NearCacheStats> statistics = new LinkedHashMap<>(nearCaches.size());
+        nearCaches.forEach((name, cache) -> statistics.put(name, cache.getStats()));
+        return Collections.unmodifiableMap(statistics);
+    }
+}
@@ -0,0 +1,32 @@
+package tech.msop.core.redis.cache.near;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 二级缓存失效通知
+ *
+ * @author ruozhuliufeng
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearCacheMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 发送节点，节点忽略自身发送的消息
+     */
+    private String nodeId;
+    /**
+     * 缓存名
+     */
+    private String cacheName;
+    /**
+     * 缓存 key，为 null 时清空整个缓存
+     */
+    private Object key;
+}
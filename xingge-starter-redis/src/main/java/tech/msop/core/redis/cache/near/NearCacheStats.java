@@ -0,0 +1,88 @@
+package tech.msop.core.redis.cache.near;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 二级缓存命中统计
+ *
+ * @author ruozhuliufeng
+ */
+public class NearCacheStats {
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void recordLocalHit() {
+        localHits.increment();
+    }
+
+    void recordRemoteHit() {
+        remoteHits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * 本地缓存命中次数，即节省的 redis 访问次数
+     *
+     * @return 次数
+     */
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    /**
+     * 本地未命中、redis 命中次数
+     *
+     * @return 次数
+     */
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    /**
+     * 两级均未命中次数
+     *
+     * @return 次数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 总请求次数
+     *
+     * @return 次数
+     */
+    public long getRequests() {
+        return getLocalHits() + getRemoteHits() + getMisses();
+    }
+
+    /**
+     * 本地命中率
+     *
+     * @return 命中率
+     */
+    public double getLocalHitRatio() {
+        long requests = getRequests();
+        return requests == 0 ? 0D : (double) getLocalHits() / requests;
+    }
+
+    /**
+     * redis 命中率（以本地未命中的请求为基数）
+     *
+     * @return 命中率
+     */
+    public double getRemoteHitRatio() {
+        long remoteRequests = getRemoteHits() + getMisses();
+        return remoteRequests == 0 ? 0D : (double) getRemoteHits() / remoteRequests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NearCacheStats(requests=%d, localHits=%d, remoteHits=%d, misses=%d, localHitRatio=%.4f, remoteHitRatio=%.4f)",
+                getRequests(), getLocalHits(), getRemoteHits(), getMisses(), getLocalHitRatio(), getRemoteHitRatio());
+    }
+}
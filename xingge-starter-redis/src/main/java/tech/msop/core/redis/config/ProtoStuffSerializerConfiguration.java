@@ -26,7 +26,8 @@ public class ProtoStuffSerializerConfiguration implements XingGeRedisSerializerC
     @Override
     public RedisSerializer<Object> redisSerializer(XingGeRedisProperties properties) {
         if (XingGeRedisProperties.SerializerType.ProtoStuff == properties.getSerializerType()){
-            return new ProtostuffSerializer();
+            XingGeRedisProperties.Protostuff protostuff = properties.getProtostuff();
+            return new ProtostuffSerializer(protostuff.getCompressThreshold(), protostuff.isPlainHeader());
         }
         return defaultRedisSerializer(properties);
     }
@@ -3,6 +3,7 @@ package tech.msop.core.redis.config;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
@@ -10,10 +11,13 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.scripting.support.ResourceScriptSource;
+import tech.msop.core.redis.ratelimiter.RateLimiterAlgorithm;
 import tech.msop.core.redis.ratelimiter.RedisRateLimiterAspect;
 import tech.msop.core.redis.ratelimiter.RedisRateLimiterClient;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 基于Redis 的分布式限流自动配置
@@ -22,21 +26,25 @@ import java.util.List;
  */
 @AutoConfiguration
 @ConditionalOnProperty(value = "xg.redis.rate-limiter.enabled",havingValue = "true")
+@EnableConfigurationProperties(XingGeRedisProperties.class)
 public class RateLimiterAutoConfiguration {
 
     @SuppressWarnings("unchecked")
-    private RedisScript<List<Long>> redisRateLimiterScipt(){
+    private static RedisScript<List<Long>> redisRateLimiterScipt(RateLimiterAlgorithm algorithm){
         DefaultRedisScript redisScript = new DefaultRedisScript();
-        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource("META-INF/scripts/ms_rate_limiter.lua")));
+        redisScript.setScriptSource(new ResourceScriptSource(new ClassPathResource(algorithm.getScriptPath())));
         redisScript.setResultType(List.class);
         return redisScript;
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public RedisRateLimiterClient redisRateLimiter(StringRedisTemplate redisTemplate, Environment environment){
-        RedisScript<List<Long>> redisScript = redisRateLimiterScipt();
-        return new RedisRateLimiterClient(redisTemplate,redisScript,environment);
+    public RedisRateLimiterClient redisRateLimiter(StringRedisTemplate redisTemplate, Environment environment, XingGeRedisProperties properties){
+        Map<RateLimiterAlgorithm, RedisScript<List<Long>>> scripts = new EnumMap<>(RateLimiterAlgorithm.class);
+        for (RateLimiterAlgorithm algorithm : RateLimiterAlgorithm.values()) {
+            scripts.put(algorithm, redisRateLimiterScipt(algorithm));
+        }
+        return new RedisRateLimiterClient(redisTemplate,scripts,environment,properties.getRateLimiter().getLease());
     }
 
     @Bean
@@ -1,12 +1,16 @@
 package tech.msop.core.redis.config;
 
 import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import tech.msop.core.redis.cache.bloom.BloomFilterCache;
+import tech.msop.core.redis.cache.bloom.RedisBloomFilter;
+import tech.msop.core.redis.cache.bloom.RedisBloomFilterRegistry;
 import tech.msop.core.tool.constant.StringConstant;
 import tech.msop.core.tool.utils.StringUtil;
 
@@ -20,6 +24,9 @@ import java.util.Map;
  * @author ruozhuliufeng
  */
 public class RedisAutoCacheManager extends RedisCacheManager {
+    @Nullable
+    private RedisBloomFilterRegistry bloomFilterRegistry;
+
     public RedisAutoCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration, Map<String, RedisCacheConfiguration> initialCacheConfigurations, boolean allowInFlightCacheCreation) {
         super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, allowInFlightCacheCreation);
     }
@@ -27,7 +34,7 @@ public class RedisAutoCacheManager extends RedisCacheManager {
     @NonNull
     @Override
     protected RedisCache createRedisCache(@NonNull String name, @Nullable RedisCacheConfiguration cacheConfig) {
-        if (StringUtil.isNotBlank(name) || !name.contains(StringConstant.HASH)) {
+        if (StringUtil.isBlank(name) || !name.contains(StringConstant.HASH)) {
             return super.createRedisCache(name, cacheConfig);
         }
         String[] cacheArray = name.split(StringConstant.HASH);
@@ -41,4 +48,35 @@ public class RedisAutoCacheManager extends RedisCacheManager {
         }
         return super.createRedisCache(name, cacheConfig);
     }
+
+    /**
+     * 设置布隆过滤器，需在缓存初始化之前调用
+     *
+     * @param bloomFilterRegistry 布隆过滤器注册表
+     */
+    public void setBloomFilterRegistry(@Nullable RedisBloomFilterRegistry bloomFilterRegistry) {
+        this.bloomFilterRegistry = bloomFilterRegistry;
+    }
+
+    @NonNull
+    @Override
+    protected Cache decorateCache(@NonNull Cache cache) {
+        Cache decorated = super.decorateCache(cache);
+        if (bloomFilterRegistry == null || bloomFilterRegistry.isEmpty()) {
+            return decorated;
+        }
+        RedisBloomFilter bloomFilter = bloomFilterRegistry.getFilterByCacheName(getBaseName(cache.getName()));
+        return bloomFilter == null ? decorated : new BloomFilterCache(decorated, bloomFilter);
+    }
+
+    /**
+     * 去掉 #ttl 后的缓存名
+     *
+     * @param name 缓存名
+     * @return 缓存名
+     */
+    protected static String getBaseName(String name) {
+        int index = name.indexOf(StringConstant.HASH);
+        return index < 0 ? name : name.substring(0, index);
+    }
 }
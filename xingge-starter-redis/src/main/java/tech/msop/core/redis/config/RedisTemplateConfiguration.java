@@ -1,7 +1,10 @@
 package tech.msop.core.redis.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -11,7 +14,12 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.stream.Collectors;
 import tech.msop.core.redis.cache.RedisRepository;
+import tech.msop.core.redis.cache.bloom.BloomFilterLoader;
+import tech.msop.core.redis.cache.bloom.RedisBloomFilterRegistry;
+import tech.msop.core.redis.cache.hotkey.HotKeyEndpoint;
 import tech.msop.core.redis.serializer.RedisKeySerializer;
 
 /**
@@ -60,7 +68,24 @@ public class RedisTemplateConfiguration implements XingGeRedisSerializerConfigAb
     }
 
     @Bean
-    public RedisRepository redisRepository(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate) {
-        return new RedisRepository(redisTemplate,stringRedisTemplate);
+    @ConditionalOnMissingBean
+    public RedisBloomFilterRegistry redisBloomFilterRegistry(StringRedisTemplate stringRedisTemplate,
+                                                             ObjectProvider<BloomFilterLoader> bloomFilterLoaders) {
+        return new RedisBloomFilterRegistry(stringRedisTemplate, bloomFilterLoaders.orderedStream().collect(Collectors.toList()));
+    }
+
+    @Bean
+    public RedisRepository redisRepository(RedisTemplate<String, Object> redisTemplate, StringRedisTemplate stringRedisTemplate,
+                                           XingGeRedisProperties properties, RedisBloomFilterRegistry bloomFilterRegistry) {
+        RedisRepository redisRepository = new RedisRepository(redisTemplate, stringRedisTemplate, properties);
+        redisRepository.setBloomFilterRegistry(bloomFilterRegistry);
+        return redisRepository;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(value = {"xg.redis.hot-key.enabled", "xg.redis.hot-key.endpoint-enabled"}, havingValue = "true")
+    public HotKeyEndpoint redisHotKeyEndpoint(RedisRepository redisRepository) {
+        return new HotKeyEndpoint(redisRepository.getHotKeyDetector());
     }
 }
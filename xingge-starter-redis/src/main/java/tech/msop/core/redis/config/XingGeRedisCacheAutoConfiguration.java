@@ -1,9 +1,11 @@
 package tech.msop.core.redis.config;
 
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizers;
 import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -11,9 +13,13 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.lang.Nullable;
+import tech.msop.core.redis.cache.bloom.RedisBloomFilterRegistry;
+import tech.msop.core.redis.cache.near.NearCacheManager;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -25,7 +31,7 @@ import java.util.Map;
  * @author ruozhuliufeng
  */
 @AutoConfiguration
-@EnableConfigurationProperties(CacheProperties.class)
+@EnableConfigurationProperties({CacheProperties.class, XingGeRedisProperties.class})
 public class XingGeRedisCacheAutoConfiguration {
     /**
      * 序列化方式
@@ -35,17 +41,20 @@ public class XingGeRedisCacheAutoConfiguration {
     private final CacheManagerCustomizers customizerInvoker;
     @Nullable
     private final RedisCacheConfiguration redisCacheConfiguration;
+    private final XingGeRedisProperties redisProperties;
 
-    public XingGeRedisCacheAutoConfiguration(RedisSerializer<Object> redisSerializer, CacheProperties cacheProperties, CacheManagerCustomizers customizerInvoker, @Nullable RedisCacheConfiguration redisCacheConfiguration) {
+    public XingGeRedisCacheAutoConfiguration(RedisSerializer<Object> redisSerializer, CacheProperties cacheProperties, CacheManagerCustomizers customizerInvoker, @Nullable RedisCacheConfiguration redisCacheConfiguration, XingGeRedisProperties redisProperties) {
         this.redisSerializer = redisSerializer;
         this.cacheProperties = cacheProperties;
         this.customizerInvoker = customizerInvoker;
         this.redisCacheConfiguration = redisCacheConfiguration;
+        this.redisProperties = redisProperties;
     }
 
     @Primary
     @Bean("redisCacheManager")
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               ObjectProvider<RedisBloomFilterRegistry> bloomFilterRegistry) {
         RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
         RedisCacheConfiguration cacheConfiguration = this.determineConfiguration();
         List<String> cacheNames = this.cacheProperties.getCacheNames();
@@ -57,11 +66,35 @@ public class XingGeRedisCacheAutoConfiguration {
         }
         boolean allowInFlightCacheCreation = true;
         boolean enableTransactions = false;
-        RedisAutoCacheManager cacheManager = new RedisAutoCacheManager(redisCacheWriter, cacheConfiguration, initialCaches, allowInFlightCacheCreation);
+        RedisAutoCacheManager cacheManager;
+        XingGeRedisProperties.NearCache nearCache = redisProperties.getNearCache();
+        if (nearCache.isEnabled()) {
+            cacheManager = new NearCacheManager(redisCacheWriter, cacheConfiguration, initialCaches, allowInFlightCacheCreation,
+                    connectionFactory, redisSerializer, nearCache);
+        } else {
+            cacheManager = new RedisAutoCacheManager(redisCacheWriter, cacheConfiguration, initialCaches, allowInFlightCacheCreation);
+        }
         cacheManager.setTransactionAware(enableTransactions);
+        cacheManager.setBloomFilterRegistry(bloomFilterRegistry.getIfAvailable());
         return this.customizerInvoker.customize(cacheManager);
     }
 
+    /**
+     * 订阅二级缓存失效广播
+     */
+    @Bean
+    @ConditionalOnProperty(value = "xg.redis.near-cache.enabled", havingValue = "true")
+    public RedisMessageListenerContainer nearCacheMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           RedisCacheManager redisCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (redisCacheManager instanceof NearCacheManager) {
+            container.addMessageListener((NearCacheManager) redisCacheManager,
+                    new ChannelTopic(redisProperties.getNearCache().getChannel()));
+        }
+        return container;
+    }
+
     private RedisCacheConfiguration determineConfiguration() {
         if (this.redisCacheConfiguration != null) {
             return this.redisCacheConfiguration;
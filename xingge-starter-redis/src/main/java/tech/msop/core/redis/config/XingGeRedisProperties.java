@@ -4,6 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Redis 配置
  *
@@ -18,6 +22,36 @@ public class XingGeRedisProperties {
      */
     private SerializerType serializerType = SerializerType.ProtoStuff;
 
+    /**
+     * ProtoStuff 序列化配置
+     */
+    private Protostuff protostuff = new Protostuff();
+
+    /**
+     * 二级缓存（本地 + redis）配置
+     */
+    private NearCache nearCache = new NearCache();
+
+    /**
+     * RedisRepository 缓存加载配置
+     */
+    private Loader loader = new Loader();
+
+    /**
+     * RedisRepository 单 key GET 自动合并配置
+     */
+    private AutoBatch autoBatch = new AutoBatch();
+
+    /**
+     * 分布式限流配置
+     */
+    private RateLimiter rateLimiter = new RateLimiter();
+
+    /**
+     * RedisRepository 热点 key 探测配置
+     */
+    private HotKey hotKey = new HotKey();
+
     public enum SerializerType {
         /**
          * 默认：ProtoStuff 序列化
@@ -32,4 +66,176 @@ public class XingGeRedisProperties {
          */
         JDK
     }
+
+    @Getter
+    @Setter
+    public static class Loader {
+        /**
+         * 缓存未命中时是否使用分布式互斥锁，保证集群内只有一个节点执行加载，默认关闭
+         */
+        private boolean distributedLock = false;
+        /**
+         * 分布式互斥锁超时时间，未获取到锁的节点最多等待该时间，之后自行加载
+         */
+        private Duration lockTimeout = Duration.ofSeconds(3);
+        /**
+         * 未获取到锁时轮询缓存的间隔
+         */
+        private Duration lockWaitInterval = Duration.ofMillis(50);
+        /**
+         * 是否开启概率性提前刷新（仅对设置了过期时间的 CacheKey 生效），默认关闭
+         */
+        private boolean earlyRefresh = false;
+        /**
+         * 提前刷新系数，越大越倾向于提前刷新
+         */
+        private double earlyRefreshBeta = 1.0D;
+        /**
+         * 加载结果为 null 时是否写入空值占位，防止不存在的数据反复穿透到数据库，默认关闭
+         */
+        private boolean cacheNullValues = false;
+        /**
+         * 空值占位的过期时间，不超过 CacheKey 的过期时间
+         */
+        private Duration nullValueTtl = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class NearCache {
+        /**
+         * 是否开启二级缓存，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 开启二级缓存的缓存名（不含 #ttl），为空时所有缓存均开启
+         */
+        private List<String> cacheNames = new ArrayList<>();
+        /**
+         * 每个缓存的本地最大数量
+         */
+        private int maxSize = 10000;
+        /**
+         * 本地缓存过期时间，不超过 redis 缓存的过期时间
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+        /**
+         * 缓存失效广播频道
+         */
+        private String channel = "xg:cache:near:invalidate";
+    }
+
+    @Getter
+    @Setter
+    public static class AutoBatch {
+        /**
+         * 是否将短时间窗口内并发的单 key GET 合并为一次 MGET，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 合并等待窗口，每次 GET 最多增加该时长的延迟
+         */
+        private Duration window = Duration.ofMillis(1);
+        /**
+         * 单次 MGET 最大 key 数量
+         */
+        private int maxBatchSize = 128;
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimiter {
+        /**
+         * 是否开启分布式限流，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 本地许可租约配置
+         */
+        private Lease lease = new Lease();
+    }
+
+    @Getter
+    @Setter
+    public static class Lease {
+        /**
+         * 是否开启本地许可租约：每个节点从 redis 批量租用许可，在本地扣减，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 每次租用的许可数占 max 的比例，越大 redis 访问越少，全局限流误差越大
+         */
+        private double ratio = 0.05D;
+        /**
+         * 本地剩余许可低于单次租用量的该比例时异步续租
+         */
+        private double renewThreshold = 0.2D;
+        /**
+         * 本地最多保存的限流 key 数量
+         */
+        private int maxKeys = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Protostuff {
+        /**
+         * 序列化结果超过该字节数时压缩（存在 lz4-java 时使用 lz4，否则使用 deflate），小于等于 0 时不压缩
+         */
+        private int compressThreshold = 0;
+        /**
+         * 未压缩的数据是否写入格式头，默认关闭，与旧版本格式相同。
+         * 旧版本无法读取带格式头或压缩的数据，需所有节点升级后再开启
+         */
+        private boolean plainHeader = false;
+    }
+
+    @Getter
+    @Setter
+    public static class HotKey {
+        /**
+         * 是否开启热点 key 探测，默认关闭
+         */
+        private boolean enabled = false;
+        /**
+         * 采样率，(0, 1]，访问量很大时可降低以减少开销
+         */
+        private double sampleRate = 1.0D;
+        /**
+         * 统计窗口
+         */
+        private Duration window = Duration.ofSeconds(10);
+        /**
+         * 窗口内访问次数达到该值视为热点
+         */
+        private long threshold = 1000L;
+        /**
+         * 最多保留的热点 key 数量
+         */
+        private int topK = 100;
+        /**
+         * Count-Min Sketch 哈希函数个数
+         */
+        private int sketchDepth = 4;
+        /**
+         * Count-Min Sketch 每行计数器个数
+         */
+        private int sketchWidth = 4096;
+        /**
+         * 是否将热点 key 的值提升到本地缓存
+         */
+        private boolean promote = false;
+        /**
+         * 本地缓存时间，其他节点修改后最多在该时间内读到旧值
+         */
+        private Duration localTtl = Duration.ofSeconds(2);
+        /**
+         * 是否开启热点 key 查询接口
+         */
+        private boolean endpointEnabled = false;
+        /**
+         * 热点 key 查询接口路径
+         */
+        private String endpointPath = "/xg/redis/hot-keys";
+    }
 }
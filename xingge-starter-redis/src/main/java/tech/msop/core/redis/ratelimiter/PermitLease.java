@@ -0,0 +1,117 @@
+package tech.msop.core.redis.ratelimiter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个限流 key 在本节点持有的许可租约，许可扣减无锁
+ * <p>
+ * 每次从 redis 租到的许可单独记录到期时间，续租时剩余的旧许可仍按原到期时间作废，
+ * 不随新租约延长，保证本节点在一个窗口内使用的许可不超过 redis 在该窗口扣减的数量。
+ *
+ * @author ruozhuliufeng
+ */
+class PermitLease {
+    /**
+     * 各次租到的许可，按租用顺序排列，扣减时优先使用最早到期的
+     */
+    private final Queue<Grant> grants = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean renewing = new AtomicBoolean(false);
+    /**
+     * redis 拒绝租用后，在此之前直接拒绝，不再访问 redis
+     */
+    private volatile long deniedUntil;
+
+    /**
+     * 扣减一个本地许可
+     *
+     * @param now 当前时间
+     * @return 是否成功
+     */
+    boolean tryAcquire(long now) {
+        for (Grant grant : grants) {
+            if (grant.tryAcquire(now)) {
+                return true;
+            }
+            // 已到期或已耗尽的许可不会再变为可用
+            grants.remove(grant);
+        }
+        return false;
+    }
+
+    /**
+     * 添加从 redis 租到的许可
+     *
+     * @param granted    许可数
+     * @param now        租用时间
+     * @param ttlMillis  租约有效期
+     * @param denyMillis 未租到许可时的拒绝时长
+     */
+    void grant(long granted, long now, long ttlMillis, long denyMillis) {
+        if (granted <= 0) {
+            deniedUntil = now + denyMillis;
+            return;
+        }
+        grants.offer(new Grant(granted, now + ttlMillis));
+    }
+
+    /**
+     * 未到期的剩余许可数
+     *
+     * @param now 当前时间
+     * @return 许可数
+     */
+    long remaining(long now) {
+        long remaining = 0;
+        for (Grant grant : grants) {
+            if (now < grant.expireAt) {
+                remaining += grant.permits.get();
+            }
+        }
+        return remaining;
+    }
+
+    boolean isDenied(long now) {
+        return now < deniedUntil;
+    }
+
+    boolean startRenew() {
+        return renewing.compareAndSet(false, true);
+    }
+
+    void endRenew() {
+        renewing.set(false);
+    }
+
+    /**
+     * 一次租到的许可
+     */
+    private static final class Grant {
+        private final AtomicLong permits;
+        /**
+         * 到期时间，到期后剩余许可作废，避免跨窗口使用
+         */
+        private final long expireAt;
+
+        private Grant(long permits, long expireAt) {
+            this.permits = new AtomicLong(permits);
+            this.expireAt = expireAt;
+        }
+
+        private boolean tryAcquire(long now) {
+            if (now >= expireAt) {
+                return false;
+            }
+            long current;
+            do {
+                current = permits.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!permits.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
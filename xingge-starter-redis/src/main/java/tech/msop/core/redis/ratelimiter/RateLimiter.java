@@ -49,4 +49,11 @@ public @interface RateLimiter {
      */
     TimeUnit timeUnit() default TimeUnit.MINUTES;
 
+    /**
+     * 限流算法，默认：滑动窗口
+     *
+     * @return 限流算法
+     */
+    RateLimiterAlgorithm algorithm() default RateLimiterAlgorithm.SLIDING_WINDOW;
+
 }
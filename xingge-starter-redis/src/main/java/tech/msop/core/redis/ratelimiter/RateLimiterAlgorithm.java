@@ -0,0 +1,36 @@
+package tech.msop.core.redis.ratelimiter;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 限流算法
+ *
+ * @author ruozhuliufeng
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RateLimiterAlgorithm {
+    /**
+     * 滑动窗口：精确统计窗口内的请求数，每个请求占用一个 zset 成员，
+     * 内存随 max 线性增长，单次判断 O(log n)，适合 max 较小的场景
+     */
+    SLIDING_WINDOW("scripts/ms_rate_limiter.lua", ""),
+    /**
+     * 令牌桶：容量为 max，ttl 内补满，允许突发，每个 key 仅保存令牌数和时间两个字段，O(1)
+     */
+    TOKEN_BUCKET("scripts/ms_rate_limiter_token_bucket.lua", ":tb"),
+    /**
+     * GCRA（通用信元速率算法）：按 ttl / max 的间隔平滑放行，突发上限为 max，每个 key 仅保存一个时间戳，O(1)
+     */
+    GCRA("scripts/ms_rate_limiter_gcra.lua", ":gcra");
+
+    /**
+     * lua 脚本路径
+     */
+    private final String scriptPath;
+    /**
+     * redis key 后缀，不同算法的数据结构不同，避免切换算法后 key 类型冲突
+     */
+    private final String keySuffix;
+}
@@ -22,6 +22,20 @@ public interface RateLimiterClient {
      */
     boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit);
 
+    /**
+     * 服务是否被限流，不支持多种算法的实现忽略 algorithm
+     *
+     * @param key       自定义的key，唯一
+     * @param max       支持的最大请求
+     * @param ttl       时间
+     * @param timeUnit  时间单位
+     * @param algorithm 限流算法
+     * @return 是否允许
+     */
+    default boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit, RateLimiterAlgorithm algorithm) {
+        return this.isAllowed(key, max, ttl, timeUnit);
+    }
+
     /**
      * 服务是否被限流
      *
@@ -60,7 +74,23 @@ public interface RateLimiterClient {
      * @return 函数执行结果
      */
     default <T> T allow(String key, long max, long ttl, TimeUnit timeUnit, CheckedSupplier<T> supplier) {
-        boolean isAllowed = this.isAllowed(key, max, ttl, timeUnit);
+        return allow(key, max, ttl, timeUnit, RateLimiterAlgorithm.SLIDING_WINDOW, supplier);
+    }
+
+    /**
+     * 服务限流，被限制时抛出RateLimiterException 异常，需自行处理异常
+     *
+     * @param key       自定义的key
+     * @param max       支持的最大请求
+     * @param ttl       时间
+     * @param timeUnit  时间单位
+     * @param algorithm 限流算法
+     * @param supplier  Supplier 函数式
+     * @param <T>       泛型
+     * @return 函数执行结果
+     */
+    default <T> T allow(String key, long max, long ttl, TimeUnit timeUnit, RateLimiterAlgorithm algorithm, CheckedSupplier<T> supplier) {
+        boolean isAllowed = this.isAllowed(key, max, ttl, timeUnit, algorithm);
         if (isAllowed) {
             try {
                 return supplier.get();
@@ -63,7 +63,7 @@ public class RedisRateLimiterAspect implements ApplicationContextAware {
         long max = limiter.max();
         long ttl = limiter.ttl();
         TimeUnit timeUnit = limiter.timeUnit();
-        return rateLimiterClient.allow(rateKey, max, ttl, timeUnit, point::proceed);
+        return rateLimiterClient.allow(rateKey, max, ttl, timeUnit, limiter.algorithm(), point::proceed);
 
     }
 
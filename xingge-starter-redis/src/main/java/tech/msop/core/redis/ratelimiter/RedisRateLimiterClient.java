@@ -1,22 +1,33 @@
 package tech.msop.core.redis.ratelimiter;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.env.Environment;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import tech.msop.core.redis.cache.near.LocalCacheStore;
+import tech.msop.core.redis.config.XingGeRedisProperties;
 import tech.msop.core.tool.constant.CharConstant;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Redis 限流服务
  *
  * @author ruozhuliufeng
  */
-@RequiredArgsConstructor
-public class RedisRateLimiterClient implements RateLimiterClient {
+@Slf4j
+public class RedisRateLimiterClient implements RateLimiterClient, DisposableBean {
     /**
      * redis 限流 key 前缀
      */
@@ -30,13 +41,57 @@ public class RedisRateLimiterClient implements RateLimiterClient {
      */
     private final StringRedisTemplate redisTemplate;
     /**
-     * redis script
+     * 各算法的 redis script
      */
-    private final RedisScript<List<Long>> script;
+    private final Map<RateLimiterAlgorithm, RedisScript<List<Long>>> scripts;
     /**
      * env
      */
     private final Environment environment;
+    /**
+     * 本地许可租约配置，未开启时为 null
+     */
+    @Nullable
+    private final XingGeRedisProperties.Lease lease;
+    /**
+     * 各限流 key 的本地租约
+     */
+    @Nullable
+    private final LocalCacheStore<String, PermitLease> leases;
+    /**
+     * 异步续租线程池
+     */
+    @Nullable
+    private final ThreadPoolExecutor renewExecutor;
+
+    public RedisRateLimiterClient(StringRedisTemplate redisTemplate, RedisScript<List<Long>> script, Environment environment) {
+        this(redisTemplate, Collections.singletonMap(RateLimiterAlgorithm.SLIDING_WINDOW, script), environment);
+    }
+
+    public RedisRateLimiterClient(StringRedisTemplate redisTemplate, Map<RateLimiterAlgorithm, RedisScript<List<Long>>> scripts, Environment environment) {
+        this(redisTemplate, scripts, environment, null);
+    }
+
+    public RedisRateLimiterClient(StringRedisTemplate redisTemplate, Map<RateLimiterAlgorithm, RedisScript<List<Long>>> scripts,
+                                  Environment environment, @Nullable XingGeRedisProperties.Lease lease) {
+        this.redisTemplate = redisTemplate;
+        this.scripts = new EnumMap<>(scripts);
+        this.environment = environment;
+        if (lease != null && lease.isEnabled()) {
+            this.lease = lease;
+            this.leases = new LocalCacheStore<>(lease.getMaxKeys(), TimeUnit.MINUTES.toMillis(10));
+            AtomicInteger index = new AtomicInteger();
+            this.renewExecutor = new ThreadPoolExecutor(1, 4, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1024), r -> {
+                Thread thread = new Thread(r, "xg-rate-limiter-renew-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.lease = null;
+            this.leases = null;
+            this.renewExecutor = null;
+        }
+    }
 
     /**
      * 服务是否被限流
@@ -49,22 +104,119 @@ public class RedisRateLimiterClient implements RateLimiterClient {
      */
     @Override
     public boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit) {
+        return isAllowed(key, max, ttl, timeUnit, RateLimiterAlgorithm.SLIDING_WINDOW);
+    }
+
+    /**
+     * 服务是否被限流
+     *
+     * @param key       自定义的key，唯一
+     * @param max       支持的最大请求
+     * @param ttl       时间
+     * @param timeUnit  时间单位
+     * @param algorithm 限流算法
+     * @return 是否允许
+     */
+    @Override
+    public boolean isAllowed(String key, long max, long ttl, TimeUnit timeUnit, RateLimiterAlgorithm algorithm) {
+        if (!scripts.containsKey(algorithm)) {
+            throw new IllegalStateException("RateLimiter script not found for algorithm: " + algorithm);
+        }
         // redis key
-        String redisKeyBuilder = REDIS_KEY_PREFIX + getApplicationName(environment) + CharConstant.COLON + key;
-        List<String> keys = Collections.singletonList(redisKeyBuilder);
+        String redisKeyBuilder = REDIS_KEY_PREFIX + getApplicationName(environment) + CharConstant.COLON + key + algorithm.getKeySuffix();
+        // 转为毫秒,pexpire
+        long ttlMills = timeUnit.toMillis(ttl);
+        if (lease != null) {
+            return isAllowedByLease(redisKeyBuilder, max, ttlMills, algorithm);
+        }
+        return acquire(redisKeyBuilder, max, ttlMills, algorithm, 1) != FAIL_CODE;
+    }
+
+    /**
+     * 优先扣减本地租约中的许可，剩余不足时异步续租，耗尽时同步租用
+     */
+    private boolean isAllowedByLease(String redisKey, long max, long ttlMills, RateLimiterAlgorithm algorithm) {
+        PermitLease permitLease = leases.computeIfAbsent(redisKey, k -> new PermitLease());
+        long batch = Math.max(1L, (long) (max * lease.getRatio()));
+        // 未租到许可时至少等待一个许可的生成间隔
+        long denyMillis = Math.max(1L, ttlMills / Math.max(1L, max));
+        long now = System.currentTimeMillis();
+        if (permitLease.tryAcquire(now)) {
+            if (permitLease.remaining(now) <= batch * lease.getRenewThreshold() && permitLease.startRenew()) {
+                renewAsync(permitLease, redisKey, max, ttlMills, algorithm, batch, denyMillis);
+            }
+            return true;
+        }
+        if (permitLease.isDenied(now)) {
+            return false;
+        }
+        synchronized (permitLease) {
+            now = System.currentTimeMillis();
+            // 等待锁期间其他线程可能已租到许可
+            if (permitLease.tryAcquire(now)) {
+                return true;
+            }
+            if (permitLease.isDenied(now)) {
+                return false;
+            }
+            long granted = acquire(redisKey, max, ttlMills, algorithm, batch);
+            permitLease.grant(granted, now, ttlMills, denyMillis);
+            return permitLease.tryAcquire(now);
+        }
+    }
+
+    private void renewAsync(PermitLease permitLease, String redisKey, long max, long ttlMills,
+                            RateLimiterAlgorithm algorithm, long batch, long denyMillis) {
+        try {
+            renewExecutor.execute(() -> {
+                try {
+                    long now = System.currentTimeMillis();
+                    permitLease.grant(acquire(redisKey, max, ttlMills, algorithm, batch), now, ttlMills, denyMillis);
+                } catch (Exception e) {
+                    log.warn("RateLimiter lease renew failed, key: {}", redisKey, e);
+                } finally {
+                    permitLease.endRenew();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permitLease.endRenew();
+        }
+    }
+
+    /**
+     * 从 redis 申请许可
+     *
+     * @return 授予的许可数
+     */
+    private long acquire(String redisKey, long max, long ttlMills, RateLimiterAlgorithm algorithm, long permits) {
+        List<String> keys = Collections.singletonList(redisKey);
         // 毫秒，考虑主从策略和脚本回放机制，这个time由客户端获取传入
         long now = System.currentTimeMillis();
-        // 转为毫秒,pexpire
-        long ttlMills = timeUnit.toMicros(ttl);
-        // 执行命令
-        List<Long> results = this.redisTemplate.execute(this.script,keys,max+"",ttlMills+"",now+"");
+        // 执行命令，滑动窗口额外传入 zset 成员前缀
+        RedisScript<List<Long>> script = scripts.get(algorithm);
+        List<Long> results;
+        if (algorithm == RateLimiterAlgorithm.SLIDING_WINDOW) {
+            String member = now + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+            results = this.redisTemplate.execute(script, keys, max + "", ttlMills + "", now + "", member, permits + "");
+        } else {
+            results = this.redisTemplate.execute(script, keys, max + "", ttlMills + "", now + "", permits + "");
+        }
         // 结果为空，返回失败
         if (results == null || results.isEmpty()){
-            return false;
+            return FAIL_CODE;
         }
-        // 判断返回成功
         Long result = results.get(0);
-        return result != FAIL_CODE;
+        return result == null ? FAIL_CODE : result;
+    }
+
+    /**
+     * 停止续租线程池
+     */
+    @Override
+    public void destroy() {
+        if (renewExecutor != null) {
+            renewExecutor.shutdown();
+        }
     }
 
     private static String getApplicationName(Environment environment){
@@ -4,21 +4,84 @@ import io.protostuff.LinkedBuffer;
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
 import io.protostuff.runtime.RuntimeSchema;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
 import tech.msop.core.tool.utils.ObjectUtil;
 
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
 /**
  * Protostuff 序列化
+ * <p>
+ * 默认写入不带格式头的 protostuff 数据，与旧版本格式相同；开启压缩且数据超过阈值，
+ * 或显式开启 plainHeader 时写入 1 字节格式头 + 数据。格式头取值 1~7，protostuff 数据的首字节为字段标签，
+ * 字段号不为 0，不会落在该区间内，因此两种格式都可以读取。
+ * <ul>
+ *     <li>{@link #FORMAT_PLAIN}：未压缩的 protostuff 数据</li>
+ *     <li>{@link #FORMAT_DEFLATE}：4 字节原始长度 + deflate 压缩数据</li>
+ *     <li>{@link #FORMAT_LZ4}：4 字节原始长度 + lz4 压缩数据</li>
+ * </ul>
+ * 注意：旧版本无法读取带格式头的数据，开启压缩或 plainHeader 前需先完成所有节点的升级。
  *
  * @author ruozhuliufeng
  */
 public class ProtostuffSerializer implements RedisSerializer<Object> {
+    /**
+     * 未压缩
+     */
+    public static final byte FORMAT_PLAIN = 1;
+    /**
+     * deflate 压缩
+     */
+    public static final byte FORMAT_DEFLATE = 2;
+    /**
+     * lz4 压缩
+     */
+    public static final byte FORMAT_LZ4 = 3;
+    /**
+     * 格式头最大值，大于该值视为无格式头的旧数据
+     */
+    private static final byte FORMAT_MAX = 7;
+    /**
+     * 压缩数据原始长度上限，超过视为数据损坏，避免按错误的长度分配内存
+     */
+    private static final int MAX_UNCOMPRESSED_LENGTH = 512 * 1024 * 1024;
+    private static final boolean LZ4_PRESENT = ClassUtils.isPresent("net.jpountz.lz4.LZ4Factory", ProtostuffSerializer.class.getClassLoader());
+    /**
+     * 线程内复用的缓冲区，clear 后只保留首个节点，大对象不会长期占用内存
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
 
     private final Schema<BytesWrapper> schema;
+    /**
+     * 超过该字节数时压缩，小于等于 0 时不压缩
+     */
+    private final int compressThreshold;
+    /**
+     * 未压缩的数据是否写入格式头
+     */
+    private final boolean plainHeader;
 
     public ProtostuffSerializer() {
+        this(0);
+    }
+
+    public ProtostuffSerializer(int compressThreshold) {
+        this(compressThreshold, false);
+    }
+
+    public ProtostuffSerializer(int compressThreshold, boolean plainHeader) {
         this.schema = RuntimeSchema.getSchema(BytesWrapper.class);
+        this.compressThreshold = compressThreshold;
+        this.plainHeader = plainHeader;
     }
 
     @Override
@@ -26,12 +89,27 @@ public class ProtostuffSerializer implements RedisSerializer<Object> {
         if (object == null) {
             return null;
         }
-        LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        LinkedBuffer buffer = BUFFER.get();
+        byte[] data;
         try {
-            return ProtostuffIOUtil.toByteArray(new BytesWrapper<>(object), schema, buffer);
+            data = ProtostuffIOUtil.toByteArray(new BytesWrapper<>(object), schema, buffer);
         } finally {
             buffer.clear();
         }
+        if (compressThreshold > 0 && data.length > compressThreshold) {
+            byte[] compressed = LZ4_PRESENT ? Lz4Codec.compress(data) : deflate(data);
+            // 压缩无收益时保存原始数据
+            if (compressed.length < data.length) {
+                return compressed;
+            }
+        }
+        if (!plainHeader) {
+            return data;
+        }
+        byte[] result = new byte[data.length + 1];
+        result[0] = FORMAT_PLAIN;
+        System.arraycopy(data, 0, result, 1, data.length);
+        return result;
     }
 
     @Override
@@ -39,8 +117,115 @@ public class ProtostuffSerializer implements RedisSerializer<Object> {
         if (ObjectUtil.isEmpty(bytes)) {
             return null;
         }
+        byte format = bytes[0];
         BytesWrapper<Object> wrapper = new BytesWrapper<>();
-        ProtostuffIOUtil.mergeFrom(bytes, wrapper, schema);
+        if (format < 1 || format > FORMAT_MAX) {
+            // 旧格式，无格式头
+            ProtostuffIOUtil.mergeFrom(bytes, wrapper, schema);
+        } else if (format == FORMAT_PLAIN) {
+            ProtostuffIOUtil.mergeFrom(bytes, 1, bytes.length - 1, wrapper, schema);
+        } else if (format == FORMAT_DEFLATE) {
+            ProtostuffIOUtil.mergeFrom(inflate(bytes), wrapper, schema);
+        } else if (format == FORMAT_LZ4) {
+            if (!LZ4_PRESENT) {
+                throw new SerializationException("Cannot deserialize lz4 compressed data, lz4-java is not on the classpath");
+            }
+            ProtostuffIOUtil.mergeFrom(Lz4Codec.decompress(bytes), wrapper, schema);
+        } else {
+            throw new SerializationException("Unsupported protostuff format: " + format);
+        }
         return wrapper.getValue();
     }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] chunk = new byte[4096];
+            writeHeader(chunk, FORMAT_DEFLATE, data.length);
+            out.write(chunk, 0, 5);
+            while (!deflater.finished()) {
+                int len = deflater.deflate(chunk);
+                out.write(chunk, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 5, bytes.length - 5);
+            byte[] data = new byte[readLength(bytes)];
+            int offset = 0;
+            while (offset < data.length && !inflater.finished()) {
+                int len = inflater.inflate(data, offset, data.length - offset);
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += len;
+            }
+            if (offset != data.length) {
+                throw new SerializationException("Corrupted deflate data, expected " + data.length + " bytes but got " + offset);
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupted deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 写入格式头及原始长度，共 5 字节
+     */
+    private static void writeHeader(byte[] bytes, byte format, int length) {
+        bytes[0] = format;
+        bytes[1] = (byte) (length >>> 24);
+        bytes[2] = (byte) (length >>> 16);
+        bytes[3] = (byte) (length >>> 8);
+        bytes[4] = (byte) length;
+    }
+
+    private static int readLength(byte[] bytes) {
+        if (bytes.length < 5) {
+            throw new SerializationException("Corrupted compressed data, length: " + bytes.length);
+        }
+        int length = ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16) | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+        if (length < 0 || length > MAX_UNCOMPRESSED_LENGTH) {
+            throw new SerializationException("Corrupted compressed data, uncompressed length: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * lz4 编解码，单独的类避免未引入 lz4-java 时加载失败
+     */
+    private static class Lz4Codec {
+        private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+
+        private static byte[] compress(byte[] data) {
+            LZ4Compressor compressor = FACTORY.fastCompressor();
+            int maxLength = compressor.maxCompressedLength(data.length);
+            byte[] result = new byte[maxLength + 5];
+            writeHeader(result, FORMAT_LZ4, data.length);
+            int len = compressor.compress(data, 0, data.length, result, 5, maxLength);
+            return Arrays.copyOf(result, len + 5);
+        }
+
+        private static byte[] decompress(byte[] bytes) {
+            byte[] data = new byte[readLength(bytes)];
+            LZ4FastDecompressor decompressor = FACTORY.fastDecompressor();
+            try {
+                decompressor.decompress(bytes, 5, data, 0, data.length);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Corrupted lz4 data", e);
+            }
+            return data;
+        }
+    }
 }
@@ -3,26 +3,35 @@
 local key = KEYS[1]
 -- 限流大小
 local max = tonumber(ARGV[1])
--- 超时时间
+-- 窗口时长（毫秒）
 local ttl = tonumber(ARGV[2])
 -- 考虑主从策略和脚本回放机制，这个time由客户端获取传入
 local now = tonumber(ARGV[3])
+-- 成员，由客户端生成，避免同一毫秒内的请求相互覆盖
+local member = ARGV[4]
+-- 本次申请的许可数，可用许可不足时部分授予
+local permits = tonumber(ARGV[5]) or 1
 -- 已经过期的时间点
-local expired = now - (ttl * 1000)
+local expired = now - ttl
 
 -- 清除过期的数据,移除指定分数（score）区间内的所有成员
 redis.call('zremrangebyscore', key, 0, expired)
 -- 获取当前流量大小
 local currentLimit = tonumber(redis.call('zcard', key))
 
-local nextLimit = currentLimit + 1
-if nextLimit > max then
+local granted = math.min(permits, max - currentLimit)
+if granted <= 0 then
     -- 达到限流大小 返回 0
-    return 0;
+    return { 0, 0 }
+end
+-- 没有达到阈值，每个许可占用一个成员
+if granted == 1 then
+    redis.call('zadd', key, now, member)
 else
-    -- 没有达到阈值 value + 1
-    redis.call("zadd", key, now, now)
-    -- 秒为单位设置 key 的生存时间
-    redis.call("pexpire", key, ttl)
-    return nextLimit
+    for i = 1, granted do
+        redis.call('zadd', key, now, member .. ':' .. i)
+    end
 end
+-- 毫秒为单位设置 key 的生存时间
+redis.call('pexpire', key, ttl)
+return { granted, max - currentLimit - granted }
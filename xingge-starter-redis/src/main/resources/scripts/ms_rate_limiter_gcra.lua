@@ -0,0 +1,27 @@
+-- GCRA 限流，每个 key 仅保存理论到达时间（TAT）
+-- 限流 key
+local key = KEYS[1]
+-- 周期内最大请求数，同时也是突发上限
+local max = tonumber(ARGV[1])
+-- 周期（毫秒）
+local period = tonumber(ARGV[2])
+-- 考虑主从策略和脚本回放机制，这个time由客户端获取传入
+local now = tonumber(ARGV[3])
+-- 本次申请的许可数，不足时部分授予
+local permits = tonumber(ARGV[4]) or 1
+
+-- 两次请求之间的间隔
+local interval = period / max
+local tat = tonumber(redis.call('get', key))
+if tat == nil or tat < now then
+    tat = now
+end
+-- 允许提前 period 到达，即最多突发 max 个请求
+-- 加上极小值避免浮点误差少算一个许可
+local granted = math.min(permits, math.floor((now + period - tat) / interval + 1e-9))
+if granted <= 0 then
+    return { 0, 0 }
+end
+local newTat = tat + interval * granted
+redis.call('set', key, newTat, 'PX', math.ceil(newTat - now))
+return { granted, math.floor((period - (newTat - now)) / interval) }
@@ -0,0 +1,35 @@
+-- 令牌桶限流，每个 key 仅保存 tokens、ts 两个字段
+-- 限流 key
+local key = KEYS[1]
+-- 桶容量
+local capacity = tonumber(ARGV[1])
+-- 补满整个桶所需时长（毫秒）
+local period = tonumber(ARGV[2])
+-- 考虑主从策略和脚本回放机制，这个time由客户端获取传入
+local now = tonumber(ARGV[3])
+-- 本次申请的令牌数，令牌不足时部分授予
+local permits = tonumber(ARGV[4]) or 1
+
+local bucket = redis.call('hmget', key, 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+-- 按流逝时间补充令牌，时钟回拨时不补充
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * capacity / period)
+    ts = now
+end
+
+local granted = math.min(permits, math.floor(tokens))
+if granted > 0 then
+    tokens = tokens - granted
+else
+    granted = 0
+end
+redis.call('hmset', key, 'tokens', tokens, 'ts', ts)
+-- 桶补满后数据与不存在等价，可以过期
+redis.call('pexpire', key, math.ceil(period))
+return { granted, math.floor(tokens) }
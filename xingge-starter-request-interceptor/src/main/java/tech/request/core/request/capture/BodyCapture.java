@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 请求/响应体有界捕获
+ *
+ * 功能说明：
+ * - 只保留前N个字节，超出部分直接丢弃
+ * - 根据Content-Type判断是否为文本内容、解析字符集
+ * - 捕获结束后按正确的字符集只解码一次
+ */
+package tech.request.core.request.capture;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 请求/响应体有界捕获
+ *
+ * <p>作为 {@link OutputStream} 接收调用方读取过的数据副本，只在内存中保留前 limit 个字节：</p>
+ * <ul>
+ *   <li>超出上限的字节只计数不保存，大文件下载不会占用双倍内存</li>
+ *   <li>{@link #toText()} 只解码一次，结果缓存</li>
+ *   <li>截断处不完整的多字节字符会被丢弃，不会产生乱码</li>
+ * </ul>
+ * <p>非线程安全，一个实例只对应一个请求体或响应体。</p>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class BodyCapture extends OutputStream {
+
+    /**
+     * 截断标记
+     */
+    public static final String TRUNCATED_SUFFIX = "... (truncated)";
+
+    /**
+     * 数组最大长度
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 最大保留字节数
+     */
+    private final int limit;
+
+    /**
+     * 字符集
+     */
+    private final Charset charset;
+
+    /**
+     * 已保留的字节
+     */
+    private byte[] buffer;
+
+    /**
+     * 已保留的字节数
+     */
+    private int count;
+
+    /**
+     * 读取的总字节数
+     */
+    private long totalBytes;
+
+    /**
+     * 解码后的文本
+     */
+    private String text;
+
+    /**
+     * 构造函数
+     *
+     * @param limit 最大保留字节数
+     * @param charset 字符集
+     */
+    public BodyCapture(long limit, Charset charset) {
+        this.limit = (int) Math.max(0L, Math.min(limit, MAX_ARRAY_SIZE));
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.buffer = new byte[Math.min(this.limit, 1024)];
+    }
+
+    @Override
+    public void write(int b) {
+        totalBytes++;
+        if (count < limit) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        totalBytes += len;
+        int copy = Math.min(len, remaining());
+        if (copy > 0) {
+            ensureCapacity(count + copy);
+            System.arraycopy(b, off, buffer, count, copy);
+            count += copy;
+        }
+    }
+
+    /**
+     * 记录读取过但不保留的字节数
+     *
+     * @param byteCount 字节数
+     */
+    public void discard(long byteCount) {
+        if (byteCount > 0) {
+            totalBytes += byteCount;
+        }
+    }
+
+    /**
+     * 剩余可保留的字节数
+     *
+     * @return 剩余字节数
+     */
+    public int remaining() {
+        return limit - count;
+    }
+
+    /**
+     * 是否发生截断
+     *
+     * @return true表示读取的字节数超过上限
+     */
+    public boolean isTruncated() {
+        return totalBytes > count;
+    }
+
+    /**
+     * 获取读取的总字节数
+     *
+     * @return 总字节数
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 解码为文本，只解码一次
+     *
+     * @return 文本，没有读取到数据时返回null
+     */
+    public String toText() {
+        if (text == null && count > 0) {
+            text = decode(buffer, 0, count, charset, isTruncated());
+            // 解码后释放字节数组
+            buffer = new byte[0];
+        }
+        return text;
+    }
+
+    /**
+     * 解码内存中已有的请求/响应体，只解码前 limit 个字节
+     *
+     * @param body 字节数组
+     * @param limit 最大解码字节数
+     * @param charset 字符集
+     * @return 文本，内容为空时返回null
+     */
+    public static String decode(byte[] body, long limit, Charset charset) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        int length = (int) Math.max(0L, Math.min(body.length, limit));
+        return decode(body, 0, length, charset != null ? charset : StandardCharsets.UTF_8, length < body.length);
+    }
+
+    /**
+     * 判断Content-Type是否为文本内容，未知类型按文本处理
+     *
+     * @param contentType Content-Type
+     * @return true表示需要捕获
+     */
+    public static boolean isTextual(String contentType) {
+        MediaType mediaType = parseMediaType(contentType);
+        if (mediaType == null) {
+            return true;
+        }
+        String type = mediaType.getType();
+        String subtype = mediaType.getSubtype().toLowerCase();
+        if ("text".equalsIgnoreCase(type)) {
+            return true;
+        }
+        if (!"application".equalsIgnoreCase(type)) {
+            return false;
+        }
+        return subtype.endsWith("json") || subtype.endsWith("xml")
+                || subtype.contains("javascript") || subtype.contains("yaml")
+                || "x-www-form-urlencoded".equals(subtype) || "graphql".equals(subtype);
+    }
+
+    /**
+     * 从Content-Type中解析字符集
+     *
+     * @param contentType Content-Type
+     * @return 字符集，未声明或不支持时返回UTF-8
+     */
+    public static Charset resolveCharset(String contentType) {
+        MediaType mediaType = parseMediaType(contentType);
+        if (mediaType != null) {
+            try {
+                Charset charset = mediaType.getCharset();
+                if (charset != null) {
+                    return charset;
+                }
+            } catch (IllegalArgumentException ignored) {
+                // 不支持的字符集使用默认值
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 非文本内容的占位文本
+     *
+     * @param contentType Content-Type
+     * @return 占位文本
+     */
+    public static String binaryPlaceholder(String contentType) {
+        return "[Binary content omitted, Content-Type: " + contentType + "]";
+    }
+
+    private static MediaType parseMediaType(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String decode(byte[] bytes, int offset, int length, Charset charset, boolean truncated) {
+        // 截断时不结束输入，末尾不完整的字符留在输入中被丢弃；其余非法字节按替换字符处理
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer out = CharBuffer.allocate((int) Math.ceil(length * (double) decoder.maxCharsPerByte()) + 1);
+        decoder.decode(ByteBuffer.wrap(bytes, offset, length), out, !truncated);
+        if (!truncated) {
+            decoder.flush(out);
+        }
+        out.flip();
+        return truncated ? out + TRUNCATED_SUFFIX : out.toString();
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            int newCapacity = Math.max(buffer.length << 1, minCapacity);
+            buffer = Arrays.copyOf(buffer, Math.min(newCapacity, limit));
+        }
+    }
+}
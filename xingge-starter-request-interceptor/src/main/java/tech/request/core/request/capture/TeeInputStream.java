@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 旁路复制输入流
+ *
+ * 功能说明：
+ * - 调用方正常流式读取原始输入流
+ * - 读取过的字节同时复制到有界捕获中
+ * - 读到末尾或关闭时回调一次
+ */
+package tech.request.core.request.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 旁路复制输入流
+ *
+ * <p>包装原始响应体输入流，不预先读取也不缓冲整个响应体：</p>
+ * <ul>
+ *   <li>调用方读取的字节同时写入 {@link BodyCapture}，超出上限的部分由捕获丢弃</li>
+ *   <li>读到末尾、关闭或读取异常时执行一次完成回调</li>
+ *   <li>不支持 mark/reset</li>
+ * </ul>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class TeeInputStream extends FilterInputStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeeInputStream.class);
+
+    /**
+     * 有界捕获
+     */
+    private final BodyCapture capture;
+
+    /**
+     * 完成回调
+     */
+    private final Runnable onComplete;
+
+    /**
+     * 是否已完成
+     */
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    /**
+     * 构造函数
+     *
+     * @param in 原始输入流
+     * @param capture 有界捕获
+     * @param onComplete 完成回调，只执行一次
+     */
+    public TeeInputStream(InputStream in, BodyCapture capture, Runnable onComplete) {
+        super(in);
+        this.capture = capture;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        try {
+            b = super.read();
+        } catch (IOException e) {
+            complete();
+            throw e;
+        }
+        if (b == -1) {
+            complete();
+        } else {
+            capture.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n;
+        try {
+            n = super.read(b, off, len);
+        } catch (IOException e) {
+            complete();
+            throw e;
+        }
+        if (n == -1) {
+            complete();
+        } else if (n > 0) {
+            capture.write(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的字节也需要计入捕获，按读取处理
+        byte[] skipBuffer = new byte[(int) Math.min(Math.max(n, 0L), 8192L)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(skipBuffer, 0, (int) Math.min(skipBuffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // 不支持mark
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            complete();
+        }
+    }
+
+    /**
+     * 执行完成回调，只执行一次
+     */
+    public void complete() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                onComplete.run();
+            } catch (Exception e) {
+                logger.warn("Failed to complete body capture: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -9,6 +9,8 @@
  */
 package tech.request.core.request.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -16,13 +18,19 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
 import tech.request.core.request.handler.RequestLogHandler;
+import tech.request.core.request.pipeline.RequestLogBatchPipeline;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.storage.RequestLogStorage;
 import tech.request.core.request.storage.impl.ApiRequestLogStorage;
 import tech.request.core.request.storage.impl.DatabaseRequestLogStorage;
 import tech.request.core.request.storage.impl.LogRequestLogStorage;
 import tech.request.core.request.storage.impl.MongoRequestLogStorage;
+import tech.request.core.request.storage.impl.SpoolingRequestLogStorage;
+import tech.msop.core.tool.async.AsyncProcessor;
+
+import java.io.IOException;
 
 /**
  * 请求拦截器自动配置类
@@ -51,6 +59,8 @@ import tech.request.core.request.storage.impl.MongoRequestLogStorage;
 })
 public class RequestInterceptorAutoConfiguration {
     
+    private static final Logger logger = LoggerFactory.getLogger(RequestInterceptorAutoConfiguration.class);
+    
     /**
      * 配置日志存储实现
      * 
@@ -103,6 +113,8 @@ public class RequestInterceptorAutoConfiguration {
      * @param mongoStorage MongoDB存储实现（可选）
      * @param apiStorage API存储实现（可选）
      * @param databaseStorage 数据库存储实现（可选）
+     * @param asyncProcessor 异步处理器（可选）
+     * @param environment 环境配置，用于获取应用名作为暂存目录
      * @return 复合存储实现或单一存储实现
      */
     @Bean
@@ -111,7 +123,10 @@ public class RequestInterceptorAutoConfiguration {
                                              @Autowired(required = false) LogRequestLogStorage logStorage,
                                              @Autowired(required = false) MongoRequestLogStorage mongoStorage,
                                              @Autowired(required = false) ApiRequestLogStorage apiStorage,
-                                             @Autowired(required = false) DatabaseRequestLogStorage databaseStorage) {
+                                             @Autowired(required = false) DatabaseRequestLogStorage databaseStorage,
+                                             @Autowired(required = false) AsyncProcessor asyncProcessor,
+                                             Environment environment) {
+        String applicationName = environment.getProperty("spring.application.name");
         
         java.util.List<RequestInterceptorProperty.StorageType> storageTypes = properties.getStorageTypes();
         
@@ -122,11 +137,14 @@ public class RequestInterceptorAutoConfiguration {
                 case LOG:
                     return logStorage != null ? logStorage : new LogRequestLogStorage();
                 case MONGO:
-                    return mongoStorage != null ? mongoStorage : new MongoRequestLogStorage();
+                    return mongoStorage != null ? withSpool(mongoStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new MongoRequestLogStorage(), properties);
                 case API:
-                    return apiStorage != null ? apiStorage : new ApiRequestLogStorage();
+                    return apiStorage != null ? withSpool(apiStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new ApiRequestLogStorage(), properties);
                 case DATABASE:
-                    return databaseStorage != null ? databaseStorage : new DatabaseRequestLogStorage();
+                    return databaseStorage != null ? withSpool(databaseStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new DatabaseRequestLogStorage(), properties);
                 default:
                     return new LogRequestLogStorage(); // 默认使用日志存储
             }
@@ -141,13 +159,16 @@ public class RequestInterceptorAutoConfiguration {
                     storageList.add(logStorage != null ? logStorage : new LogRequestLogStorage());
                     break;
                 case MONGO:
-                    storageList.add(mongoStorage != null ? mongoStorage : new MongoRequestLogStorage());
+                    storageList.add(mongoStorage != null ? withSpool(mongoStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new MongoRequestLogStorage(), properties));
                     break;
                 case API:
-                    storageList.add(apiStorage != null ? apiStorage : new ApiRequestLogStorage());
+                    storageList.add(apiStorage != null ? withSpool(apiStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new ApiRequestLogStorage(), properties));
                     break;
                 case DATABASE:
-                    storageList.add(databaseStorage != null ? databaseStorage : new DatabaseRequestLogStorage());
+                    storageList.add(databaseStorage != null ? withSpool(databaseStorage, properties, asyncProcessor, applicationName)
+                            : unmanaged(new DatabaseRequestLogStorage(), properties));
                     break;
                 default:
                     // 忽略不支持的存储类型
@@ -160,7 +181,61 @@ public class RequestInterceptorAutoConfiguration {
             storageList.add(new LogRequestLogStorage());
         }
         
-        return new tech.request.core.request.storage.impl.CompositeRequestLogStorage(storageList);
+        return new tech.request.core.request.storage.impl.CompositeRequestLogStorage(storageList, properties.getIsolation());
+    }
+    
+    /**
+     * 启用本地磁盘暂存时包装存储实现，日志存储不会失败，不需要包装
+     * 
+     * <p>只包装由Spring管理的存储Bean，被包装的存储已由Spring完成注入和 {@code @PostConstruct} 初始化。</p>
+     * 
+     * @param storage 由Spring管理的存储实现
+     * @param properties 配置属性
+     * @param asyncProcessor 异步处理器（可选）
+     * @param applicationName 应用名，作为暂存目录的实例目录名
+     * @return 存储实现
+     */
+    private RequestLogStorage withSpool(RequestLogStorage storage, RequestInterceptorProperty properties,
+                                        AsyncProcessor asyncProcessor, String applicationName) {
+        if (properties.getSpool() == null || !properties.getSpool().isEnabled()) {
+            return storage;
+        }
+        try {
+            return new SpoolingRequestLogStorage(storage, properties.getSpool(), asyncProcessor, applicationName);
+        } catch (IOException e) {
+            throw new IllegalStateException("创建请求日志本地暂存失败: " + properties.getSpool().getDirectory(), e);
+        }
+    }
+    
+    /**
+     * 未注册为Bean的存储实现直接返回，不包装本地暂存
+     * 
+     * <p>单一存储时返回的实例由Spring作为 requestLogStorage Bean 完成注入和初始化，
+     * 包装后Spring只处理包装类，被包装的存储将缺少依赖且不会被初始化。</p>
+     * 
+     * @param storage 存储实现
+     * @param properties 配置属性
+     * @return 存储实现
+     */
+    private RequestLogStorage unmanaged(RequestLogStorage storage, RequestInterceptorProperty properties) {
+        if (properties.getSpool() != null && properties.getSpool().isEnabled()) {
+            logger.warn("存储实现 {} 未注册为Bean，不启用本地暂存，请开启对应的 xg.request.*.enabled 配置", storage.getStorageType());
+        }
+        return storage;
+    }
+    
+    /**
+     * 配置请求日志批量写入管道
+     * 
+     * @param requestLogStorage 请求日志存储接口
+     * @param properties 请求拦截器配置属性
+     * @return 请求日志批量写入管道
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "xg.request.batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RequestLogBatchPipeline requestLogBatchPipeline(RequestLogStorage requestLogStorage, RequestInterceptorProperty properties) {
+        return new RequestLogBatchPipeline(requestLogStorage, properties.getBatch());
     }
     
     /**
@@ -168,11 +243,13 @@ public class RequestInterceptorAutoConfiguration {
      * 
      * @param requestLogStorage 请求日志存储接口
      * @param properties 请求拦截器配置属性
+     * @param batchPipeline 请求日志批量写入管道（可选）
      * @return 请求日志处理器
      */
     @Bean
     @ConditionalOnMissingBean
-    public RequestLogHandler requestLogHandler(RequestLogStorage requestLogStorage, RequestInterceptorProperty properties) {
-        return new RequestLogHandler(requestLogStorage, properties);
+    public RequestLogHandler requestLogHandler(RequestLogStorage requestLogStorage, RequestInterceptorProperty properties,
+                                               @Autowired(required = false) RequestLogBatchPipeline batchPipeline) {
+        return new RequestLogHandler(requestLogStorage, properties, batchPipeline);
     }
 }
\ No newline at end of file
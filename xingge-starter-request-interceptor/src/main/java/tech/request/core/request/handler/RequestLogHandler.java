@@ -13,10 +13,13 @@ package tech.request.core.request.handler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.pipeline.RequestLogBatchPipeline;
+import tech.request.core.request.sampling.RequestLogSampler;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.storage.RequestLogStorage;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
@@ -59,6 +62,16 @@ public class RequestLogHandler {
      */
     private final RequestInterceptorProperty properties;
     
+    /**
+     * 批量写入管道，为空时每条日志直接异步写入存储
+     */
+    private final RequestLogBatchPipeline batchPipeline;
+    
+    /**
+     * 请求日志采样器，未启用采样时为空
+     */
+    private final RequestLogSampler sampler;
+    
     /**
      * 构造函数
      * 
@@ -66,8 +79,23 @@ public class RequestLogHandler {
      * @param properties 请求拦截器配置属性
      */
     public RequestLogHandler(RequestLogStorage requestLogStorage, RequestInterceptorProperty properties) {
+        this(requestLogStorage, properties, null);
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param requestLogStorage 请求日志存储接口
+     * @param properties 请求拦截器配置属性
+     * @param batchPipeline 批量写入管道（可选）
+     */
+    public RequestLogHandler(RequestLogStorage requestLogStorage, RequestInterceptorProperty properties,
+                             RequestLogBatchPipeline batchPipeline) {
         this.requestLogStorage = requestLogStorage;
         this.properties = properties;
+        this.batchPipeline = batchPipeline;
+        this.sampler = properties.getSampling() != null && properties.getSampling().isEnabled()
+                ? new RequestLogSampler(properties.getSampling()) : null;
     }
     
     /**
@@ -137,10 +165,21 @@ public class RequestLogHandler {
                                                         LocalDateTime startTime, LocalDateTime endTime,
                                                         boolean success, String errorMessage) {
         try {
+            // 采样未命中的请求不构建日志
+            if (sampler != null && !sampler.shouldSample(url, responseStatus, success, errorMessage,
+                    durationMillis(startTime, endTime))) {
+                return CompletableFuture.completedFuture(null);
+            }
+            
             RequestLogInfo logInfo = buildRequestLogInfo(clientType, method, url,
                     requestHeaders, requestBody, responseStatus, responseHeaders, responseBody,
                     startTime, endTime, success, errorMessage);
             
+            // 启用批量写入时只入队，由管道批量写入存储
+            if (batchPipeline != null) {
+                batchPipeline.offer(logInfo);
+                return CompletableFuture.completedFuture(null);
+            }
             return requestLogStorage.storeAsync(logInfo);
         } catch (Exception e) {
             // 异常通过日志输出，不抛出异常以避免阻碍业务流程
@@ -306,6 +345,38 @@ public class RequestLogHandler {
         return requestLogStorage;
     }
     
+    /**
+     * 计算请求耗时
+     * 
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 耗时（毫秒），时间缺失时返回0
+     */
+    private long durationMillis(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null) {
+            return 0L;
+        }
+        return Duration.between(startTime, endTime).toMillis();
+    }
+    
+    /**
+     * 获取请求日志采样器
+     * 
+     * @return 请求日志采样器，未启用时为null
+     */
+    public RequestLogSampler getSampler() {
+        return sampler;
+    }
+    
+    /**
+     * 获取批量写入管道
+     * 
+     * @return 批量写入管道，未启用时为null
+     */
+    public RequestLogBatchPipeline getBatchPipeline() {
+        return batchPipeline;
+    }
+    
     /**
      * 获取配置属性
      * 
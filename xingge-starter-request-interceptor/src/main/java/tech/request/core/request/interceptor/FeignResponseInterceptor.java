@@ -14,13 +14,22 @@ import feign.Request;
 import feign.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
+import tech.request.core.request.capture.BodyCapture;
+import tech.request.core.request.capture.TeeInputStream;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Feign响应拦截器
@@ -94,48 +103,42 @@ public class FeignResponseInterceptor implements Client {
         }
         
         // 提取响应信息
+        LocalDateTime endTime = LocalDateTime.now();
         int statusCode = response.status();
         Map<String, String> responseHeaders = extractHeaders(response);
         
-        // 克隆响应体，避免消费原始响应体
         Response.Body originalBody = response.body();
-        byte[] bodyData = originalBody != null ? readBodyData(originalBody) : new byte[0];
-        String responseBody = extractResponseBody(bodyData);
-        
-        // 处理响应信息
-        requestInterceptor.handleResponse(method, url, requestHeaders, requestParams, requestBody, statusCode, responseHeaders, responseBody, null);
+        String contentType = extractContentType(response.headers());
+        if (!property.isIncludeResponseBody() || originalBody == null || !BodyCapture.isTextual(contentType)) {
+            String responseBody = originalBody != null && property.isIncludeResponseBody()
+                    ? BodyCapture.binaryPlaceholder(contentType) : null;
+            requestInterceptor.handleResponse(method, url, requestHeaders, requestParams, requestBody, statusCode, responseHeaders, responseBody, null);
+            return response;
+        }
         
-        // 创建新的响应对象，包含原始响应体
-        return Response.builder()
-                .status(response.status())
-                .reason(response.reason())
-                .headers(response.headers())
-                .request(response.request())
-                .body(bodyData)
+        // 调用方读取响应体时旁路复制前maxBodySize个字节，读完或关闭后记录日志
+        LocalDateTime startTime = requestInterceptor.pollStartTime();
+        BodyCapture capture = new BodyCapture(property.getMaxBodySize(), BodyCapture.resolveCharset(contentType));
+        Runnable onComplete = () -> requestInterceptor.handleResponse(startTime, endTime, method, url, requestHeaders,
+                requestParams, requestBody, statusCode, responseHeaders, capture.toText(), null);
+        return response.toBuilder()
+                .body(new CapturingBody(originalBody, capture, onComplete))
                 .build();
     }
     
     /**
-     * 读取响应体数据
+     * 提取Content-Type
      * 
-     * @param body 响应体
-     * @return 响应体字节数组
+     * @param headers 响应头
+     * @return Content-Type，不存在时返回null
      */
-    private byte[] readBodyData(Response.Body body) {
-        try {
-            java.io.InputStream inputStream = body.asInputStream();
-            java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
-            int nRead;
-            byte[] data = new byte[1024];
-            while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
-                buffer.write(data, 0, nRead);
+    private String extractContentType(Map<String, Collection<String>> headers) {
+        for (Map.Entry<String, Collection<String>> entry : headers.entrySet()) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return entry.getValue().iterator().next();
             }
-            buffer.flush();
-            return buffer.toByteArray();
-        } catch (IOException e) {
-            log.warn("Failed to read response body: {}", e.getMessage());
-            return new byte[0];
         }
+        return null;
     }
     
     /**
@@ -158,32 +161,6 @@ public class FeignResponseInterceptor implements Client {
         return headerMap;
     }
     
-    /**
-     * 提取响应体
-     * 
-     * @param bodyData 响应体字节数组
-     * @return 响应体字符串
-     */
-    private String extractResponseBody(byte[] bodyData) {
-        if (!property.isIncludeResponseBody() || bodyData == null || bodyData.length == 0) {
-            return null;
-        }
-        
-        try {
-            String content = new String(bodyData, StandardCharsets.UTF_8);
-            
-            // 限制响应体大小
-            if (StringUtils.hasText(content) && content.length() > property.getMaxBodySize()) {
-                return content.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
-            }
-            
-            return content;
-        } catch (Exception e) {
-            log.warn("Failed to extract response body: {}", e.getMessage());
-            return "[Failed to extract response body]";
-        }
-    }
-    
     /**
      * 提取请求头信息
      * 
@@ -244,17 +221,74 @@ public class FeignResponseInterceptor implements Client {
         }
         
         try {
-            String content = new String(request.body(), StandardCharsets.UTF_8);
-            
-            // 限制请求体大小
-            if (StringUtils.hasText(content) && content.length() > property.getMaxBodySize()) {
-                return content.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
+            String contentType = extractContentType(request.headers());
+            if (!BodyCapture.isTextual(contentType)) {
+                return BodyCapture.binaryPlaceholder(contentType);
             }
-            
-            return content;
+            Charset charset = request.charset() != null ? request.charset() : BodyCapture.resolveCharset(contentType);
+            return BodyCapture.decode(request.body(), property.getMaxBodySize(), charset);
         } catch (Exception e) {
             log.warn("Failed to extract request body: {}", e.getMessage());
             return "[Failed to extract request body]";
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 旁路复制的响应体
+     * 
+     * <p>调用方流式读取原始响应体，读取过的字节同时写入有界捕获，读到末尾或关闭时执行一次回调。</p>
+     */
+    private static class CapturingBody implements Response.Body {
+        
+        private final Response.Body delegate;
+        private final BodyCapture capture;
+        private final Runnable onComplete;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private InputStream inputStream;
+        
+        CapturingBody(Response.Body delegate, BodyCapture capture, Runnable onComplete) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.onComplete = onComplete;
+        }
+        
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+        
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+        
+        @Override
+        public InputStream asInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new TeeInputStream(delegate.asInputStream(), capture, this::complete);
+            }
+            return inputStream;
+        }
+        
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                // 未读完响应体直接关闭时也记录日志
+                complete();
+            }
+        }
+        
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                onComplete.run();
+            }
+        }
+    }
+}
@@ -11,19 +11,22 @@ package tech.request.core.request.interceptor;
 
 import okhttp3.*;
 import okio.Buffer;
+import okio.BufferedSink;
 import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
+import tech.request.core.request.capture.BodyCapture;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.handler.RequestLogHandler;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * OkHttp请求拦截器
@@ -85,37 +88,38 @@ public class OkHttpRequestInterceptor implements Interceptor {
         String requestBody = extractRequestBody(request);
         
         Response response;
-        LocalDateTime endTime = null;
-        boolean success = true;
-        String errorMessage = null;
-        int statusCode = 0;
-        Map<String, String> responseHeaders = null;
-        String responseBody = null;
-        
         try {
             // 执行请求
             response = chain.proceed(request);
-            endTime = LocalDateTime.now();
-            
-            // 提取响应信息
-            statusCode = response.code();
-            responseHeaders = extractHeaders(response.headers());
-            responseBody = extractResponseBody(response);
-            
-            success = statusCode >= 200 && statusCode < 300;
         } catch (IOException e) {
-            endTime = LocalDateTime.now();
-            success = false;
-            errorMessage = e.getMessage();
+            requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
+                    0, null, null, startTime, LocalDateTime.now(), false, e.getMessage());
             throw e;
-        } finally {
-            // 记录请求日志
+        }
+        LocalDateTime endTime = LocalDateTime.now();
+        
+        // 提取响应信息
+        int statusCode = response.code();
+        Map<String, String> responseHeaders = extractHeaders(response.headers());
+        boolean success = statusCode >= 200 && statusCode < 300;
+        
+        ResponseBody body = response.body();
+        String contentType = body != null && body.contentType() != null ? body.contentType().toString() : null;
+        if (!property.isIncludeResponseBody() || body == null || !BodyCapture.isTextual(contentType)) {
+            String responseBody = body != null && property.isIncludeResponseBody()
+                    ? BodyCapture.binaryPlaceholder(contentType) : null;
             requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
-                    statusCode, responseHeaders, responseBody, startTime, endTime, success, errorMessage);
+                    statusCode, responseHeaders, responseBody, startTime, endTime, success, null);
+            return response;
         }
         
-        // 返回原始响应
-        return response;
+        // 调用方读取响应体时旁路复制前maxBodySize个字节，读完或关闭后记录日志
+        BodyCapture capture = new BodyCapture(property.getMaxBodySize(), BodyCapture.resolveCharset(contentType));
+        Runnable onComplete = () -> requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
+                statusCode, responseHeaders, capture.toText(), startTime, endTime, success, null);
+        return response.newBuilder()
+                .body(new CapturingResponseBody(body, capture, onComplete))
+                .build();
     }
     
     /**
@@ -138,7 +142,7 @@ public class OkHttpRequestInterceptor implements Interceptor {
     }
     
     /**
-     * 提取请求体
+     * 提取请求体，只读取前maxBodySize个字节，一次性请求体不读取
      * 
      * @param request 请求对象
      * @return 请求体字符串
@@ -150,13 +154,20 @@ public class OkHttpRequestInterceptor implements Interceptor {
         
         try {
             RequestBody requestBody = request.body();
-            if (requestBody == null) {
+            if (requestBody == null || requestBody.isOneShot() || requestBody.isDuplex()) {
                 return null;
             }
             
-            Buffer buffer = new Buffer();
-            requestBody.writeTo(buffer);
-            return buffer.readString(StandardCharsets.UTF_8);
+            String contentType = requestBody.contentType() != null ? requestBody.contentType().toString() : null;
+            if (!BodyCapture.isTextual(contentType)) {
+                return BodyCapture.binaryPlaceholder(contentType);
+            }
+            
+            BodyCapture capture = new BodyCapture(property.getMaxBodySize(), BodyCapture.resolveCharset(contentType));
+            BufferedSink sink = Okio.buffer(Okio.sink(capture));
+            requestBody.writeTo(sink);
+            sink.flush();
+            return capture.toText();
         } catch (Exception e) {
             log.warn("Failed to extract request body: {}", e.getMessage());
             return "[Failed to extract request body]";
@@ -164,36 +175,80 @@ public class OkHttpRequestInterceptor implements Interceptor {
     }
     
     /**
-     * 提取响应体
+     * 旁路复制的响应体
      * 
-     * @param response 响应对象
-     * @return 响应体字符串
+     * <p>调用方流式读取原始响应体，读取过的字节同时写入有界捕获，读到末尾或关闭时执行一次回调。</p>
      */
-    private String extractResponseBody(Response response) {
-        if (!property.isIncludeResponseBody() || response.body() == null) {
-            return null;
+    private static class CapturingResponseBody extends ResponseBody {
+        
+        private final ResponseBody delegate;
+        private final BodyCapture capture;
+        private final Runnable onComplete;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private BufferedSource source;
+        
+        CapturingResponseBody(ResponseBody delegate, BodyCapture capture, Runnable onComplete) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.onComplete = onComplete;
         }
         
-        try {
-            ResponseBody responseBody = response.body();
-            if (responseBody == null) {
-                return null;
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+        
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+        
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        long read;
+                        try {
+                            read = super.read(sink, byteCount);
+                        } catch (IOException e) {
+                            complete();
+                            throw e;
+                        }
+                        if (read == -1) {
+                            complete();
+                        } else {
+                            long copy = Math.min(read, capture.remaining());
+                            if (copy > 0) {
+                                sink.copyTo(capture, sink.size() - read, copy);
+                            }
+                            capture.discard(read - copy);
+                        }
+                        return read;
+                    }
+                    
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            complete();
+                        }
+                    }
+                });
             }
-            
-            // 读取响应体内容
-            BufferedSource source = responseBody.source();
-            source.request(Long.MAX_VALUE);
-            String body = source.getBuffer().clone().readString(StandardCharsets.UTF_8);
-            
-            // 限制响应体大小
-            if (StringUtils.hasText(body) && body.length() > property.getMaxBodySize()) {
-                return body.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
+            return source;
+        }
+        
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    onComplete.run();
+                } catch (Exception e) {
+                    log.warn("Failed to log response: {}", e.getMessage());
+                }
             }
-            
-            return body;
-        } catch (Exception e) {
-            log.warn("Failed to extract response body: {}", e.getMessage());
-            return "[Failed to extract response body]";
         }
     }
-}
\ No newline at end of file
+}
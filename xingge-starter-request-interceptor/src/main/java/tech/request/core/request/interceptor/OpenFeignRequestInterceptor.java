@@ -13,7 +13,7 @@ import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
+import tech.request.core.request.capture.BodyCapture;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.handler.RequestLogHandler;
 
@@ -116,14 +116,8 @@ public class OpenFeignRequestInterceptor implements RequestInterceptor {
         }
         
         try {
-            String content = new String(template.body(), StandardCharsets.UTF_8);
-            
-            // 限制请求体大小
-            if (StringUtils.hasText(content) && content.length() > property.getMaxBodySize()) {
-                return content.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
-            }
-            
-            return content;
+            return BodyCapture.decode(template.body(), property.getMaxBodySize(),
+                    template.requestCharset() != null ? template.requestCharset() : StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.warn("Failed to extract request body: {}", e.getMessage());
             return "[Failed to extract request body]";
@@ -171,22 +165,53 @@ public class OpenFeignRequestInterceptor implements RequestInterceptor {
                               Map<String, Object> requestParams, String requestBody,
                               Integer statusCode, Map<String, String> responseHeaders, 
                               String responseBody, Throwable error) {
-        LocalDateTime startTime = requestStartTimeThreadLocal.get();
+        LocalDateTime startTime = pollStartTime();
         if (startTime != null) {
-            try {
-                LocalDateTime endTime = LocalDateTime.now();
-                boolean success = error == null && (statusCode == null || statusCode < 400);
-                String errorMessage = error != null ? error.getMessage() : null;
-                
-                // 记录请求日志
-                requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, 
-                    requestHeaders, requestBody, statusCode != null ? statusCode : 0, 
-                    responseHeaders, responseBody, startTime, endTime, 
-                    success, errorMessage);
-            } finally {
-                // 清理线程本地变量
-                requestStartTimeThreadLocal.remove();
-            }
+            handleResponse(startTime, LocalDateTime.now(), method, url, requestHeaders, requestParams,
+                    requestBody, statusCode, responseHeaders, responseBody, error);
+        }
+    }
+    
+    /**
+     * 处理响应信息，用于响应体读取完成后延迟记录日志
+     * 
+     * @param startTime 请求开始时间
+     * @param endTime 响应时间
+     * @param method 请求方法
+     * @param url 请求URL
+     * @param requestHeaders 请求头
+     * @param requestParams 请求参数
+     * @param requestBody 请求体
+     * @param statusCode 响应状态码
+     * @param responseHeaders 响应头
+     * @param responseBody 响应体
+     * @param error 异常信息
+     */
+    public void handleResponse(LocalDateTime startTime, LocalDateTime endTime, String method, String url,
+                               Map<String, String> requestHeaders, Map<String, Object> requestParams,
+                               String requestBody, Integer statusCode, Map<String, String> responseHeaders,
+                               String responseBody, Throwable error) {
+        if (startTime == null) {
+            return;
         }
+        boolean success = error == null && (statusCode == null || statusCode < 400);
+        String errorMessage = error != null ? error.getMessage() : null;
+        
+        // 记录请求日志
+        requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, 
+            requestHeaders, requestBody, statusCode != null ? statusCode : 0, 
+            responseHeaders, responseBody, startTime, endTime, 
+            success, errorMessage);
+    }
+    
+    /**
+     * 取出当前线程的请求开始时间并清理线程本地变量
+     * 
+     * @return 请求开始时间，未记录时返回null
+     */
+    public LocalDateTime pollStartTime() {
+        LocalDateTime startTime = requestStartTimeThreadLocal.get();
+        requestStartTimeThreadLocal.remove();
+        return startTime;
     }
-}
\ No newline at end of file
+}
@@ -11,20 +11,24 @@ package tech.request.core.request.interceptor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.util.StreamUtils;
-import org.springframework.util.StringUtils;
+import tech.request.core.request.capture.BodyCapture;
+import tech.request.core.request.capture.TeeInputStream;
 import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.handler.RequestLogHandler;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * RestTemplate请求拦截器
@@ -81,40 +85,38 @@ public class RestTemplateRequestInterceptor implements ClientHttpRequestIntercep
         String method = request.getMethod().name();
         String url = request.getURI().toString();
         Map<String, String> headers = extractHeaders(request);
-        String requestBody = extractRequestBody(body);
+        String requestBody = extractRequestBody(request, body);
         
         ClientHttpResponse response;
-        LocalDateTime endTime = null;
-        boolean success = true;
-        String errorMessage = null;
-        int statusCode = 0;
-        Map<String, String> responseHeaders = null;
-        String responseBody = null;
-        
         try {
             // 执行请求
             response = execution.execute(request, body);
-            endTime = LocalDateTime.now();
-            
-            // 提取响应信息
-            statusCode = response.getStatusCode().value();
-            responseHeaders = extractResponseHeaders(response);
-            responseBody = extractResponseBody(response);
-            
-            success = statusCode >= 200 && statusCode < 300;
         } catch (IOException e) {
-            endTime = LocalDateTime.now();
-            success = false;
-            errorMessage = e.getMessage();
+            requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
+                    0, null, null, startTime, LocalDateTime.now(), false, e.getMessage());
             throw e;
-        } finally {
-            // 记录请求日志
+        }
+        LocalDateTime endTime = LocalDateTime.now();
+        
+        // 提取响应信息
+        int statusCode = response.getRawStatusCode();
+        Map<String, String> responseHeaders = extractResponseHeaders(response);
+        boolean success = statusCode >= 200 && statusCode < 300;
+        
+        MediaType mediaType = response.getHeaders().getContentType();
+        String contentType = mediaType != null ? mediaType.toString() : null;
+        if (!property.isIncludeResponseBody() || !BodyCapture.isTextual(contentType)) {
+            String responseBody = property.isIncludeResponseBody() ? BodyCapture.binaryPlaceholder(contentType) : null;
             requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
-                    statusCode, responseHeaders, responseBody, startTime, endTime, success, errorMessage);
+                    statusCode, responseHeaders, responseBody, startTime, endTime, success, null);
+            return response;
         }
         
-        // 返回原始响应
-        return response;
+        // 调用方读取响应体时旁路复制前maxBodySize个字节，读完或关闭后记录日志
+        BodyCapture capture = new BodyCapture(property.getMaxBodySize(), BodyCapture.resolveCharset(contentType));
+        Runnable onComplete = () -> requestLogHandler.handleRequestLog(CLIENT_TYPE, method, url, headers, requestBody,
+                statusCode, responseHeaders, capture.toText(), startTime, endTime, success, null);
+        return new CapturingClientHttpResponse(response, capture, onComplete);
     }
     
     /**
@@ -158,25 +160,24 @@ public class RestTemplateRequestInterceptor implements ClientHttpRequestIntercep
     }
     
     /**
-     * 提取请求体
+     * 提取请求体，只解码前maxBodySize个字节
      * 
+     * @param request 请求对象
      * @param body 请求体字节数组
      * @return 请求体字符串
      */
-    private String extractRequestBody(byte[] body) {
+    private String extractRequestBody(HttpRequest request, byte[] body) {
         if (!property.isIncludeRequestBody() || body == null || body.length == 0) {
             return null;
         }
         
         try {
-            String content = new String(body, StandardCharsets.UTF_8);
-            
-            // 限制请求体大小
-            if (StringUtils.hasText(content) && content.length() > property.getMaxBodySize()) {
-                return content.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
+            MediaType mediaType = request.getHeaders().getContentType();
+            String contentType = mediaType != null ? mediaType.toString() : null;
+            if (!BodyCapture.isTextual(contentType)) {
+                return BodyCapture.binaryPlaceholder(contentType);
             }
-            
-            return content;
+            return BodyCapture.decode(body, property.getMaxBodySize(), BodyCapture.resolveCharset(contentType));
         } catch (Exception e) {
             log.warn("Failed to extract request body: {}", e.getMessage());
             return "[Failed to extract request body]";
@@ -184,33 +185,66 @@ public class RestTemplateRequestInterceptor implements ClientHttpRequestIntercep
     }
     
     /**
-     * 提取响应体
+     * 旁路复制的响应
      * 
-     * @param response 响应对象
-     * @return 响应体字符串
+     * <p>调用方流式读取原始响应体，读取过的字节同时写入有界捕获，读到末尾或关闭响应时执行一次回调。</p>
      */
-    private String extractResponseBody(ClientHttpResponse response) {
-        if (!property.isIncludeResponseBody()) {
-            return null;
+    private static class CapturingClientHttpResponse implements ClientHttpResponse {
+        
+        private final ClientHttpResponse delegate;
+        private final BodyCapture capture;
+        private final Runnable onComplete;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private InputStream body;
+        
+        CapturingClientHttpResponse(ClientHttpResponse delegate, BodyCapture capture, Runnable onComplete) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.onComplete = onComplete;
         }
         
-        try {
-            byte[] bodyBytes = StreamUtils.copyToByteArray(response.getBody());
-            if (bodyBytes.length == 0) {
-                return null;
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+        
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return delegate.getRawStatusCode();
+        }
+        
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+        
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+        
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new TeeInputStream(delegate.getBody(), capture, this::complete);
             }
-            
-            String content = new String(bodyBytes, StandardCharsets.UTF_8);
-            
-            // 限制响应体大小
-            if (StringUtils.hasText(content) && content.length() > property.getMaxBodySize()) {
-                return content.substring(0, (int) property.getMaxBodySize()) + "... (truncated)";
+            return body;
+        }
+        
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                // 未读完响应体直接关闭时也记录日志
+                complete();
+            }
+        }
+        
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                onComplete.run();
             }
-            
-            return content;
-        } catch (Exception e) {
-            log.warn("Failed to extract response body: {}", e.getMessage());
-            return "[Failed to extract response body]";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 请求日志批量写入管道
+ *
+ * 功能说明：
+ * - 有界队列缓冲请求日志，多生产者写入不阻塞
+ * - 单独的消费线程按数量或最大延迟批量写入存储
+ * - 队列满时按配置的溢出策略丢弃
+ * - 提供队列深度、丢弃数量、写入耗时等统计
+ */
+package tech.request.core.request.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.properties.RequestInterceptorProperty;
+import tech.request.core.request.storage.RequestLogStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求日志批量写入管道
+ *
+ * <p>位于 {@link tech.request.core.request.handler.RequestLogHandler} 与 {@link RequestLogStorage} 之间：</p>
+ * <ul>
+ *   <li>业务线程只做一次非阻塞入队，不会因存储变慢而阻塞</li>
+ *   <li>消费线程凑满 batchSize 条或等待超过 maxLatency 后调用 {@link RequestLogStorage#batchStore(List)}</li>
+ *   <li>队列满时按 {@link RequestInterceptorProperty.OverflowPolicy} 处理，写入压力不会被放大</li>
+ * </ul>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class RequestLogBatchPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLogBatchPipeline.class);
+
+    /**
+     * 请求日志存储接口
+     */
+    private final RequestLogStorage requestLogStorage;
+
+    /**
+     * 批量写入配置
+     */
+    private final RequestInterceptorProperty.BatchConfig config;
+
+    /**
+     * 有界缓冲队列
+     */
+    private final BlockingQueue<RequestLogInfo> queue;
+
+    /**
+     * 消费线程
+     */
+    private final Thread drainer;
+
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running = true;
+
+    /**
+     * 入队数量
+     */
+    private final LongAdder enqueuedCount = new LongAdder();
+
+    /**
+     * 溢出丢弃数量
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * 写入成功的日志数量
+     */
+    private final LongAdder storedCount = new LongAdder();
+
+    /**
+     * 写入失败的日志数量
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * 批量写入次数
+     */
+    private final LongAdder flushCount = new LongAdder();
+
+    /**
+     * 批量写入总耗时（毫秒）
+     */
+    private final LongAdder flushTimeMillis = new LongAdder();
+
+    /**
+     * 最近一次批量写入耗时（毫秒）
+     */
+    private final AtomicLong lastFlushLatencyMillis = new AtomicLong();
+
+    /**
+     * 最大批量写入耗时（毫秒）
+     */
+    private final AtomicLong maxFlushLatencyMillis = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param requestLogStorage 请求日志存储接口
+     * @param config 批量写入配置
+     */
+    public RequestLogBatchPipeline(RequestLogStorage requestLogStorage, RequestInterceptorProperty.BatchConfig config) {
+        this.requestLogStorage = requestLogStorage;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.drainer = new Thread(this::drainLoop, "request-log-batch-drainer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+        logger.info("请求日志批量写入管道启动，队列容量: {}, 批量大小: {}, 最大延迟: {}ms, 溢出策略: {}",
+                config.getQueueCapacity(), config.getBatchSize(), config.getMaxLatencyMillis(), config.getOverflowPolicy());
+    }
+
+    /**
+     * 提交请求日志，不阻塞
+     *
+     * @param logInfo 请求日志信息
+     * @return true表示已入队，false表示被丢弃
+     */
+    public boolean offer(RequestLogInfo logInfo) {
+        if (logInfo == null) {
+            return false;
+        }
+        if (!running) {
+            droppedCount.increment();
+            return false;
+        }
+        if (queue.offer(logInfo)) {
+            enqueuedCount.increment();
+            return true;
+        }
+        boolean replaceOldest;
+        switch (config.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                replaceOldest = true;
+                break;
+            case SAMPLE:
+                // 按比例保留新日志，保留时丢弃最旧的一条
+                replaceOldest = ThreadLocalRandom.current().nextDouble() < config.getOverflowSampleRate();
+                break;
+            case DROP_NEWEST:
+            default:
+                replaceOldest = false;
+                break;
+        }
+        if (replaceOldest && queue.poll() != null) {
+            droppedCount.increment();
+            if (queue.offer(logInfo)) {
+                enqueuedCount.increment();
+                return true;
+            }
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * 消费循环：凑满一批或超过最大延迟后写入
+     */
+    private void drainLoop() {
+        int batchSize = Math.max(1, config.getBatchSize());
+        long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, config.getMaxLatencyMillis()));
+        // 关闭时不中断写入线程，空闲等待最多500ms以便及时感知关闭
+        long idleWaitNanos = Math.min(maxLatencyNanos, TimeUnit.MILLISECONDS.toNanos(500));
+        List<RequestLogInfo> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                RequestLogInfo first = queue.poll(idleWaitNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxLatencyNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    RequestLogInfo next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // 管道不使用中断停止，意外的中断只写入已取出的日志，继续运行，避免之后的日志全部被丢弃
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 批量写入存储，异常只记录日志
+     *
+     * @param batch 请求日志列表
+     */
+    private void flush(List<RequestLogInfo> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            requestLogStorage.batchStore(new ArrayList<>(batch));
+            storedCount.add(batch.size());
+        } catch (Exception e) {
+            failedCount.add(batch.size());
+            logger.error("批量写入请求日志失败，数量: {}", batch.size(), e);
+        } finally {
+            long latency = System.currentTimeMillis() - start;
+            flushCount.increment();
+            flushTimeMillis.add(latency);
+            lastFlushLatencyMillis.set(latency);
+            maxFlushLatencyMillis.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * 关闭管道，等待队列中剩余的日志写入完成
+     */
+    public void shutdown() {
+        // 不中断写入线程，避免驱动把中断转换为写入失败，队列为空后线程自然退出
+        running = false;
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(Math.max(1L, config.getShutdownTimeoutSeconds())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("请求日志批量写入管道关闭，{} 条日志未写入", queue.size());
+        }
+        logger.info("请求日志批量写入管道已关闭，统计: {}", getStatistics());
+    }
+
+    /**
+     * 获取当前队列深度
+     *
+     * @return 队列深度
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Statistics getStatistics() {
+        long flushes = flushCount.sum();
+        return new Statistics(queue.size(), enqueuedCount.sum(), droppedCount.sum(), storedCount.sum(),
+                failedCount.sum(), flushes, flushes == 0 ? 0L : flushTimeMillis.sum() / flushes,
+                lastFlushLatencyMillis.get(), maxFlushLatencyMillis.get());
+    }
+
+    /**
+     * 管道统计信息
+     */
+    public static class Statistics {
+        private final int queueDepth;
+        private final long enqueued;
+        private final long dropped;
+        private final long stored;
+        private final long failed;
+        private final long flushes;
+        private final long avgFlushLatencyMillis;
+        private final long lastFlushLatencyMillis;
+        private final long maxFlushLatencyMillis;
+
+        public Statistics(int queueDepth, long enqueued, long dropped, long stored, long failed, long flushes,
+                          long avgFlushLatencyMillis, long lastFlushLatencyMillis, long maxFlushLatencyMillis) {
+            this.queueDepth = queueDepth;
+            this.enqueued = enqueued;
+            this.dropped = dropped;
+            this.stored = stored;
+            this.failed = failed;
+            this.flushes = flushes;
+            this.avgFlushLatencyMillis = avgFlushLatencyMillis;
+            this.lastFlushLatencyMillis = lastFlushLatencyMillis;
+            this.maxFlushLatencyMillis = maxFlushLatencyMillis;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getEnqueued() {
+            return enqueued;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getStored() {
+            return stored;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getFlushes() {
+            return flushes;
+        }
+
+        public long getAvgFlushLatencyMillis() {
+            return avgFlushLatencyMillis;
+        }
+
+        public long getLastFlushLatencyMillis() {
+            return lastFlushLatencyMillis;
+        }
+
+        public long getMaxFlushLatencyMillis() {
+            return maxFlushLatencyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "queueDepth=" + queueDepth + ", enqueued=" + enqueued + ", dropped=" + dropped
+                    + ", stored=" + stored + ", failed=" + failed + ", flushes=" + flushes
+                    + ", avgFlushLatency=" + avgFlushLatencyMillis + "ms, maxFlushLatency=" + maxFlushLatencyMillis + "ms";
+        }
+    }
+}
@@ -147,6 +147,26 @@ public class RequestInterceptorProperty {
      */
     private HttpClientConfig httpClient = new HttpClientConfig();
 
+    /**
+     * 批量写入配置
+     */
+    private BatchConfig batch = new BatchConfig();
+
+    /**
+     * 采样配置
+     */
+    private SamplingConfig sampling = new SamplingConfig();
+
+    /**
+     * 本地磁盘暂存配置
+     */
+    private SpoolConfig spool = new SpoolConfig();
+
+    /**
+     * 多存储隔离配置
+     */
+    private IsolationConfig isolation = new IsolationConfig();
+
     /**
      * 数据存储类型枚举
      */
@@ -177,6 +197,24 @@ public class RequestInterceptorProperty {
         API
     }
 
+    /**
+     * 批量写入队列溢出策略枚举
+     */
+    public enum OverflowPolicy {
+        /**
+         * 丢弃最新的日志
+         */
+        DROP_NEWEST,
+        /**
+         * 丢弃最旧的日志
+         */
+        DROP_OLDEST,
+        /**
+         * 按比例保留最新的日志（丢弃最旧的），其余丢弃
+         */
+        SAMPLE
+    }
+
     /**
      * 日志配置类
      */
@@ -557,6 +595,413 @@ public class RequestInterceptorProperty {
         }
     }
 
+    /**
+     * 批量写入配置类
+     */
+    public static class BatchConfig {
+        /**
+         * 是否启用批量写入，启用后请求日志先进入有界队列，由单独线程批量写入存储
+         */
+        private boolean enabled = true;
+
+        /**
+         * 队列容量
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * 每批最大数量
+         */
+        private int batchSize = 100;
+
+        /**
+         * 最大等待时间（毫秒），未凑满一批时超过该时间也会写入
+         */
+        private long maxLatencyMillis = 1000;
+
+        /**
+         * 队列满时的溢出策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        /**
+         * 溢出策略为 SAMPLE 时保留新日志的比例，取值 0~1
+         */
+        private double overflowSampleRate = 0.1;
+
+        /**
+         * 关闭时等待剩余日志写入的最长时间（秒）
+         */
+        private long shutdownTimeoutSeconds = 5;
+
+        // getter和setter方法
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        public void setMaxLatencyMillis(long maxLatencyMillis) {
+            this.maxLatencyMillis = maxLatencyMillis;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public double getOverflowSampleRate() {
+            return overflowSampleRate;
+        }
+
+        public void setOverflowSampleRate(double overflowSampleRate) {
+            this.overflowSampleRate = overflowSampleRate;
+        }
+
+        public long getShutdownTimeoutSeconds() {
+            return shutdownTimeoutSeconds;
+        }
+
+        public void setShutdownTimeoutSeconds(long shutdownTimeoutSeconds) {
+            this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        }
+    }
+
+    /**
+     * 采样配置类
+     */
+    public static class SamplingConfig {
+        /**
+         * 是否启用采样，未启用时记录所有请求
+         */
+        private boolean enabled = false;
+
+        /**
+         * 是否始终保留异常和非2xx的请求
+         */
+        private boolean alwaysKeepErrors = true;
+
+        /**
+         * 慢请求阈值（毫秒），耗时超过该值的请求始终保留，小于等于0表示不判断
+         */
+        private long slowThresholdMillis = 1000;
+
+        /**
+         * 成功请求的默认采样率，取值 0~1
+         */
+        private double successRate = 0.1;
+
+        /**
+         * 每秒最多保留的成功请求数量，小于等于0表示不限制
+         */
+        private int maxPerSecond = 100;
+
+        /**
+         * 按 host/path 配置的采样规则，按顺序匹配第一条
+         */
+        private java.util.List<SamplingRule> rules = new java.util.ArrayList<>();
+
+        // getter和setter方法
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isAlwaysKeepErrors() {
+            return alwaysKeepErrors;
+        }
+
+        public void setAlwaysKeepErrors(boolean alwaysKeepErrors) {
+            this.alwaysKeepErrors = alwaysKeepErrors;
+        }
+
+        public long getSlowThresholdMillis() {
+            return slowThresholdMillis;
+        }
+
+        public void setSlowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+        }
+
+        public double getSuccessRate() {
+            return successRate;
+        }
+
+        public void setSuccessRate(double successRate) {
+            this.successRate = successRate;
+        }
+
+        public int getMaxPerSecond() {
+            return maxPerSecond;
+        }
+
+        public void setMaxPerSecond(int maxPerSecond) {
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        public java.util.List<SamplingRule> getRules() {
+            return rules;
+        }
+
+        public void setRules(java.util.List<SamplingRule> rules) {
+            this.rules = rules;
+        }
+    }
+
+    /**
+     * 采样规则类
+     */
+    public static class SamplingRule {
+        /**
+         * 主机名，为空或 * 表示匹配所有主机
+         */
+        private String host;
+
+        /**
+         * 路径，支持Ant风格通配符，为空表示匹配所有路径
+         */
+        private String path;
+
+        /**
+         * 成功请求的采样率，取值 0~1
+         */
+        private double rate = 1.0;
+
+        // getter和setter方法
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+    }
+
+    /**
+     * 本地磁盘暂存配置类
+     */
+    public static class SpoolConfig {
+        /**
+         * 是否启用本地磁盘暂存，启用后存储失败的日志写入本地文件，存储恢复后重放
+         */
+        private boolean enabled = false;
+
+        /**
+         * 暂存根目录，实际目录为 根目录/应用名/存储类型，同一应用的多个进程通过目录文件锁使用不同的槽位
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + java.io.File.separator + "xg-request-log-spool";
+
+        /**
+         * 单个段文件大小（字节），写满后新建段文件
+         */
+        private long segmentSize = 64L * 1024 * 1024;
+
+        /**
+         * 每种存储类型最多占用的磁盘空间（字节），超出后新的日志被丢弃
+         */
+        private long maxDiskSize = 1024L * 1024 * 1024;
+
+        /**
+         * 段文件保留时间（小时），超过后未重放的段文件被删除，小于等于0表示不删除
+         */
+        private long retentionHours = 72;
+
+        /**
+         * 重放检查间隔（毫秒）
+         */
+        private long replayIntervalMillis = 5000;
+
+        /**
+         * 重放时每批写入的数量
+         */
+        private int replayBatchSize = 500;
+
+        /**
+         * 是否每次写入后强制刷盘
+         */
+        private boolean syncOnWrite = false;
+
+        // getter和setter方法
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public long getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(long segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public long getMaxDiskSize() {
+            return maxDiskSize;
+        }
+
+        public void setMaxDiskSize(long maxDiskSize) {
+            this.maxDiskSize = maxDiskSize;
+        }
+
+        public long getRetentionHours() {
+            return retentionHours;
+        }
+
+        public void setRetentionHours(long retentionHours) {
+            this.retentionHours = retentionHours;
+        }
+
+        public long getReplayIntervalMillis() {
+            return replayIntervalMillis;
+        }
+
+        public void setReplayIntervalMillis(long replayIntervalMillis) {
+            this.replayIntervalMillis = replayIntervalMillis;
+        }
+
+        public int getReplayBatchSize() {
+            return replayBatchSize;
+        }
+
+        public void setReplayBatchSize(int replayBatchSize) {
+            this.replayBatchSize = replayBatchSize;
+        }
+
+        public boolean isSyncOnWrite() {
+            return syncOnWrite;
+        }
+
+        public void setSyncOnWrite(boolean syncOnWrite) {
+            this.syncOnWrite = syncOnWrite;
+        }
+    }
+
+    /**
+     * 多存储隔离配置类
+     */
+    public static class IsolationConfig {
+        /**
+         * 是否启用隔离，启用后组合存储中的每个存储使用单独的队列、线程和熔断器
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个存储的队列容量（批次数量），队列满时丢弃
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * 连续失败多少次后熔断
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * 熔断持续时间（毫秒），之后放行一次试探写入
+         */
+        private long openDurationMillis = 30000;
+
+        /**
+         * 关闭时等待队列写入完成的最长时间（秒）
+         */
+        private long shutdownTimeoutSeconds = 5;
+
+        // getter和setter方法
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public long getOpenDurationMillis() {
+            return openDurationMillis;
+        }
+
+        public void setOpenDurationMillis(long openDurationMillis) {
+            this.openDurationMillis = openDurationMillis;
+        }
+
+        public long getShutdownTimeoutSeconds() {
+            return shutdownTimeoutSeconds;
+        }
+
+        public void setShutdownTimeoutSeconds(long shutdownTimeoutSeconds) {
+            this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        }
+    }
+
     // 主类的getter和setter方法
     public boolean isEnabled() {
         return enabled;
@@ -680,6 +1125,38 @@ public class RequestInterceptorProperty {
         this.httpClient = httpClient;
     }
 
+    public BatchConfig getBatch() {
+        return batch;
+    }
+
+    public void setBatch(BatchConfig batch) {
+        this.batch = batch;
+    }
+
+    public SamplingConfig getSampling() {
+        return sampling;
+    }
+
+    public void setSampling(SamplingConfig sampling) {
+        this.sampling = sampling;
+    }
+
+    public SpoolConfig getSpool() {
+        return spool;
+    }
+
+    public void setSpool(SpoolConfig spool) {
+        this.spool = spool;
+    }
+
+    public IsolationConfig getIsolation() {
+        return isolation;
+    }
+
+    public void setIsolation(IsolationConfig isolation) {
+        this.isolation = isolation;
+    }
+
     /**
      * 获取是否打印客户端IP地址
      *
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 请求日志采样器
+ *
+ * 功能说明：
+ * - 异常、非2xx和慢请求始终保留
+ * - 成功请求按 host/path 规则配置的比例采样
+ * - 令牌桶限制每秒保留的成功请求数量
+ */
+package tech.request.core.request.sampling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import tech.request.core.request.properties.RequestInterceptorProperty;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 请求日志采样器
+ *
+ * <p>位于 {@link tech.request.core.request.handler.RequestLogHandler} 构建日志之前，决定一次请求是否记录：</p>
+ * <ul>
+ *   <li>异常、非2xx响应、耗时超过慢请求阈值的请求始终保留</li>
+ *   <li>成功请求按第一条匹配的 host/path 规则的比例采样，未匹配时使用默认比例</li>
+ *   <li>采样命中的成功请求再经过每秒限额的令牌桶，日志量随故障增长而不是随流量增长</li>
+ * </ul>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class RequestLogSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLogSampler.class);
+
+    /**
+     * 采样率缓存的最大数量，避免路径中包含ID时无限增长
+     */
+    private static final int MAX_CACHED_RATES = 10000;
+
+    /**
+     * 采样配置
+     */
+    private final RequestInterceptorProperty.SamplingConfig config;
+
+    /**
+     * 路径匹配器
+     */
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * host/path 对应的采样率缓存
+     */
+    private final Map<String, Double> rateCache = new ConcurrentHashMap<>();
+
+    /**
+     * 令牌发放间隔（纳秒），小于等于0表示不限流
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * 允许的突发时长（纳秒），即一秒的令牌量
+     */
+    private final long burstNanos;
+
+    /**
+     * 理论到达时间（纳秒），令牌桶按GCRA方式实现，无锁
+     */
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    /**
+     * 始终保留的数量（异常、非2xx、慢请求）
+     */
+    private final LongAdder keptAlwaysCount = new LongAdder();
+
+    /**
+     * 采样保留的数量
+     */
+    private final LongAdder keptSampledCount = new LongAdder();
+
+    /**
+     * 未命中采样的数量
+     */
+    private final LongAdder sampledOutCount = new LongAdder();
+
+    /**
+     * 被令牌桶限流的数量
+     */
+    private final LongAdder throttledCount = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param config 采样配置
+     */
+    public RequestLogSampler(RequestInterceptorProperty.SamplingConfig config) {
+        this.config = config;
+        int maxPerSecond = config.getMaxPerSecond();
+        this.emissionIntervalNanos = maxPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxPerSecond : 0L;
+        this.burstNanos = TimeUnit.SECONDS.toNanos(1);
+        logger.info("请求日志采样启用，默认采样率: {}, 慢请求阈值: {}ms, 每秒上限: {}, 规则数量: {}",
+                config.getSuccessRate(), config.getSlowThresholdMillis(), maxPerSecond,
+                config.getRules() != null ? config.getRules().size() : 0);
+    }
+
+    /**
+     * 判断是否记录该请求
+     *
+     * @param url 请求URL
+     * @param responseStatus 响应状态码
+     * @param success 是否成功
+     * @param errorMessage 错误信息
+     * @param durationMillis 耗时（毫秒）
+     * @return true表示记录
+     */
+    public boolean shouldSample(String url, int responseStatus, boolean success, String errorMessage, long durationMillis) {
+        boolean error = !success || errorMessage != null || responseStatus < 200 || responseStatus >= 300;
+        if (error && config.isAlwaysKeepErrors()) {
+            keptAlwaysCount.increment();
+            return true;
+        }
+        if (config.getSlowThresholdMillis() > 0 && durationMillis >= config.getSlowThresholdMillis()) {
+            keptAlwaysCount.increment();
+            return true;
+        }
+
+        double rate = resolveRate(url);
+        if (rate <= 0 || (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            sampledOutCount.increment();
+            return false;
+        }
+        if (!tryAcquire()) {
+            throttledCount.increment();
+            return false;
+        }
+        keptSampledCount.increment();
+        return true;
+    }
+
+    /**
+     * 解析URL对应的采样率
+     *
+     * @param url 请求URL
+     * @return 采样率
+     */
+    private double resolveRate(String url) {
+        List<RequestInterceptorProperty.SamplingRule> rules = config.getRules();
+        if (rules == null || rules.isEmpty() || !StringUtils.hasText(url)) {
+            return config.getSuccessRate();
+        }
+        String host = "";
+        String path = "/";
+        try {
+            URI uri = URI.create(url);
+            host = uri.getHost() != null ? uri.getHost() : "";
+            path = StringUtils.hasText(uri.getRawPath()) ? uri.getRawPath() : "/";
+        } catch (IllegalArgumentException e) {
+            logger.debug("解析请求URL失败，使用默认采样率: {}", url);
+            return config.getSuccessRate();
+        }
+
+        String cacheKey = host + path;
+        Double cached = rateCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        double rate = config.getSuccessRate();
+        for (RequestInterceptorProperty.SamplingRule rule : rules) {
+            if (matchHost(rule.getHost(), host) && matchPath(rule.getPath(), path)) {
+                rate = rule.getRate();
+                break;
+            }
+        }
+        if (rateCache.size() < MAX_CACHED_RATES) {
+            rateCache.put(cacheKey, rate);
+        }
+        return rate;
+    }
+
+    private boolean matchHost(String pattern, String host) {
+        return !StringUtils.hasText(pattern) || "*".equals(pattern) || pattern.equalsIgnoreCase(host);
+    }
+
+    private boolean matchPath(String pattern, String path) {
+        return !StringUtils.hasText(pattern) || pathMatcher.match(pattern, path);
+    }
+
+    /**
+     * 从令牌桶获取一个令牌
+     *
+     * @return true表示获取成功
+     */
+    private boolean tryAcquire() {
+        if (emissionIntervalNanos <= 0) {
+            return true;
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            if (newTat - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 获取始终保留的数量（异常、非2xx、慢请求）
+     *
+     * @return 数量
+     */
+    public long getKeptAlwaysCount() {
+        return keptAlwaysCount.sum();
+    }
+
+    /**
+     * 获取采样保留的数量
+     *
+     * @return 数量
+     */
+    public long getKeptSampledCount() {
+        return keptSampledCount.sum();
+    }
+
+    /**
+     * 获取未命中采样的数量
+     *
+     * @return 数量
+     */
+    public long getSampledOutCount() {
+        return sampledOutCount.sum();
+    }
+
+    /**
+     * 获取被令牌桶限流的数量
+     *
+     * @return 数量
+     */
+    public long getThrottledCount() {
+        return throttledCount.sum();
+    }
+}
@@ -0,0 +1,645 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 请求日志本地磁盘暂存
+ *
+ * 功能说明：
+ * - 分段追加写入本地文件，每条记录带长度和CRC32校验
+ * - 按写入顺序读取段文件重放，重放成功后删除
+ * - 磁盘占用上限和段文件保留时间
+ * - 目录文件锁，同一目录只允许一个进程使用
+ */
+package tech.request.core.request.spool;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.properties.RequestInterceptorProperty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * 请求日志本地磁盘暂存
+ *
+ * <p>存储后端不可用时请求日志追加写入本地段文件，后端恢复后按顺序重放：</p>
+ * <ul>
+ *   <li>记录格式：4字节长度 + 4字节CRC32 + JSON内容，末尾不完整的记录在重放时忽略</li>
+ *   <li>段文件写满 segmentSize 或重放时封存，重放只读取已封存的段文件，重放到暂存为空为止</li>
+ *   <li>重放以批为单位确认，失败时从上次确认的位置继续，进程重启后整个段重新重放（至少一次）</li>
+ *   <li>磁盘占用超过 maxDiskSize 时丢弃新的日志，超过保留时间的段文件被删除</li>
+ *   <li>打开时对目录加文件锁，锁被其他进程持有时抛出 {@link LockedException}，避免重放并删除其他进程仍在写入的段文件</li>
+ *   <li>关闭后拒绝写入，等待进行中的重放批次完成后再释放目录锁</li>
+ * </ul>
+ * <p>写入使用 {@link FileChannel} 顺序追加，不使用内存映射，段文件无需预分配，封存和删除不依赖映射释放。</p>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class RequestLogSpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestLogSpool.class);
+
+    /**
+     * 段文件名前缀
+     */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * 段文件名后缀
+     */
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    /**
+     * 目录锁文件名
+     */
+    private static final String LOCK_FILE = ".lock";
+
+    /**
+     * 记录头长度：长度 + CRC32
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * JSON序列化
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * 暂存目录
+     */
+    private final Path directory;
+
+    /**
+     * 暂存配置
+     */
+    private final RequestInterceptorProperty.SpoolConfig config;
+
+    /**
+     * 写入锁
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * 重放锁，关闭时等待进行中的重放和清理结束后再释放目录锁
+     */
+    private final Object replayLock = new Object();
+
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean closed;
+
+    /**
+     * 目录锁文件通道
+     */
+    private final FileChannel lockChannel;
+
+    /**
+     * 目录文件锁，进程退出时由操作系统释放
+     */
+    private final FileLock directoryLock;
+
+    /**
+     * 已封存待重放的段文件，按写入顺序排列
+     */
+    private final Deque<Path> sealedSegments = new ConcurrentLinkedDeque<>();
+
+    /**
+     * 下一个段文件序号
+     */
+    private long nextSequence;
+
+    /**
+     * 当前写入的段文件
+     */
+    private Path activeSegment;
+
+    /**
+     * 当前写入的段文件通道
+     */
+    private FileChannel activeChannel;
+
+    /**
+     * 当前写入的段文件大小
+     */
+    private long activeSize;
+
+    /**
+     * 最早的段文件已确认重放的位置
+     */
+    private long replayOffset;
+
+    /**
+     * 磁盘占用（字节）
+     */
+    private final AtomicLong diskUsage = new AtomicLong();
+
+    /**
+     * 写入暂存的数量
+     */
+    private final LongAdder spooledCount = new LongAdder();
+
+    /**
+     * 重放成功的数量
+     */
+    private final LongAdder replayedCount = new LongAdder();
+
+    /**
+     * 超出磁盘上限丢弃的数量
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * 校验失败的记录数量
+     */
+    private final LongAdder corruptedCount = new LongAdder();
+
+    /**
+     * 超过保留时间删除的段文件数量
+     */
+    private final LongAdder expiredSegmentCount = new LongAdder();
+
+    /**
+     * 构造函数，加载目录中上次未重放的段文件
+     *
+     * @param directory 暂存目录
+     * @param config 暂存配置
+     * @throws LockedException 目录已被其他进程使用
+     * @throws IOException 目录创建或读取失败
+     */
+    public RequestLogSpool(Path directory, RequestInterceptorProperty.SpoolConfig config) throws IOException {
+        this.directory = directory;
+        this.config = config;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // 同一进程内已有实例使用该目录
+            lock = null;
+        } catch (IOException e) {
+            lockChannel.close();
+            throw e;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new LockedException(directory);
+        }
+        this.directoryLock = lock;
+        try {
+            loadSegments();
+        } catch (IOException e) {
+            releaseLock();
+            throw e;
+        }
+    }
+
+    /**
+     * 加载目录中上次未重放的段文件
+     *
+     * @throws IOException 读取失败
+     */
+    private void loadSegments() throws IOException {
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                existing.add(path);
+            }
+        }
+        Collections.sort(existing);
+        for (Path path : existing) {
+            long size = Files.size(path);
+            if (size == 0) {
+                Files.deleteIfExists(path);
+                continue;
+            }
+            sealedSegments.addLast(path);
+            diskUsage.addAndGet(size);
+            nextSequence = Math.max(nextSequence, parseSequence(path) + 1);
+        }
+        if (!sealedSegments.isEmpty()) {
+            logger.info("加载未重放的请求日志暂存段文件 {} 个，目录: {}", sealedSegments.size(), directory);
+        }
+    }
+
+    /**
+     * 追加写入请求日志
+     *
+     * @param logInfoList 请求日志列表
+     * @return true表示写入成功，false表示超出磁盘上限被丢弃
+     * @throws IOException 写入失败或暂存已关闭
+     */
+    public boolean append(List<RequestLogInfo> logInfoList) throws IOException {
+        if (logInfoList == null || logInfoList.isEmpty()) {
+            return true;
+        }
+        ByteBuffer records = encode(logInfoList);
+        int size = records.remaining();
+        synchronized (writeLock) {
+            if (closed) {
+                throw new IOException("请求日志暂存已关闭: " + directory);
+            }
+            if (diskUsage.get() + size > config.getMaxDiskSize()) {
+                droppedCount.add(logInfoList.size());
+                logger.warn("请求日志暂存超过磁盘上限 {} 字节，丢弃 {} 条日志", config.getMaxDiskSize(), logInfoList.size());
+                return false;
+            }
+            if (activeChannel == null) {
+                openSegment();
+            }
+            while (records.hasRemaining()) {
+                activeChannel.write(records);
+            }
+            if (config.isSyncOnWrite()) {
+                activeChannel.force(false);
+            }
+            activeSize += size;
+            diskUsage.addAndGet(size);
+            spooledCount.add(logInfoList.size());
+            if (activeSize >= config.getSegmentSize()) {
+                sealActive();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否有待重放的日志
+     *
+     * @return true表示有待重放的日志
+     */
+    public boolean hasPending() {
+        if (!sealedSegments.isEmpty()) {
+            return true;
+        }
+        synchronized (writeLock) {
+            return activeSize > 0;
+        }
+    }
+
+    /**
+     * 按写入顺序重放所有待重放的日志，每批成功后确认，全部重放的段文件被删除
+     *
+     * <p>已封存的段文件重放完成后封存当前写入的段文件继续重放，直到暂存为空，
+     * 保证存储恢复后 {@link #hasPending()} 回到 false，新日志不再经过暂存。</p>
+     * <p>只能由单个线程调用。批处理抛出异常时停止重放，下次从上次确认的位置继续。
+     * 暂存关闭后在当前批次完成时停止，未重放完的段文件保留到下次启动。</p>
+     *
+     * @param handler 批处理
+     * @param batchSize 每批数量
+     * @return 本次重放的日志数量
+     * @throws Exception 批处理异常
+     */
+    public int replay(BatchHandler handler, int batchSize) throws Exception {
+        synchronized (replayLock) {
+            long before = replayedCount.sum();
+            while (!closed) {
+                Path segment;
+                while (!closed && (segment = sealedSegments.peekFirst()) != null) {
+                    if (!replaySegment(segment, handler, Math.max(1, batchSize))) {
+                        break;
+                    }
+                    long size = Files.size(segment);
+                    Files.deleteIfExists(segment);
+                    sealedSegments.pollFirst();
+                    diskUsage.addAndGet(-size);
+                    replayOffset = 0;
+                }
+                // 重放期间新写入的日志在当前段文件中，封存后继续重放，直到暂存为空后新日志恢复直接写入
+                synchronized (writeLock) {
+                    if (closed || activeSize == 0) {
+                        break;
+                    }
+                    sealActive();
+                }
+            }
+            return (int) (replayedCount.sum() - before);
+        }
+    }
+
+    /**
+     * 删除超过保留时间的段文件
+     */
+    public void cleanup() {
+        if (config.getRetentionHours() <= 0) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(config.getRetentionHours());
+        synchronized (replayLock) {
+            Path segment;
+            while (!closed && (segment = sealedSegments.peekFirst()) != null) {
+                try {
+                    if (Files.getLastModifiedTime(segment).toMillis() >= expireBefore) {
+                        break;
+                    }
+                    long size = Files.size(segment);
+                    Files.deleteIfExists(segment);
+                    diskUsage.addAndGet(-size);
+                    logger.warn("请求日志暂存段文件超过保留时间，已删除: {}", segment);
+                } catch (IOException e) {
+                    logger.error("删除请求日志暂存段文件失败: {}", segment, e);
+                    break;
+                }
+                sealedSegments.pollFirst();
+                replayOffset = 0;
+                expiredSegmentCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 关闭暂存：拒绝新的写入，关闭当前写入的段文件，等待进行中的重放批次完成后释放目录锁
+     */
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                sealActive();
+            } catch (IOException e) {
+                logger.error("关闭请求日志暂存段文件失败: {}", activeSegment, e);
+            }
+        }
+        synchronized (replayLock) {
+            releaseLock();
+        }
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return true表示已关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void releaseLock() {
+        try {
+            if (directoryLock.isValid()) {
+                directoryLock.release();
+            }
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.warn("释放请求日志暂存目录锁失败: {}", directory, e);
+        }
+    }
+
+    /**
+     * 重放一个段文件
+     *
+     * @return true表示整个段文件已重放，false表示暂存关闭而中途停止
+     */
+    private boolean replaySegment(Path segment, BatchHandler handler, int batchSize) throws Exception {
+        List<RequestLogInfo> batch = new ArrayList<>(batchSize);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = replayOffset;
+            while (position + RECORD_HEADER_SIZE <= fileSize) {
+                header.clear();
+                readFully(channel, header, position);
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > fileSize) {
+                    // 末尾不完整的记录，写入时进程异常退出导致
+                    logger.warn("请求日志暂存段文件 {} 在位置 {} 存在不完整的记录，忽略剩余内容", segment, position);
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, position + RECORD_HEADER_SIZE);
+                position += RECORD_HEADER_SIZE + length;
+
+                RequestLogInfo logInfo = decode(payload.array(), checksum);
+                if (logInfo == null) {
+                    corruptedCount.increment();
+                    continue;
+                }
+                batch.add(logInfo);
+                if (batch.size() >= batchSize) {
+                    if (closed) {
+                        return false;
+                    }
+                    handler.handle(new ArrayList<>(batch));
+                    replayedCount.add(batch.size());
+                    replayOffset = position;
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                if (closed) {
+                    return false;
+                }
+                handler.handle(new ArrayList<>(batch));
+                replayedCount.add(batch.size());
+            }
+        }
+        return true;
+    }
+
+    private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of spool segment");
+            }
+        }
+    }
+
+    private ByteBuffer encode(List<RequestLogInfo> logInfoList) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(logInfoList.size());
+        int total = 0;
+        for (RequestLogInfo logInfo : logInfoList) {
+            byte[] payload = OBJECT_MAPPER.writeValueAsBytes(logInfo);
+            payloads.add(payload);
+            total += RECORD_HEADER_SIZE + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc32 = new CRC32();
+        for (byte[] payload : payloads) {
+            crc32.reset();
+            crc32.update(payload, 0, payload.length);
+            buffer.putInt(payload.length);
+            buffer.putInt((int) crc32.getValue());
+            buffer.put(payload);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private RequestLogInfo decode(byte[] payload, int checksum) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        if ((int) crc32.getValue() != checksum) {
+            logger.warn("请求日志暂存记录校验失败，已跳过");
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(payload, RequestLogInfo.class);
+        } catch (IOException e) {
+            logger.warn("请求日志暂存记录解析失败，已跳过: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        activeSegment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(activeSegment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSize = 0;
+    }
+
+    private void sealActive() throws IOException {
+        if (activeChannel == null) {
+            return;
+        }
+        try {
+            activeChannel.force(false);
+            activeChannel.close();
+        } finally {
+            if (activeSize > 0) {
+                sealedSegments.addLast(activeSegment);
+            } else {
+                Files.deleteIfExists(activeSegment);
+            }
+            activeChannel = null;
+            activeSegment = null;
+            activeSize = 0;
+        }
+    }
+
+    private long parseSequence(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 获取磁盘占用（字节）
+     *
+     * @return 磁盘占用
+     */
+    public long getDiskUsage() {
+        return diskUsage.get();
+    }
+
+    /**
+     * 获取待重放的段文件数量
+     *
+     * @return 段文件数量
+     */
+    public int getSegmentCount() {
+        return sealedSegments.size();
+    }
+
+    /**
+     * 获取写入暂存的数量
+     *
+     * @return 数量
+     */
+    public long getSpooledCount() {
+        return spooledCount.sum();
+    }
+
+    /**
+     * 获取重放成功的数量
+     *
+     * @return 数量
+     */
+    public long getReplayedCount() {
+        return replayedCount.sum();
+    }
+
+    /**
+     * 获取超出磁盘上限丢弃的数量
+     *
+     * @return 数量
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 获取校验失败的记录数量
+     *
+     * @return 数量
+     */
+    public long getCorruptedCount() {
+        return corruptedCount.sum();
+    }
+
+    /**
+     * 获取超过保留时间删除的段文件数量
+     *
+     * @return 数量
+     */
+    public long getExpiredSegmentCount() {
+        return expiredSegmentCount.sum();
+    }
+
+    /**
+     * 获取暂存目录
+     *
+     * @return 暂存目录
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 暂存目录已被其他进程使用
+     */
+    public static class LockedException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public LockedException(Path directory) {
+            super("请求日志暂存目录已被其他进程使用: " + directory);
+        }
+    }
+
+    /**
+     * 重放批处理
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+
+        /**
+         * 处理一批重放的日志
+         *
+         * @param batch 请求日志列表
+         * @throws Exception 处理失败
+         */
+        void handle(List<RequestLogInfo> batch) throws Exception;
+    }
+}
@@ -6,21 +6,28 @@
  * - 支持多种存储类型的组合使用
  * - 可以同时输出到日志和保存到数据库
  * - 提供容错机制，单个存储失败不影响其他存储
+ * - 每个存储使用单独的队列、线程和熔断器，慢的存储不拖慢其他存储
  */
 package tech.request.core.request.storage.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.properties.RequestInterceptorProperty;
 import tech.request.core.request.storage.RequestLogStorage;
+import tech.request.core.request.storage.isolation.StorageWorker;
 import tech.msop.core.tool.async.AsyncProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 复合请求日志存储实现
@@ -38,6 +45,7 @@ import java.util.concurrent.CompletableFuture;
  *   <li>异步处理：支持并行执行多个存储操作</li>
  *   <li>统一管理：统一初始化和销毁所有存储实现</li>
  *   <li>灵活配置：可动态添加和移除存储实现</li>
+ *   <li>隔离写入：启用隔离时每个存储有单独的有界队列、写入线程和熔断器，写入只入队不等待</li>
  * </ul>
  * 
  * @author 若竹流风
@@ -53,6 +61,16 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
      */
     private final List<RequestLogStorage> storageList;
     
+    /**
+     * 隔离配置
+     */
+    private final RequestInterceptorProperty.IsolationConfig isolationConfig;
+    
+    /**
+     * 每个存储的隔离写入线程，未启用隔离时为空
+     */
+    private final Map<RequestLogStorage, StorageWorker> workers = new ConcurrentHashMap<>();
+    
     /**
      * 异步处理器
      */
@@ -65,7 +83,23 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
      * @param storageList 存储实现列表
      */
     public CompositeRequestLogStorage(List<RequestLogStorage> storageList) {
+        this(storageList, new RequestInterceptorProperty.IsolationConfig());
+    }
+    
+    /**
+     * 构造函数
+     * 
+     * @param storageList 存储实现列表
+     * @param isolationConfig 隔离配置
+     */
+    public CompositeRequestLogStorage(List<RequestLogStorage> storageList, RequestInterceptorProperty.IsolationConfig isolationConfig) {
         this.storageList = new ArrayList<>(storageList != null ? storageList : new ArrayList<>());
+        this.isolationConfig = isolationConfig != null ? isolationConfig : new RequestInterceptorProperty.IsolationConfig();
+        if (this.isolationConfig.isEnabled()) {
+            for (RequestLogStorage storage : this.storageList) {
+                workers.put(storage, new StorageWorker(storage, this.isolationConfig));
+            }
+        }
     }
     
     /**
@@ -75,6 +109,9 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
      */
     public void addStorage(RequestLogStorage storage) {
         if (storage != null && !storageList.contains(storage)) {
+            if (isolationConfig.isEnabled()) {
+                workers.put(storage, new StorageWorker(storage, isolationConfig));
+            }
             storageList.add(storage);
             logger.info("添加存储实现: {}", storage.getStorageType());
         }
@@ -87,6 +124,10 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
      */
     public void removeStorage(RequestLogStorage storage) {
         if (storage != null && storageList.remove(storage)) {
+            StorageWorker worker = workers.remove(storage);
+            if (worker != null) {
+                worker.shutdown();
+            }
             logger.info("移除存储实现: {}", storage.getStorageType());
         }
     }
@@ -139,6 +180,11 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
             return;
         }
         
+        if (isolationConfig.isEnabled()) {
+            dispatch(Collections.singletonList(logInfo));
+            return;
+        }
+        
         List<Exception> exceptions = new ArrayList<>();
         
         for (RequestLogStorage storage : storageList) {
@@ -170,6 +216,11 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
             return;
         }
         
+        if (isolationConfig.isEnabled()) {
+            dispatch(logInfoList);
+            return;
+        }
+        
         List<Exception> exceptions = new ArrayList<>();
         
         for (RequestLogStorage storage : storageList) {
@@ -201,6 +252,11 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
             return CompletableFuture.completedFuture(null);
         }
         
+        if (isolationConfig.isEnabled()) {
+            dispatch(Collections.singletonList(logInfo));
+            return CompletableFuture.completedFuture(null);
+        }
+        
         // 并行执行所有存储实现
         List<CompletableFuture<Void>> futures = new ArrayList<>();
         
@@ -238,6 +294,11 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
             return CompletableFuture.completedFuture(null);
         }
         
+        if (isolationConfig.isEnabled()) {
+            dispatch(logInfoList);
+            return CompletableFuture.completedFuture(null);
+        }
+        
         // 并行执行所有存储实现
         List<CompletableFuture<Void>> futures = new ArrayList<>();
         
@@ -263,6 +324,38 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
                 });
     }
     
+    /**
+     * 将日志分发到每个存储的隔离队列，只入队不等待写入
+     * 
+     * @param logInfoList 请求日志信息列表
+     */
+    private void dispatch(List<RequestLogInfo> logInfoList) {
+        // 复制一份，避免调用方复用列表影响队列中的数据
+        List<RequestLogInfo> batch = Collections.unmodifiableList(new ArrayList<>(logInfoList));
+        for (RequestLogStorage storage : storageList) {
+            StorageWorker worker = workers.get(storage);
+            if (worker != null && !worker.offer(batch)) {
+                logger.warn("存储实现 {} 队列已满，丢弃 {} 条日志", storage.getStorageType(), batch.size());
+            }
+        }
+    }
+    
+    /**
+     * 获取每个存储的写入统计
+     * 
+     * @return 存储类型到统计信息的映射，未启用隔离时为空
+     */
+    public Map<String, StorageWorker.Statistics> getStatistics() {
+        Map<String, StorageWorker.Statistics> statistics = new LinkedHashMap<>();
+        for (RequestLogStorage storage : storageList) {
+            StorageWorker worker = workers.get(storage);
+            if (worker != null) {
+                statistics.put(storage.getStorageType(), worker.getStatistics());
+            }
+        }
+        return statistics;
+    }
+    
     /**
      * 检查存储服务是否可用
      * 
@@ -309,6 +402,13 @@ public class CompositeRequestLogStorage implements RequestLogStorage {
     @Override
     public void destroy() throws Exception {
         try {
+            // 先停止隔离写入线程，等待队列中的日志写入完成
+            for (StorageWorker worker : workers.values()) {
+                worker.shutdown();
+                logger.info("存储实现写入统计: {}", worker.getStatistics());
+            }
+            workers.clear();
+            
             // 销毁所有存储实现
             for (RequestLogStorage storage : storageList) {
                 try {
@@ -255,7 +255,8 @@ public class DatabaseRequestLogStorage implements RequestLogStorage {
             TABLE_NAME);
         
         try {
-            jdbcTemplate.batchUpdate(insertSql, logInfoList, logInfoList.size(),
+            int batchSize = Math.max(1, properties.getDatabase().getBatchSize());
+            jdbcTemplate.batchUpdate(insertSql, logInfoList, batchSize,
                 (ps, logInfo) -> {
                     ps.setString(1, logInfo.getRequestId());
                     ps.setString(2, logInfo.getClientType());
@@ -175,12 +175,19 @@ public class MongoRequestLogStorage implements RequestLogStorage {
         }
         
         try {
-            List<Document> documents = new ArrayList<>(logInfoList.size());
+            // 按配置的批量大小分批插入
+            int batchSize = Math.max(1, properties.getMongo().getBatchSize());
+            List<Document> documents = new ArrayList<>(Math.min(batchSize, logInfoList.size()));
             for (RequestLogInfo logInfo : logInfoList) {
                 documents.add(convertToDocument(logInfo));
+                if (documents.size() >= batchSize) {
+                    collection.insertMany(documents);
+                    documents = new ArrayList<>(batchSize);
+                }
+            }
+            if (!documents.isEmpty()) {
+                collection.insertMany(documents);
             }
-            
-            collection.insertMany(documents);
             logger.debug("成功批量存储{}条请求日志到MongoDB", logInfoList.size());
         } catch (Exception e) {
             logger.error("批量存储请求日志到MongoDB失败，数量: {}", logInfoList.size(), e);
@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 带本地磁盘暂存的请求日志存储
+ *
+ * 功能说明：
+ * - 包装单个存储实现，写入失败时转存本地磁盘
+ * - 存在未重放的日志时新日志直接写入暂存，保证顺序并避免反复等待不可用的后端
+ * - 后台线程在存储恢复后重放暂存的日志
+ * - 按应用名隔离暂存目录，同一应用的多个进程使用不同的槽位目录
+ */
+package tech.request.core.request.storage.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.properties.RequestInterceptorProperty;
+import tech.request.core.request.spool.RequestLogSpool;
+import tech.request.core.request.storage.RequestLogStorage;
+import tech.msop.core.tool.async.AsyncProcessor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带本地磁盘暂存的请求日志存储
+ *
+ * <p>该类以装饰方式包装一个存储实现：</p>
+ * <ul>
+ *   <li>同步写入失败时日志写入 {@link RequestLogSpool}，不向上抛出异常</li>
+ *   <li>暂存中有待重放的日志时，新日志直接追加到暂存，由重放线程按顺序写入</li>
+ *   <li>重放线程按 replayIntervalMillis 检查存储是否可用，可用时调用 {@link RequestLogStorage#batchStore(List)} 重放</li>
+ * </ul>
+ * <p>暂存目录为 {@code <directory>/<应用名>/<存储类型>}，多个存储组合时互不影响。
+ * 目录由 {@link RequestLogSpool} 加文件锁，被同一主机上的其他进程占用时依次尝试
+ * {@code <存储类型>-1}、{@code <存储类型>-2} 等槽位，进程重启后会接管空闲槽位中遗留的段文件。</p>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class SpoolingRequestLogStorage implements RequestLogStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolingRequestLogStorage.class);
+
+    /**
+     * 未配置应用名时使用的实例目录名
+     */
+    private static final String DEFAULT_INSTANCE = "default";
+
+    /**
+     * 每种存储类型最多尝试的槽位目录数量
+     */
+    private static final int MAX_SLOTS = 16;
+
+    /**
+     * 被包装的存储实现
+     */
+    private final RequestLogStorage delegate;
+
+    /**
+     * 暂存配置
+     */
+    private final RequestInterceptorProperty.SpoolConfig config;
+
+    /**
+     * 本地磁盘暂存
+     */
+    private final RequestLogSpool spool;
+
+    /**
+     * 异步处理器，为空时使用公共线程池
+     */
+    private final AsyncProcessor asyncProcessor;
+
+    /**
+     * 重放线程
+     */
+    private final ScheduledExecutorService replayExecutor;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被包装的存储实现
+     * @param config 暂存配置
+     * @param asyncProcessor 异步处理器（可选）
+     * @throws IOException 暂存目录创建失败
+     */
+    public SpoolingRequestLogStorage(RequestLogStorage delegate, RequestInterceptorProperty.SpoolConfig config,
+                                     AsyncProcessor asyncProcessor) throws IOException {
+        this(delegate, config, asyncProcessor, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param delegate 被包装的存储实现
+     * @param config 暂存配置
+     * @param asyncProcessor 异步处理器（可选）
+     * @param instanceName 实例目录名，一般为应用名，为空时使用 default
+     * @throws IOException 暂存目录创建失败或所有槽位都被占用
+     */
+    public SpoolingRequestLogStorage(RequestLogStorage delegate, RequestInterceptorProperty.SpoolConfig config,
+                                     AsyncProcessor asyncProcessor, String instanceName) throws IOException {
+        this.delegate = delegate;
+        this.config = config;
+        this.asyncProcessor = asyncProcessor;
+        String storageType = delegate.getStorageType().toLowerCase();
+        this.spool = openSpool(config, StringUtils.hasText(instanceName) ? instanceName.trim() : DEFAULT_INSTANCE, storageType);
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "request-log-spool-replayer-" + storageType);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100L, config.getReplayIntervalMillis());
+        this.replayExecutor.scheduleWithFixedDelay(this::replay, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("请求日志本地暂存启用，存储类型: {}, 目录: {}", delegate.getStorageType(), spool.getDirectory());
+    }
+
+    /**
+     * 打开第一个未被其他进程占用的槽位目录
+     *
+     * @param config 暂存配置
+     * @param instanceName 实例目录名
+     * @param storageType 存储类型
+     * @return 本地磁盘暂存
+     * @throws IOException 暂存目录创建失败或所有槽位都被占用
+     */
+    private static RequestLogSpool openSpool(RequestInterceptorProperty.SpoolConfig config, String instanceName,
+                                             String storageType) throws IOException {
+        Path instanceDirectory = Paths.get(config.getDirectory(), instanceName);
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            Path directory = instanceDirectory.resolve(slot == 0 ? storageType : storageType + "-" + slot);
+            try {
+                return new RequestLogSpool(directory, config);
+            } catch (RequestLogSpool.LockedException e) {
+                logger.debug("请求日志暂存目录已被占用，尝试下一个槽位: {}", directory);
+            }
+        }
+        throw new IOException("请求日志暂存目录的 " + MAX_SLOTS + " 个槽位都已被占用: " + instanceDirectory.resolve(storageType));
+    }
+
+    /**
+     * 存储单个请求日志
+     *
+     * @param logInfo 请求日志信息
+     * @throws Exception 存储和暂存都失败
+     */
+    @Override
+    public void store(RequestLogInfo logInfo) throws Exception {
+        if (logInfo == null) {
+            return;
+        }
+        batchStore(Collections.singletonList(logInfo));
+    }
+
+    /**
+     * 批量存储请求日志，失败时写入本地暂存
+     *
+     * @param logInfoList 请求日志信息列表
+     * @throws Exception 存储和暂存都失败
+     */
+    @Override
+    public void batchStore(List<RequestLogInfo> logInfoList) throws Exception {
+        if (logInfoList == null || logInfoList.isEmpty()) {
+            return;
+        }
+        // 暂存已关闭（应用停止中）时直接写入存储，失败时向上抛出
+        if (spool.isClosed()) {
+            delegate.batchStore(logInfoList);
+            return;
+        }
+        // 有待重放的日志时直接写入暂存，保证顺序
+        if (spool.hasPending()) {
+            spool.append(logInfoList);
+            return;
+        }
+        try {
+            delegate.batchStore(logInfoList);
+        } catch (Exception e) {
+            logger.warn("存储实现 {} 写入失败，{} 条日志转存本地: {}", delegate.getStorageType(), logInfoList.size(), e.getMessage());
+            spool.append(logInfoList);
+        }
+    }
+
+    /**
+     * 异步存储单个请求日志
+     *
+     * @param logInfo 请求日志信息
+     * @return CompletableFuture对象
+     */
+    @Override
+    public CompletableFuture<Void> storeAsync(RequestLogInfo logInfo) {
+        if (logInfo == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return batchStoreAsync(Collections.singletonList(logInfo));
+    }
+
+    /**
+     * 异步批量存储请求日志
+     *
+     * <p>被包装的存储实现的异步方法会吞掉异常，这里在异步线程中调用同步方法以便失败时转存。</p>
+     *
+     * @param logInfoList 请求日志信息列表
+     * @return CompletableFuture对象
+     */
+    @Override
+    public CompletableFuture<Void> batchStoreAsync(List<RequestLogInfo> logInfoList) {
+        if (logInfoList == null || logInfoList.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Runnable task = () -> {
+            try {
+                batchStore(logInfoList);
+            } catch (Exception e) {
+                logger.error("异步存储请求日志失败 - 存储类型: {}, 数量: {}", delegate.getStorageType(), logInfoList.size(), e);
+            }
+        };
+        if (asyncProcessor == null) {
+            return CompletableFuture.runAsync(task);
+        }
+        return asyncProcessor.executeAsyncWithResult(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 重放暂存的日志
+     */
+    private void replay() {
+        try {
+            spool.cleanup();
+            if (!spool.hasPending() || !delegate.isAvailable()) {
+                return;
+            }
+            int replayed = spool.replay(delegate::batchStore, config.getReplayBatchSize());
+            if (replayed > 0) {
+                logger.info("存储实现 {} 已恢复，重放暂存日志 {} 条", delegate.getStorageType(), replayed);
+            }
+        } catch (Exception e) {
+            logger.warn("存储实现 {} 重放暂存日志失败，稍后重试: {}", delegate.getStorageType(), e.getMessage());
+        }
+    }
+
+    /**
+     * 检查存储服务是否可用
+     *
+     * <p>后端不可用时日志写入本地暂存，因此只要暂存可写入就视为可用。</p>
+     *
+     * @return true表示可用
+     */
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable() || spool.getDiskUsage() < config.getMaxDiskSize();
+    }
+
+    /**
+     * 获取存储类型名称
+     *
+     * @return 存储类型名称
+     */
+    @Override
+    public String getStorageType() {
+        return delegate.getStorageType();
+    }
+
+    /**
+     * 初始化存储服务
+     *
+     * <p>被包装的存储应为Spring管理的Bean，已由Spring完成注入和初始化，
+     * 因此该方法不标注 {@code @PostConstruct}，仅在组合存储等调用方显式初始化时委托执行。</p>
+     *
+     * @throws Exception 初始化异常
+     */
+    @Override
+    public void initialize() throws Exception {
+        delegate.initialize();
+    }
+
+    /**
+     * 停止重放线程并关闭暂存，不销毁被包装的存储实现
+     *
+     * <p>不中断重放线程，避免存储驱动把中断转换为写入失败；暂存关闭后重放在当前批次完成时停止，
+     * 之后的日志直接写入被包装的存储。</p>
+     */
+    public void shutdown() {
+        replayExecutor.shutdown();
+        spool.close();
+        try {
+            if (!replayExecutor.awaitTermination(Math.max(100L, config.getReplayIntervalMillis()), TimeUnit.MILLISECONDS)) {
+                logger.warn("请求日志暂存重放线程未能及时停止，存储类型: {}", delegate.getStorageType());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("请求日志本地暂存已关闭，存储类型: {}, 待重放段文件: {}, 磁盘占用: {} 字节",
+                delegate.getStorageType(), spool.getSegmentCount(), spool.getDiskUsage());
+    }
+
+    /**
+     * 销毁存储服务，释放资源
+     *
+     * @throws Exception 销毁异常
+     */
+    @Override
+    public void destroy() throws Exception {
+        shutdown();
+        delegate.destroy();
+    }
+
+    /**
+     * 获取被包装的存储实现
+     *
+     * @return 存储实现
+     */
+    public RequestLogStorage getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 获取本地磁盘暂存
+     *
+     * @return 本地磁盘暂存
+     */
+    public RequestLogSpool getSpool() {
+        return spool;
+    }
+}
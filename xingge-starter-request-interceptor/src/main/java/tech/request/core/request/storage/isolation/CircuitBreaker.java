@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 存储熔断器
+ *
+ * 功能说明：
+ * - 连续失败达到阈值后熔断，熔断期间拒绝写入
+ * - 熔断时间结束后放行一次试探写入
+ * - 试探成功恢复，失败继续熔断
+ */
+package tech.request.core.request.storage.isolation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 存储熔断器
+ *
+ * <p>状态转换：</p>
+ * <ul>
+ *   <li>CLOSED：正常放行，连续失败 failureThreshold 次后转为 OPEN</li>
+ *   <li>OPEN：拒绝写入，超过 openDurationMillis 后转为 HALF_OPEN</li>
+ *   <li>HALF_OPEN：只放行一次试探写入，成功转为 CLOSED，失败重新转为 OPEN</li>
+ * </ul>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态枚举
+     */
+    public enum State {
+        /**
+         * 关闭，正常放行
+         */
+        CLOSED,
+        /**
+         * 打开，拒绝写入
+         */
+        OPEN,
+        /**
+         * 半开，放行一次试探写入
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * 连续失败阈值
+     */
+    private final int failureThreshold;
+
+    /**
+     * 熔断持续时间（毫秒）
+     */
+    private final long openDurationMillis;
+
+    /**
+     * 当前状态
+     */
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+
+    /**
+     * 连续失败次数
+     */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * 熔断开始时间
+     */
+    private volatile long openedAt;
+
+    /**
+     * 构造函数
+     *
+     * @param failureThreshold 连续失败阈值
+     * @param openDurationMillis 熔断持续时间（毫秒）
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = Math.max(0L, openDurationMillis);
+    }
+
+    /**
+     * 是否放行本次写入
+     *
+     * @return true表示放行
+     */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) {
+            // 熔断时间结束，只有一个调用方获得试探机会
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /**
+     * 记录写入成功
+     */
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    /**
+     * 记录写入失败
+     */
+    public void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (state.get() == State.HALF_OPEN || failures >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            state.set(State.OPEN);
+        }
+    }
+
+    /**
+     * 获取当前状态
+     *
+     * @return 当前状态
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 获取连续失败次数
+     *
+     * @return 连续失败次数
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+}
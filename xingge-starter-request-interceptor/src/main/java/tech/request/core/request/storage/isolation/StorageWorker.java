@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2024 行歌(xingge)
+ * 单个存储的隔离写入线程
+ *
+ * 功能说明：
+ * - 每个存储使用单独的有界队列和写入线程
+ * - 写入经过熔断器，后端异常时快速丢弃
+ * - 统计写入数量、耗时和失败次数
+ */
+package tech.request.core.request.storage.isolation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.request.core.request.model.RequestLogInfo;
+import tech.request.core.request.properties.RequestInterceptorProperty;
+import tech.request.core.request.storage.RequestLogStorage;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个存储的隔离写入线程
+ *
+ * <p>组合存储为每个子存储创建一个实例：</p>
+ * <ul>
+ *   <li>调用方只做一次非阻塞入队，队列满时丢弃，不会被慢的存储拖住</li>
+ *   <li>写入线程逐批调用 {@link RequestLogStorage#batchStore(List)}，一个存储变慢不影响其他存储</li>
+ *   <li>连续失败后熔断，熔断期间的日志直接丢弃，之后放行一次试探写入</li>
+ * </ul>
+ *
+ * @author 若竹流风
+ * @version 0.0.4
+ * @since 2025-07-11
+ */
+public class StorageWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageWorker.class);
+
+    /**
+     * 存储实现
+     */
+    private final RequestLogStorage storage;
+
+    /**
+     * 隔离配置
+     */
+    private final RequestInterceptorProperty.IsolationConfig config;
+
+    /**
+     * 有界队列，元素为一批日志
+     */
+    private final BlockingQueue<List<RequestLogInfo>> queue;
+
+    /**
+     * 熔断器
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * 写入线程
+     */
+    private final Thread worker;
+
+    /**
+     * 是否运行中
+     */
+    private volatile boolean running = true;
+
+    /**
+     * 写入成功的日志数量
+     */
+    private final LongAdder storedCount = new LongAdder();
+
+    /**
+     * 写入失败的日志数量
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * 队列满丢弃的日志数量
+     */
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * 熔断期间拒绝的日志数量
+     */
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 写入批次数量
+     */
+    private final LongAdder batchCount = new LongAdder();
+
+    /**
+     * 写入总耗时（毫秒）
+     */
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
+    /**
+     * 最大写入耗时（毫秒）
+     */
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    /**
+     * 启动时间
+     */
+    private final long startTime = System.currentTimeMillis();
+
+    /**
+     * 构造函数，创建后立即启动写入线程
+     *
+     * @param storage 存储实现
+     * @param config 隔离配置
+     */
+    public StorageWorker(RequestLogStorage storage, RequestInterceptorProperty.IsolationConfig config) {
+        this.storage = storage;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.circuitBreaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenDurationMillis());
+        this.worker = new Thread(this::workLoop, "request-log-storage-" + storage.getStorageType().toLowerCase());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交一批日志，不阻塞
+     *
+     * @param logInfoList 请求日志列表
+     * @return true表示已入队
+     */
+    public boolean offer(List<RequestLogInfo> logInfoList) {
+        if (running && queue.offer(logInfoList)) {
+            return true;
+        }
+        droppedCount.add(logInfoList.size());
+        return false;
+    }
+
+    /**
+     * 写入循环
+     */
+    private void workLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<RequestLogInfo> batch = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * 经过熔断器写入一批日志
+     *
+     * @param batch 请求日志列表
+     */
+    private void write(List<RequestLogInfo> batch) {
+        if (!circuitBreaker.allowRequest()) {
+            rejectedCount.add(batch.size());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            storage.batchStore(batch);
+            circuitBreaker.onSuccess();
+            storedCount.add(batch.size());
+        } catch (Exception e) {
+            CircuitBreaker.State before = circuitBreaker.getState();
+            circuitBreaker.onFailure();
+            failedCount.add(batch.size());
+            if (before != CircuitBreaker.State.OPEN && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+                logger.error("存储实现 {} 连续失败 {} 次，熔断 {}ms", storage.getStorageType(),
+                        circuitBreaker.getConsecutiveFailures(), config.getOpenDurationMillis(), e);
+            } else {
+                logger.warn("存储实现 {} 批量存储失败，数量: {}: {}", storage.getStorageType(), batch.size(), e.getMessage());
+            }
+        } finally {
+            long latency = System.currentTimeMillis() - start;
+            batchCount.increment();
+            totalLatencyMillis.add(latency);
+            maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * 停止写入线程，等待队列中的日志写入完成
+     */
+    public void shutdown() {
+        // 不中断写入线程，避免正在进行的写入失败，队列为空后线程自然退出
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(Math.max(1L, config.getShutdownTimeoutSeconds())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("存储实现 {} 关闭时队列中仍有 {} 批日志未写入", storage.getStorageType(), queue.size());
+        }
+    }
+
+    /**
+     * 获取存储实现
+     *
+     * @return 存储实现
+     */
+    public RequestLogStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public Statistics getStatistics() {
+        long batches = batchCount.sum();
+        long stored = storedCount.sum();
+        long elapsedSeconds = Math.max(1L, (System.currentTimeMillis() - startTime) / 1000);
+        return new Statistics(storage.getStorageType(), circuitBreaker.getState(), queue.size(), stored,
+                failedCount.sum(), droppedCount.sum(), rejectedCount.sum(), stored / elapsedSeconds,
+                batches == 0 ? 0L : totalLatencyMillis.sum() / batches, maxLatencyMillis.get());
+    }
+
+    /**
+     * 单个存储的统计信息
+     */
+    public static class Statistics {
+        private final String storageType;
+        private final CircuitBreaker.State circuitState;
+        private final int queueDepth;
+        private final long stored;
+        private final long failed;
+        private final long dropped;
+        private final long rejected;
+        private final long throughputPerSecond;
+        private final long avgLatencyMillis;
+        private final long maxLatencyMillis;
+
+        public Statistics(String storageType, CircuitBreaker.State circuitState, int queueDepth, long stored,
+                          long failed, long dropped, long rejected, long throughputPerSecond,
+                          long avgLatencyMillis, long maxLatencyMillis) {
+            this.storageType = storageType;
+            this.circuitState = circuitState;
+            this.queueDepth = queueDepth;
+            this.stored = stored;
+            this.failed = failed;
+            this.dropped = dropped;
+            this.rejected = rejected;
+            this.throughputPerSecond = throughputPerSecond;
+            this.avgLatencyMillis = avgLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+        }
+
+        public String getStorageType() {
+            return storageType;
+        }
+
+        public CircuitBreaker.State getCircuitState() {
+            return circuitState;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public long getStored() {
+            return stored;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public long getAvgLatencyMillis() {
+            return avgLatencyMillis;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return storageType + "{circuit=" + circuitState + ", queueDepth=" + queueDepth + ", stored=" + stored
+                    + ", failed=" + failed + ", dropped=" + dropped + ", rejected=" + rejected
+                    + ", throughput=" + throughputPerSecond + "/s, avgLatency=" + avgLatencyMillis
+                    + "ms, maxLatency=" + maxLatencyMillis + "ms}";
+        }
+    }
+}